@@ -0,0 +1,253 @@
+package benchmark;
+
+import util.DatabaseConnection;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Embedded H2 database in MySQL compatibility mode for the DAO benchmarks.
+ * Creates the SAMS schema and seeds it with a configurable number of rows.
+ * JMH runs each parameter combination in a fresh fork, so every trial starts
+ * from an empty database and cold DAO caches.
+ */
+public final class BenchmarkDatabase {
+
+    /**
+     * Plain-text password of every seeded user
+     */
+    public static final String PASSWORD = "benchmark";
+
+    private static final String URL =
+        "jdbc:h2:mem:sams_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Bob", "Carol", "David", "Emma", "Frank", "Grace", "Henry", "Isla", "Jack",
+        "Kavya", "Liam", "Maya", "Nuwan", "Olivia", "Priya", "Quinn", "Ravi", "Sara", "Tom"
+    };
+    private static final String[] LAST_NAMES = {
+        "Williams", "Anderson", "Martinez", "Garcia", "Rodriguez", "Smith", "Johnson", "Brown",
+        "Davis", "Perera", "Fernando", "Silva", "Taylor", "Thomas", "Moore", "Jackson"
+    };
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE students (" +
+        "student_id INT PRIMARY KEY AUTO_INCREMENT, " +
+        "student_number VARCHAR(20) UNIQUE NOT NULL, " +
+        "first_name VARCHAR(50) NOT NULL, " +
+        "last_name VARCHAR(50) NOT NULL, " +
+        "email VARCHAR(100) UNIQUE NOT NULL, " +
+        "phone VARCHAR(15), " +
+        "date_of_birth DATE, " +
+        "enrollment_date DATE NOT NULL, " +
+        "status ENUM('Active', 'Inactive', 'Graduated') DEFAULT 'Active', " +
+        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+
+        "CREATE TABLE lecturers (" +
+        "lecturer_id INT PRIMARY KEY AUTO_INCREMENT, " +
+        "lecturer_number VARCHAR(20) UNIQUE NOT NULL, " +
+        "first_name VARCHAR(50) NOT NULL, " +
+        "last_name VARCHAR(50) NOT NULL, " +
+        "email VARCHAR(100) UNIQUE NOT NULL, " +
+        "phone VARCHAR(15), " +
+        "department VARCHAR(50), " +
+        "qualification VARCHAR(100), " +
+        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+
+        "CREATE TABLE courses (" +
+        "course_id INT PRIMARY KEY AUTO_INCREMENT, " +
+        "course_code VARCHAR(20) UNIQUE NOT NULL, " +
+        "course_name VARCHAR(100) NOT NULL, " +
+        "credits INT NOT NULL, " +
+        "semester VARCHAR(20), " +
+        "lecturer_id INT, " +
+        "capacity INT DEFAULT 50, " +
+        "description TEXT, " +
+        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+        "FOREIGN KEY (lecturer_id) REFERENCES lecturers(lecturer_id) ON DELETE SET NULL)",
+
+        "CREATE TABLE enrollments (" +
+        "enrollment_id INT PRIMARY KEY AUTO_INCREMENT, " +
+        "student_id INT NOT NULL, " +
+        "course_id INT NOT NULL, " +
+        "enrollment_date DATE NOT NULL, " +
+        "status ENUM('Enrolled', 'Completed', 'Dropped') DEFAULT 'Enrolled', " +
+        "grade VARCHAR(5), " +
+        "FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE, " +
+        "FOREIGN KEY (course_id) REFERENCES courses(course_id) ON DELETE CASCADE, " +
+        "CONSTRAINT unique_enrollment UNIQUE (student_id, course_id))",
+
+        "CREATE INDEX idx_enrollment_date ON enrollments (enrollment_date, enrollment_id)",
+
+        "CREATE TABLE users (" +
+        "user_id INT PRIMARY KEY AUTO_INCREMENT, " +
+        "username VARCHAR(50) UNIQUE NOT NULL, " +
+        "password VARCHAR(64) NOT NULL, " +
+        "full_name VARCHAR(100) NOT NULL, " +
+        "email VARCHAR(100) UNIQUE NOT NULL, " +
+        "role VARCHAR(20) NOT NULL, " +
+        "status VARCHAR(20) DEFAULT 'Active', " +
+        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+        "last_login TIMESTAMP NULL)"
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Point DatabaseConnection at a fresh in-memory database, create the schema
+     * and seed it. Must run before the first DAO is created in the fork.
+     */
+    public static void start(int students, int courses, int enrollmentsPerStudent, int users)
+            throws SQLException {
+        System.setProperty("sams.db.driver", "org.h2.Driver");
+        System.setProperty("sams.db.url", URL);
+        System.setProperty("sams.db.user", "sa");
+        System.setProperty("sams.db.password", "");
+
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    stmt.execute(ddl);
+                }
+            }
+            connection.setAutoCommit(false);
+            seedLecturers(connection, Math.max(1, courses / 5));
+            seedCourses(connection, courses, Math.max(1, courses / 5));
+            seedStudents(connection, students);
+            seedEnrollments(connection, students, courses, Math.min(enrollmentsPerStudent, courses));
+            seedUsers(connection, users);
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    public static void stop() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        DatabaseConnection.getInstance().closeConnection();
+    }
+
+    public static String firstName(int i) {
+        return FIRST_NAMES[i % FIRST_NAMES.length];
+    }
+
+    public static String lastName(int i) {
+        return LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    private static void seedLecturers(Connection connection, int count) throws SQLException {
+        String query = "INSERT INTO lecturers (lecturer_number, first_name, last_name, email, department) " +
+                      "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 1; i <= count; i++) {
+                stmt.setString(1, String.format("LEC%04d", i));
+                stmt.setString(2, firstName(i));
+                stmt.setString(3, lastName(i));
+                stmt.setString(4, "lecturer" + i + "@university.edu");
+                stmt.setString(5, i % 2 == 0 ? "Computer Science" : "Mathematics");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedCourses(Connection connection, int count, int lecturers) throws SQLException {
+        String query = "INSERT INTO courses (course_code, course_name, credits, semester, lecturer_id, capacity) " +
+                      "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 1; i <= count; i++) {
+                stmt.setString(1, String.format("C%04d", i));
+                stmt.setString(2, "Course " + i);
+                stmt.setInt(3, 3);
+                stmt.setString(4, "Semester " + (i % 3 + 1));
+                stmt.setInt(5, (i - 1) % lecturers + 1);
+                stmt.setInt(6, 1_000_000);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedStudents(Connection connection, int count) throws SQLException {
+        String query = "INSERT INTO students (student_number, first_name, last_name, email, " +
+                      "enrollment_date, status) VALUES (?, ?, ?, ?, ?, ?)";
+        java.sql.Date enrolled = java.sql.Date.valueOf("2024-01-10");
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 1; i <= count; i++) {
+                stmt.setString(1, String.format("STU%07d", i));
+                stmt.setString(2, firstName(i));
+                stmt.setString(3, lastName(i));
+                stmt.setString(4, "student" + i + "@student.edu");
+                stmt.setDate(5, enrolled);
+                stmt.setString(6, i % 10 == 0 ? "Inactive" : "Active");
+                stmt.addBatch();
+                if (i % 1000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedEnrollments(Connection connection, int students, int courses, int perStudent)
+            throws SQLException {
+        String query = "INSERT INTO enrollments (student_id, course_id, enrollment_date, status) " +
+                      "VALUES (?, ?, ?, 'Enrolled')";
+        java.sql.Date enrolled = java.sql.Date.valueOf("2024-01-15");
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int pending = 0;
+            for (int s = 1; s <= students; s++) {
+                for (int j = 0; j < perStudent; j++) {
+                    stmt.setInt(1, s);
+                    stmt.setInt(2, (s + j) % courses + 1);
+                    stmt.setDate(3, enrolled);
+                    stmt.addBatch();
+                    if (++pending % 1000 == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void seedUsers(Connection connection, int count) throws SQLException {
+        String query = "INSERT INTO users (username, password, full_name, email, role) VALUES (?, ?, ?, ?, ?)";
+        String hash = sha256(PASSWORD);
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 1; i <= count; i++) {
+                stmt.setString(1, String.format("user%05d", i));
+                stmt.setString(2, hash);
+                stmt.setString(3, firstName(i) + " " + lastName(i));
+                stmt.setString(4, "user" + i + "@university.edu");
+                stmt.setString(5, i == 1 ? "Admin" : "Staff");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Same hash as UserDAO, so seeded users can authenticate
+     */
+    private static String sha256(String password) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(password.getBytes(Charset.defaultCharset()));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package benchmark;
+
+import dao.EnrollmentDAO;
+import model.Enrollment;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EnrollmentDAO hot paths: the per-course class list, the full list and the first grid page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentDAOBenchmark {
+
+    @Param({"1000", "10000"})
+    public int students;
+
+    @Param({"50"})
+    public int courses;
+
+    @Param({"3"})
+    public int enrollmentsPerStudent;
+
+    private EnrollmentDAO enrollmentDAO;
+    private final AtomicInteger nextCourse = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.start(students, courses, enrollmentsPerStudent, 10);
+        enrollmentDAO = new EnrollmentDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<Enrollment> getEnrollmentsByCourse() throws Exception {
+        return enrollmentDAO.getEnrollmentsByCourse(nextCourse.getAndIncrement() % courses + 1);
+    }
+
+    @Benchmark
+    public List<Enrollment> getAllEnrollments() throws Exception {
+        return enrollmentDAO.getAllEnrollments();
+    }
+
+    @Benchmark
+    public List<Enrollment> getEnrollmentsPage() throws Exception {
+        return enrollmentDAO.getEnrollmentsPage(null, 100);
+    }
+}
\ No newline at end of file
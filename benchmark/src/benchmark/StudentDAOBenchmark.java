@@ -0,0 +1,67 @@
+package benchmark;
+
+import dao.StudentDAO;
+import model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StudentDAO hot paths: insert, list, search and the first grid page
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentDAOBenchmark {
+
+    @Param({"1000", "10000"})
+    public int students;
+
+    @Param({"50"})
+    public int courses;
+
+    private StudentDAO studentDAO;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.start(students, courses, 3, 10);
+        studentDAO = new StudentDAO();
+        studentDAO.buildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public boolean addStudent() throws Exception {
+        int n = sequence.incrementAndGet();
+        Student student = new Student(String.format("NEW%07d", n), BenchmarkDatabase.firstName(n),
+                                      BenchmarkDatabase.lastName(n), "new" + n + "@student.edu",
+                                      null, null, new Date());
+        return studentDAO.addStudent(student);
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents() throws Exception {
+        return studentDAO.getAllStudents();
+    }
+
+    @Benchmark
+    public List<Student> searchStudents() throws Exception {
+        return studentDAO.searchStudents("smi");
+    }
+
+    @Benchmark
+    public List<Student> getStudentsPage() throws Exception {
+        return studentDAO.getStudentsPage(null, 100);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package benchmark;
+
+import dao.UserDAO;
+import model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UserDAO hot paths: login, insert, list and search
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDAOBenchmark {
+
+    @Param({"100", "1000"})
+    public int users;
+
+    private UserDAO userDAO;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.start(10, 5, 1, users);
+        userDAO = new UserDAO();
+        userDAO.buildSearchIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public User authenticate() throws Exception {
+        String username = String.format("user%05d", sequence.getAndIncrement() % users + 1);
+        return userDAO.authenticate(username, BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public boolean addUser() throws Exception {
+        int n = sequence.incrementAndGet();
+        User user = new User("new" + n, BenchmarkDatabase.PASSWORD, "New User " + n,
+                             "new" + n + "@university.edu", "Staff");
+        return userDAO.addUser(user);
+    }
+
+    @Benchmark
+    public List<User> getAllUsers() throws Exception {
+        return userDAO.getAllUsers();
+    }
+
+    @Benchmark
+    public List<User> searchUsers() throws Exception {
+        return userDAO.searchUsers("use");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package dao;
+
+import model.Assessment;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+import exception.ValidationException;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class AssessmentDAO {
+    
+    private static final List<String> ASSESSMENT_TYPES = Arrays.asList("Quiz", "Assignment", "Midterm", "Final");
+    
+    private static final String INSERT_QUERY = "INSERT INTO assessments (enrollment_id, assessment_type, " +
+                                               "marks_obtained, total_marks, assessment_date, remarks) " +
+                                               "VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private final DatabaseConnection database;
+    
+    public AssessmentDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+    
+    private void validateAssessment(String assessmentType, double totalMarks, Date assessmentDate)
+            throws ValidationException {
+        if (assessmentType == null || !ASSESSMENT_TYPES.contains(assessmentType)) {
+            throw new ValidationException("Valid assessment type must be selected");
+        }
+        if (totalMarks <= 0) {
+            throw new ValidationException("Total marks must be greater than zero");
+        }
+        if (assessmentDate == null) {
+            throw new ValidationException("Assessment date is required");
+        }
+    }
+
+    /**
+     * Save one assessment for a whole course. Rows with missing or out of
+     * range marks are left out instead of failing the whole batch; the rest go
+     * to the WriteBehind journal and are written to the database in the
+     * background. Without a journal they are written here in one transaction.
+     *
+     * onWritten gets the outcome once the rows are in the database, with the
+     * rows left out and why, students who are not enrolled included. It runs
+     * on a background thread, possibly before this method returns.
+     */
+    public void saveAssessments(int courseId, String assessmentType, double totalMarks, Date assessmentDate,
+                                List<Assessment> results, Consumer<BatchResult> onWritten)
+            throws DatabaseException, ValidationException {
+        validateAssessment(assessmentType, totalMarks, assessmentDate);
+        
+        BatchResult batchResult = new BatchResult();
+        List<Assessment> accepted = new ArrayList<>();
+        for (Assessment result : results) {
+            Double marks = result.getMarksObtained();
+            if (marks == null) {
+                batchResult.addFailure(result.getStudentNumber(), "Marks are required");
+            } else if (marks < 0 || marks > totalMarks) {
+                batchResult.addFailure(result.getStudentNumber(), "Marks must be between 0 and " + totalMarks);
+            } else {
+                accepted.add(result);
+            }
+        }
+        if (accepted.isEmpty()) {
+            onWritten.accept(batchResult);
+            return;
+        }
+
+        WriteBehind writeBehind = WriteBehind.getInstance();
+        if (writeBehind != null) {
+            long sequence = writeBehind.append(WriteBehind.ASSESSMENTS, out -> {
+                out.writeInt(courseId);
+                out.writeUTF(assessmentType);
+                out.writeDouble(totalMarks);
+                out.writeLong(assessmentDate.getTime());
+                out.writeInt(accepted.size());
+                for (Assessment assessment : accepted) {
+                    out.writeUTF(assessment.getStudentNumber());
+                    out.writeDouble(assessment.getMarksObtained());
+                    WriteBehind.writeString(out, assessment.getRemarks());
+                }
+            });
+            writeBehind.whenFlushed(sequence, outcome -> {
+                batchResult.getFailures().forEach(outcome::addFailure);
+                onWritten.accept(outcome);
+            });
+            return;
+        }
+        
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                insertAssessments(connection, courseId, assessmentType, totalMarks, assessmentDate,
+                                  accepted, batchResult);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving assessments: " + e.getMessage(), e);
+        }
+        onWritten.accept(batchResult);
+    }
+
+    /**
+     * Write a journaled assessment inside the flusher's transaction; the rows
+     * turned down are reported in batchResult
+     */
+    static void replay(Connection connection, DataInputStream in, BatchResult batchResult,
+                       List<Runnable> afterCommit) throws SQLException, IOException {
+        int courseId = in.readInt();
+        String assessmentType = in.readUTF();
+        double totalMarks = in.readDouble();
+        Date assessmentDate = new Date(in.readLong());
+        int count = in.readInt();
+        List<Assessment> accepted = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Assessment assessment = new Assessment(in.readUTF(), in.readDouble());
+            assessment.setRemarks(WriteBehind.readString(in));
+            accepted.add(assessment);
+        }
+
+        insertAssessments(connection, courseId, assessmentType, totalMarks, assessmentDate, accepted, batchResult);
+    }
+
+    /**
+     * Insert validated rows on the caller's transaction. Enrollments are
+     * resolved with a single query and the rows are inserted as one batch;
+     * final grades of the affected enrollments are recomputed in the same
+     * transaction.
+     */
+    static void insertAssessments(Connection connection, int courseId, String assessmentType, double totalMarks,
+                                  Date assessmentDate, List<Assessment> results, BatchResult batchResult)
+            throws SQLException {
+        Map<String, Integer> enrollmentIds = EnrollmentDAO.getEnrollmentIdsByCourse(connection, courseId);
+
+        List<Assessment> accepted = new ArrayList<>();
+        for (Assessment result : results) {
+            Integer enrollmentId = enrollmentIds.get(result.getStudentNumber());
+            if (enrollmentId == null) {
+                batchResult.addFailure(result.getStudentNumber(), "Student is not enrolled in this course");
+            } else {
+                result.setEnrollmentId(enrollmentId);
+                result.setAssessmentType(assessmentType);
+                result.setTotalMarks(totalMarks);
+                result.setAssessmentDate(assessmentDate);
+                accepted.add(result);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Only this batch is undone on failure; the transaction may hold other work
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            insertBatch(connection, accepted);
+            batchResult.addSaved(accepted.size());
+        } catch (BatchUpdateException e) {
+            // A rewritten batch cannot tell us which row failed, so retry one by one
+            connection.rollback(savepoint);
+            insertIndividually(connection, accepted, batchResult);
+        }
+        GradeDAO.recomputeGrades(connection,
+            accepted.stream().map(Assessment::getEnrollmentId).collect(Collectors.toSet()));
+    }
+    
+    private static void insertBatch(Connection connection, List<Assessment> assessments) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY)) {
+            for (Assessment assessment : assessments) {
+                bindAssessment(stmt, assessment);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    private static void insertIndividually(Connection connection, List<Assessment> assessments,
+                                    BatchResult batchResult) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY)) {
+            for (Assessment assessment : assessments) {
+                bindAssessment(stmt, assessment);
+                try {
+                    stmt.executeUpdate();
+                    batchResult.addSaved(1);
+                } catch (SQLException e) {
+                    batchResult.addFailure(assessment.getStudentNumber(), e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private static void bindAssessment(PreparedStatement stmt, Assessment assessment) throws SQLException {
+        stmt.setInt(1, assessment.getEnrollmentId());
+        stmt.setString(2, assessment.getAssessmentType());
+        stmt.setDouble(3, assessment.getMarksObtained());
+        stmt.setDouble(4, assessment.getTotalMarks());
+        stmt.setDate(5, new java.sql.Date(assessment.getAssessmentDate().getTime()));
+        stmt.setString(6, assessment.getRemarks());
+    }
+}
\ No newline at end of file
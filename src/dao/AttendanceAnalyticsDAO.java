@@ -0,0 +1,233 @@
+package dao;
+
+import model.Attendance;
+import model.AttendanceSummary;
+import model.Enrollment;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * Attendance analytics: rates, absence streaks and threshold breaches per
+ * enrollment, per course and per student. All attendance is loaded once into
+ * an AttendanceIndex with a single streamed query; saved sessions and deleted
+ * enrollments then update it in place. Every read first brings it up to date
+ * through the ChangeFeed, so attendance saved and enrollments deleted on other
+ * workstations count too: only rows whose updated_at moved since the last
+ * read are fetched, and the enrollment tombstones drop deleted enrollments.
+ *
+ * Thresholds default to sams.attendance.minRate (75%) and
+ * sams.attendance.absenceStreak (3 sessions).
+ */
+public class AttendanceAnalyticsDAO {
+
+    public static final double MIN_RATE =
+        Double.parseDouble(System.getProperty("sams.attendance.minRate", "75"));
+    public static final int ABSENCE_STREAK = Integer.getInteger("sams.attendance.absenceStreak", 3);
+
+    private static final String LOAD_QUERY =
+        "SELECT a.enrollment_id, e.student_id, e.course_id, a.attendance_date, a.status " +
+        "FROM attendance a JOIN enrollments e ON a.enrollment_id = e.enrollment_id " +
+        "ORDER BY a.enrollment_id, a.attendance_date";
+    private static final String CHANGED_QUERY =
+        "SELECT a.enrollment_id, e.student_id, e.course_id, a.attendance_date, a.status " +
+        "FROM attendance a JOIN enrollments e ON a.enrollment_id = e.enrollment_id " +
+        "WHERE a.updated_at >= ?";
+
+    private static final Object LOCK = new Object();
+    private static final Object LOAD_LOCK = new Object();
+    // Guarded by LOCK; null until loaded
+    private static AttendanceIndex index;
+    // Changes made while a load runs, replayed onto its result; null when none is running
+    private static List<Consumer<AttendanceIndex>> pending;
+    // Guarded by LOAD_LOCK; change feed position of the index, null until loaded
+    private static Timestamp watermark;
+
+    private final DatabaseConnection database;
+
+    public AttendanceAnalyticsDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    public List<AttendanceSummary> getCourseAttendance(int courseId) throws DatabaseException {
+        return loadedIndex().byCourse(courseId);
+    }
+
+    public List<AttendanceSummary> getStudentAttendance(int studentId) throws DatabaseException {
+        return loadedIndex().byStudent(studentId);
+    }
+
+    /**
+     * Every enrollment below the minimum rate or on an absence streak
+     */
+    public List<AttendanceSummary> getBreaches() throws DatabaseException {
+        return getBreaches(MIN_RATE, ABSENCE_STREAK);
+    }
+
+    public List<AttendanceSummary> getBreaches(double minRate, int absenceStreak) throws DatabaseException {
+        return loadedIndex().breaches(minRate, absenceStreak);
+    }
+
+    /**
+     * Attendance rate of every course, keyed by course ID
+     */
+    public Map<Integer, Double> getCourseRates() throws DatabaseException {
+        return loadedIndex().ratesByCourse();
+    }
+
+    /**
+     * Attendance rate of every student across their courses, keyed by student ID
+     */
+    public Map<Integer, Double> getStudentRates() throws DatabaseException {
+        return loadedIndex().ratesByStudent();
+    }
+
+    /**
+     * Attendance rate of each session of the course, oldest first
+     */
+    public SortedMap<LocalDate, Double> getCourseTrend(int courseId) throws DatabaseException {
+        return loadedIndex().courseTrend(courseId);
+    }
+
+    /**
+     * Reload all attendance from the database, e.g. after it was changed outside the application
+     */
+    public void reload() throws DatabaseException {
+        refresh(true);
+    }
+
+    private AttendanceIndex loadedIndex() throws DatabaseException {
+        refresh(false);
+        synchronized (LOCK) {
+            return index;
+        }
+    }
+
+    /**
+     * Apply the attendance written and the enrollments deleted since the last
+     * read, or load everything when there is no usable watermark
+     */
+    private void refresh(boolean force) throws DatabaseException {
+        synchronized (LOAD_LOCK) {
+            try (Connection connection = database.getLongRunningConnection()) {
+                ChangeSet<Mark> changes = ChangeFeed.read(connection, "enrollments", force ? null : watermark,
+                    null, CHANGED_QUERY, 1, AttendanceAnalyticsDAO::extractMark);
+                if (changes.isFullReload()) {
+                    load(connection);
+                } else if (!changes.isEmpty()) {
+                    apply(target -> {
+                        for (Mark mark : changes.getChanged()) {
+                            target.record(mark.enrollmentId, mark.studentId, mark.courseId, mark.day, mark.mark);
+                        }
+                        for (Integer enrollmentId : changes.getDeletedIds()) {
+                            target.remove(enrollmentId);
+                        }
+                    });
+                }
+                watermark = changes.getWatermark();
+            } catch (SQLException e) {
+                throw new DatabaseException("Error loading attendance analytics: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private void load(Connection connection) throws SQLException {
+        synchronized (LOCK) {
+            pending = new ArrayList<>();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(LOAD_QUERY,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J only streams row by row with this fetch size; any other value buffers the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            AttendanceIndex fresh = new AttendanceIndex();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    fresh.append(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                        (int) rs.getDate(4).toLocalDate().toEpochDay(), AttendanceIndex.mark(rs.getString(5)));
+                }
+            }
+            fresh.recomputeAll();
+
+            synchronized (LOCK) {
+                for (Consumer<AttendanceIndex> change : pending) {
+                    change.accept(fresh);
+                }
+                index = fresh;
+            }
+        } finally {
+            synchronized (LOCK) {
+                pending = null;
+            }
+        }
+    }
+
+    private static Mark extractMark(ResultSet rs) throws SQLException {
+        return new Mark(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                        (int) rs.getDate(4).toLocalDate().toEpochDay(), AttendanceIndex.mark(rs.getString(5)));
+    }
+
+    /**
+     * Apply a change to the loaded index, and to the one being loaded if any
+     */
+    private static void apply(Consumer<AttendanceIndex> change) {
+        synchronized (LOCK) {
+            if (pending != null) {
+                pending.add(change);
+            }
+            if (index != null) {
+                change.accept(index);
+            }
+        }
+    }
+
+    /**
+     * Record a saved session. Enrollments are the course's enrollments keyed by
+     * student number, as resolved by the save.
+     */
+    static void sessionSaved(Date attendanceDate, List<Attendance> records, Map<String, Enrollment> enrollments) {
+        int day = (int) attendanceDate.toLocalDate().toEpochDay();
+        apply(target -> {
+            for (Attendance record : records) {
+                Enrollment enrollment = enrollments.get(record.getStudentNumber());
+                if (enrollment != null) {
+                    target.record(enrollment.getEnrollmentId(), enrollment.getStudentId(),
+                        enrollment.getCourseId(), day, AttendanceIndex.mark(record.getStatus()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Forget a deleted enrollment; its attendance was deleted with it
+     */
+    static void enrollmentRemoved(int enrollmentId) {
+        apply(target -> target.remove(enrollmentId));
+    }
+
+    /**
+     * One attendance row read from the change feed
+     */
+    private static class Mark {
+        final int enrollmentId;
+        final int studentId;
+        final int courseId;
+        final int day;
+        final byte mark;
+
+        Mark(int enrollmentId, int studentId, int courseId, int day, byte mark) {
+            this.enrollmentId = enrollmentId;
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.day = day;
+            this.mark = mark;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package dao;
+
+import model.Attendance;
+import model.Enrollment;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+import exception.ValidationException;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class AttendanceDAO {
+    
+    private final DatabaseConnection database;
+    
+    public AttendanceDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Save a whole session of attendance for a course. The session goes to the
+     * WriteBehind journal and is written to the database in the background;
+     * without a journal it is written here in one transaction. Either way
+     * enrollment IDs are resolved with a single query, the rows are written as
+     * one batch, and re-saving the same date updates the existing rows.
+     *
+     * onWritten gets the outcome once the session is in the database: the
+     * students saved, and those left out because they are no longer enrolled.
+     * It runs on a background thread, possibly before this method returns.
+     */
+    public void saveAttendance(int courseId, Date attendanceDate, List<Attendance> records,
+                               Consumer<BatchResult> onWritten) throws DatabaseException, ValidationException {
+        if (attendanceDate == null) {
+            throw new ValidationException("Attendance date is required");
+        }
+        if (records.isEmpty()) {
+            onWritten.accept(new BatchResult());
+            return;
+        }
+
+        WriteBehind writeBehind = WriteBehind.getInstance();
+        if (writeBehind != null) {
+            long sequence = writeBehind.append(WriteBehind.ATTENDANCE, out -> {
+                out.writeInt(courseId);
+                out.writeLong(attendanceDate.getTime());
+                out.writeInt(records.size());
+                for (Attendance record : records) {
+                    out.writeUTF(record.getStudentNumber());
+                    WriteBehind.writeString(out, record.getStatus());
+                    WriteBehind.writeString(out, record.getRemarks());
+                }
+            });
+            writeBehind.whenFlushed(sequence, onWritten);
+            return;
+        }
+        
+        BatchResult batchResult = new BatchResult();
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<Runnable> afterCommit = new ArrayList<>();
+                writeAttendance(connection, courseId, attendanceDate, records, batchResult, afterCommit);
+                connection.commit();
+                afterCommit.forEach(Runnable::run);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error saving attendance: " + e.getMessage(), e);
+        }
+        onWritten.accept(batchResult);
+    }
+
+    /**
+     * Write a journaled session inside the flusher's transaction
+     */
+    static void replay(Connection connection, DataInputStream in, BatchResult batchResult,
+                       List<Runnable> afterCommit) throws SQLException, IOException {
+        int courseId = in.readInt();
+        Date attendanceDate = new Date(in.readLong());
+        int count = in.readInt();
+        List<Attendance> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new Attendance(in.readUTF(), WriteBehind.readString(in), WriteBehind.readString(in)));
+        }
+        writeAttendance(connection, courseId, attendanceDate, records, batchResult, afterCommit);
+    }
+
+    /**
+     * Write a session on the caller's transaction; students no longer enrolled
+     * are reported in batchResult instead. The analytics update is queued for
+     * after the commit.
+     */
+    static void writeAttendance(Connection connection, int courseId, Date attendanceDate, List<Attendance> records,
+                                BatchResult batchResult, List<Runnable> afterCommit) throws SQLException {
+        String query = "INSERT INTO attendance (enrollment_id, attendance_date, status, remarks) " +
+                      "VALUES (?, ?, ?, ?) " +
+                      "ON DUPLICATE KEY UPDATE status=VALUES(status), remarks=VALUES(remarks)";
+
+        Map<String, Enrollment> enrollments = EnrollmentDAO.getEnrollmentsByStudentNumber(connection, courseId);
+        int savedCount = 0;
+
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (Attendance record : records) {
+                Enrollment enrollment = enrollments.get(record.getStudentNumber());
+                if (enrollment == null) {
+                    batchResult.addFailure(record.getStudentNumber(), "Student is not enrolled in this course");
+                    continue;
+                }
+                stmt.setInt(1, enrollment.getEnrollmentId());
+                stmt.setDate(2, attendanceDate);
+                stmt.setString(3, record.getStatus());
+                stmt.setString(4, record.getRemarks());
+                stmt.addBatch();
+                savedCount++;
+            }
+            if (savedCount > 0) {
+                stmt.executeBatch();
+            }
+        }
+        batchResult.addSaved(savedCount);
+
+        afterCommit.add(() -> AttendanceAnalyticsDAO.sessionSaved(attendanceDate, records, enrollments));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,365 @@
+package dao;
+
+import model.AttendanceSummary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Attendance of every enrollment held in primitive arrays, one slot per
+ * enrollment. Each slot keeps its session days (epoch days, ascending) and
+ * marks, plus counts and absence streaks derived from them, so queries only
+ * read ints. Scans over all slots are split across the fork-join pool.
+ *
+ * Recording a mark is an upsert by (enrollment, day), so replaying a change
+ * is harmless. Readers share a read lock; writers take the write lock.
+ */
+class AttendanceIndex {
+
+    static final byte PRESENT = 0;
+    static final byte LATE = 1;
+    static final byte ABSENT = 2;
+
+    // Below this many slots a scan is not worth splitting
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> slotByEnrollment = new HashMap<>();
+
+    private int size;
+    private int[] enrollmentIds = new int[0];
+    private int[] studentIds = new int[0];
+    private int[] courseIds = new int[0];
+    private int[][] days = new int[0][];
+    private byte[][] marks = new byte[0][];
+    private int[] lengths = new int[0];
+
+    private int[] present = new int[0];
+    private int[] late = new int[0];
+    private int[] absent = new int[0];
+    private int[] currentStreak = new int[0];
+    private int[] longestStreak = new int[0];
+
+    static byte mark(String status) {
+        return switch (status) {
+            case "Present" -> PRESENT;
+            case "Late" -> LATE;
+            default -> ABSENT;
+        };
+    }
+
+    /**
+     * Append a mark while loading, with records arriving ordered by enrollment
+     * and day. Call recomputeAll() once loading is done.
+     */
+    void append(int enrollmentId, int studentId, int courseId, int day, byte mark) {
+        int slot = slotFor(enrollmentId, studentId, courseId);
+        put(slot, lengths[slot], day, mark);
+    }
+
+    /**
+     * Record or correct a mark and update the enrollment's figures
+     */
+    void record(int enrollmentId, int studentId, int courseId, int day, byte mark) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotFor(enrollmentId, studentId, courseId);
+            int index = Arrays.binarySearch(days[slot], 0, lengths[slot], day);
+            if (index >= 0) {
+                marks[slot][index] = mark;
+            } else {
+                put(slot, -index - 1, day, mark);
+            }
+            recompute(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget an enrollment, e.g. after it was deleted along with its attendance
+     */
+    void remove(int enrollmentId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEnrollment.remove(enrollmentId);
+            if (slot == null) {
+                return;
+            }
+            // Move the last slot into the hole so the arrays stay dense
+            int last = --size;
+            if (slot != last) {
+                copySlot(last, slot);
+                slotByEnrollment.put(enrollmentIds[slot], slot);
+            }
+            days[last] = null;
+            marks[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(int enrollmentId) {
+        lock.readLock().lock();
+        try {
+            return slotByEnrollment.containsKey(enrollmentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Derive the figures of every slot, in parallel
+     */
+    void recomputeAll() {
+        lock.writeLock().lock();
+        try {
+            IntStream.range(0, size).parallel().forEach(this::recompute);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<AttendanceSummary> byCourse(int courseId) {
+        return select(slot -> courseIds[slot] == courseId);
+    }
+
+    List<AttendanceSummary> byStudent(int studentId) {
+        return select(slot -> studentIds[slot] == studentId);
+    }
+
+    /**
+     * Enrollments attending less than minRate percent, or absent at least
+     * absenceStreak sessions in a row up to now
+     */
+    List<AttendanceSummary> breaches(double minRate, int absenceStreak) {
+        return select(slot -> {
+            int sessions = present[slot] + late[slot] + absent[slot];
+            return (sessions > 0 && (present[slot] + late[slot]) * 100.0 / sessions < minRate) ||
+                   currentStreak[slot] >= absenceStreak;
+        });
+    }
+
+    /**
+     * Attendance rate per course, pooling every session of every enrollment
+     */
+    Map<Integer, Double> ratesByCourse() {
+        return rates(courseIds);
+    }
+
+    /**
+     * Attendance rate per student across all their courses
+     */
+    Map<Integer, Double> ratesByStudent() {
+        return rates(studentIds);
+    }
+
+    /**
+     * Attendance rate of each session held in the course, by date
+     */
+    SortedMap<LocalDate, Double> courseTrend(int courseId) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, int[]> byDay = new HashMap<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (courseIds[slot] != courseId) {
+                    continue;
+                }
+                for (int i = 0; i < lengths[slot]; i++) {
+                    int[] counts = byDay.computeIfAbsent(days[slot][i], day -> new int[2]);
+                    counts[0] += marks[slot][i] != ABSENT ? 1 : 0;
+                    counts[1]++;
+                }
+            }
+            SortedMap<LocalDate, Double> trend = new TreeMap<>();
+            for (Map.Entry<Integer, int[]> day : byDay.entrySet()) {
+                int[] counts = day.getValue();
+                trend.put(LocalDate.ofEpochDay(day.getKey()), counts[0] * 100.0 / counts[1]);
+            }
+            return trend;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private interface SlotFilter {
+        boolean test(int slot);
+    }
+
+    private List<AttendanceSummary> select(SlotFilter filter) {
+        lock.readLock().lock();
+        try {
+            int[] matches = IntStream.range(0, size)
+                .parallel()
+                .filter(filter::test)
+                .toArray();
+            List<AttendanceSummary> summaries = new ArrayList<>(matches.length);
+            for (int slot : matches) {
+                summaries.add(new AttendanceSummary(enrollmentIds[slot], studentIds[slot], courseIds[slot],
+                    present[slot], late[slot], absent[slot], currentStreak[slot], longestStreak[slot]));
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> rates(int[] keys) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, long[]> totals = ForkJoinPool.commonPool().invoke(new RateTask(keys, 0, size));
+            Map<Integer, Double> rates = new HashMap<>();
+            for (Map.Entry<Integer, long[]> total : totals.entrySet()) {
+                long[] counts = total.getValue();
+                rates.put(total.getKey(), counts[1] > 0 ? counts[0] * 100.0 / counts[1] : 0);
+            }
+            return rates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums attended and total sessions per key over a range of slots, splitting
+     * the range in half until it is small enough to sum directly
+     */
+    private class RateTask extends RecursiveTask<Map<Integer, long[]>> {
+        private final int[] keys;
+        private final int from;
+        private final int to;
+
+        RateTask(int[] keys, int from, int to) {
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, long[]> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Map<Integer, long[]> totals = new HashMap<>();
+                for (int slot = from; slot < to; slot++) {
+                    long[] counts = totals.computeIfAbsent(keys[slot], key -> new long[2]);
+                    counts[0] += present[slot] + late[slot];
+                    counts[1] += present[slot] + late[slot] + absent[slot];
+                }
+                return totals;
+            }
+
+            int middle = (from + to) >>> 1;
+            RateTask left = new RateTask(keys, from, middle);
+            left.fork();
+            Map<Integer, long[]> totals = new RateTask(keys, middle, to).compute();
+            for (Map.Entry<Integer, long[]> other : left.join().entrySet()) {
+                totals.merge(other.getKey(), other.getValue(), (a, b) -> {
+                    a[0] += b[0];
+                    a[1] += b[1];
+                    return a;
+                });
+            }
+            return totals;
+        }
+    }
+
+    private int slotFor(int enrollmentId, int studentId, int courseId) {
+        Integer slot = slotByEnrollment.get(enrollmentId);
+        if (slot != null) {
+            return slot;
+        }
+        if (size == enrollmentIds.length) {
+            grow(Math.max(16, size * 2));
+        }
+        int created = size++;
+        enrollmentIds[created] = enrollmentId;
+        studentIds[created] = studentId;
+        courseIds[created] = courseId;
+        days[created] = new int[8];
+        marks[created] = new byte[8];
+        lengths[created] = 0;
+        present[created] = 0;
+        late[created] = 0;
+        absent[created] = 0;
+        currentStreak[created] = 0;
+        longestStreak[created] = 0;
+        slotByEnrollment.put(enrollmentId, created);
+        return created;
+    }
+
+    /**
+     * Insert a mark at the given position of the slot's session list
+     */
+    private void put(int slot, int position, int day, byte mark) {
+        int length = lengths[slot];
+        if (length == days[slot].length) {
+            days[slot] = Arrays.copyOf(days[slot], length * 2);
+            marks[slot] = Arrays.copyOf(marks[slot], length * 2);
+        }
+        System.arraycopy(days[slot], position, days[slot], position + 1, length - position);
+        System.arraycopy(marks[slot], position, marks[slot], position + 1, length - position);
+        days[slot][position] = day;
+        marks[slot][position] = mark;
+        lengths[slot] = length + 1;
+    }
+
+    private void recompute(int slot) {
+        int presentCount = 0;
+        int lateCount = 0;
+        int absentCount = 0;
+        int streak = 0;
+        int longest = 0;
+        byte[] slotMarks = marks[slot];
+        for (int i = 0; i < lengths[slot]; i++) {
+            switch (slotMarks[i]) {
+                case PRESENT -> presentCount++;
+                case LATE -> lateCount++;
+                default -> absentCount++;
+            }
+            streak = slotMarks[i] == ABSENT ? streak + 1 : 0;
+            longest = Math.max(longest, streak);
+        }
+        present[slot] = presentCount;
+        late[slot] = lateCount;
+        absent[slot] = absentCount;
+        currentStreak[slot] = streak;
+        longestStreak[slot] = longest;
+    }
+
+    private void grow(int capacity) {
+        enrollmentIds = Arrays.copyOf(enrollmentIds, capacity);
+        studentIds = Arrays.copyOf(studentIds, capacity);
+        courseIds = Arrays.copyOf(courseIds, capacity);
+        days = Arrays.copyOf(days, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        present = Arrays.copyOf(present, capacity);
+        late = Arrays.copyOf(late, capacity);
+        absent = Arrays.copyOf(absent, capacity);
+        currentStreak = Arrays.copyOf(currentStreak, capacity);
+        longestStreak = Arrays.copyOf(longestStreak, capacity);
+    }
+
+    private void copySlot(int from, int to) {
+        enrollmentIds[to] = enrollmentIds[from];
+        studentIds[to] = studentIds[from];
+        courseIds[to] = courseIds[from];
+        days[to] = days[from];
+        marks[to] = marks[from];
+        lengths[to] = lengths[from];
+        present[to] = present[from];
+        late[to] = late[from];
+        absent[to] = absent[from];
+        currentStreak[to] = currentStreak[from];
+        longestStreak[to] = longestStreak[from];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk write: how many rows were saved and
+ * why each rejected row failed, keyed by the row's natural key.
+ */
+public class BatchResult {
+    
+    private int savedCount;
+    private long elapsedMillis;
+    private final Map<String, String> failures = new LinkedHashMap<>();
+    
+    public int getSavedCount() {
+        return savedCount;
+    }
+    
+    public void addSaved(int count) {
+        savedCount += count;
+    }
+    
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+    
+    public void addFailure(String key, String reason) {
+        failures.put(key, reason);
+    }
+    
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Rows processed per second, saved and rejected alike
+     */
+    public double getRowsPerSecond() {
+        int rows = savedCount + failures.size();
+        return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : 0;
+    }
+    
+    /**
+     * Human readable summary for message dialogs, listing at most maxLines failures
+     */
+    public String getFailureSummary(int maxLines) {
+        StringBuilder sb = new StringBuilder();
+        int shown = 0;
+        for (Map.Entry<String, String> failure : failures.entrySet()) {
+            if (shown == maxLines) {
+                sb.append("... and ").append(failures.size() - shown).append(" more\n");
+                break;
+            }
+            sb.append(failure.getKey()).append(": ").append(failure.getValue()).append('\n');
+            shown++;
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package dao;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Change feed over the updated_at column of each table and the deleted_rows
+ * tombstones written by the DAOs' delete paths. A grid keeps the watermark of
+ * its last load and asks for what changed since, so a refresh after one edit
+ * reads one row instead of the table.
+ *
+ * Watermarks come from the database clock. updated_at is stamped when a
+ * statement runs rather than when its transaction commits, so every read
+ * reaches back sams.changes.overlapMs (5000) before the watermark to catch
+ * transactions that committed late. Tombstones are kept for
+ * sams.changes.retentionHours (24); an older watermark gets a full reload.
+ */
+final class ChangeFeed {
+
+    private static final long OVERLAP_MILLIS = Long.getLong("sams.changes.overlapMs", 5000);
+    private static final long RETENTION_MILLIS = Long.getLong("sams.changes.retentionHours", 24) * 3_600_000;
+    private static final long PURGE_INTERVAL_MILLIS = 3_600_000;
+
+    private static final String RECORD_DELETE =
+        "INSERT INTO deleted_rows (table_name, row_id) VALUES (?, ?) " +
+        "ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)";
+    private static final int BATCH_SIZE = 1000;
+
+    private static long nextPurge;
+
+    /**
+     * Maps the current row of a result set to an entity
+     */
+    interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * Read what changed in a table since the watermark. changedQuery selects
+     * the changed rows and takes the lower bound in each of its first
+     * changedParameters parameters. When a full reload is needed, fullQuery
+     * reads every row; if it is null the change set comes back empty and the
+     * caller reloads on its own.
+     *
+     * A row whose transaction commits more than the overlap after its
+     * statement ran carries an updated_at older than the window, so it is
+     * missed until the next full reload.
+     */
+    static <T> ChangeSet<T> read(Connection connection, String table, Timestamp since, String fullQuery,
+                                 String changedQuery, int changedParameters,
+                                 RowReader<T> reader) throws SQLException {
+        Timestamp watermark = now(connection);
+        purgeIfDue(connection, watermark);
+
+        if (since == null || since.getTime() < watermark.getTime() - RETENTION_MILLIS) {
+            List<T> rows = fullQuery != null ? readRows(connection, fullQuery, 0, null, reader) : new ArrayList<>();
+            return new ChangeSet<>(true, rows, new HashSet<>(), watermark);
+        }
+
+        Timestamp from = new Timestamp(since.getTime() - OVERLAP_MILLIS);
+        List<T> changed = readRows(connection, changedQuery, changedParameters, from, reader);
+
+        Set<Integer> deleted = new HashSet<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT row_id FROM deleted_rows WHERE table_name=? AND deleted_at >= ?")) {
+            stmt.setString(1, table);
+            stmt.setTimestamp(2, from);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                deleted.add(rs.getInt(1));
+            }
+        }
+        return new ChangeSet<>(false, changed, deleted, watermark);
+    }
+
+    private static <T> List<T> readRows(Connection connection, String query, int parameters, Timestamp from,
+                                        RowReader<T> reader) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            for (int i = 1; i <= parameters; i++) {
+                stmt.setTimestamp(i, from);
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                rows.add(reader.read(rs));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Leave a tombstone for each deleted row, including rows removed by a cascade
+     */
+    static void recordDeletes(Connection connection, String table, Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(RECORD_DELETE)) {
+            int batched = 0;
+            for (int id : ids) {
+                stmt.setString(1, table);
+                stmt.setInt(2, id);
+                stmt.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            if (batched % BATCH_SIZE != 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private static Timestamp now(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP(3)")) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+
+    /**
+     * Drop tombstones past the retention at most once an hour; nobody can still need them
+     */
+    private static void purgeIfDue(Connection connection, Timestamp now) throws SQLException {
+        synchronized (ChangeFeed.class) {
+            if (now.getTime() < nextPurge) {
+                return;
+            }
+            nextPurge = now.getTime() + PURGE_INTERVAL_MILLIS;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM deleted_rows WHERE deleted_at < ?")) {
+            stmt.setTimestamp(1, new Timestamp(now.getTime() - RETENTION_MILLIS));
+            stmt.executeUpdate();
+        }
+    }
+}
\ No newline at end of file
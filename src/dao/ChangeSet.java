@@ -0,0 +1,59 @@
+package dao;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows written and deleted since a change feed watermark
+ */
+public class ChangeSet<T> {
+
+    private final boolean fullReload;
+    private final List<T> changed;
+    private final Set<Integer> deletedIds;
+    private final Timestamp watermark;
+
+    ChangeSet(boolean fullReload, List<T> changed, Set<Integer> deletedIds, Timestamp watermark) {
+        this.fullReload = fullReload;
+        this.changed = Collections.unmodifiableList(changed);
+        this.deletedIds = Collections.unmodifiableSet(deletedIds);
+        this.watermark = watermark;
+    }
+
+    /**
+     * True when there was no watermark, or it was too old for the deletes since
+     * then to be known. The caller has to replace everything it shows, either
+     * with getChanged() or, where the DAO says so, by reloading itself.
+     */
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * Rows inserted or updated since the watermark. Rows changed just before it
+     * may be returned again, so applying them must be idempotent.
+     */
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    /**
+     * IDs of the rows deleted since the watermark
+     */
+    public Set<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    /**
+     * The watermark to ask for the next changes with
+     */
+    public Timestamp getWatermark() {
+        return watermark;
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+}
\ No newline at end of file
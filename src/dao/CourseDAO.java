@@ -0,0 +1,224 @@
+package dao;
+
+import model.Course;
+import model.Enrollment;
+import util.DatabaseConnection;
+import util.DomainEvent;
+import util.DomainEventBus;
+import util.EntityCache;
+import exception.DatabaseException;
+import exception.ValidationException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CourseDAO {
+    
+    private static final String SELECT_WITH_LECTURER =
+        "SELECT c.*, CONCAT(l.first_name, ' ', l.last_name) as lecturer_name " +
+        "FROM courses c LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id ";
+    
+    private static final EntityCache<Course> CACHE =
+        new EntityCache<>("courses", Course::getCourseId, Course::getCourseCode);
+    
+    private final DatabaseConnection database;
+    
+    public CourseDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    private void validateCourse(Course course) throws ValidationException {
+        if (course.getCourseCode() == null || course.getCourseCode().trim().isEmpty()) {
+            throw new ValidationException("Course code is required");
+        }
+        if (course.getCourseName() == null || course.getCourseName().trim().isEmpty()) {
+            throw new ValidationException("Course name is required");
+        }
+        if (course.getCredits() <= 0) {
+            throw new ValidationException("Credits must be greater than zero");
+        }
+        if (course.getCapacity() <= 0) {
+            throw new ValidationException("Capacity must be greater than zero");
+        }
+    }
+
+    public boolean addCourse(Course course) throws DatabaseException, ValidationException {
+        validateCourse(course);
+        
+        String query = "INSERT INTO courses (course_code, course_name, credits, semester, " +
+                      "lecturer_id, capacity, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            bindCourse(stmt, course);
+            boolean added = stmt.executeUpdate() > 0;
+            CACHE.invalidateAll();
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (added && keys.next()) {
+                course.setCourseId(keys.getInt(1));
+                DomainEventBus.getInstance().publish(
+                    DomainEvent.added(DomainEvent.Entity.COURSE, course.getCourseId(), null));
+            }
+            return added;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DatabaseException("Course code already exists");
+        } catch (SQLException e) {
+            throw new DatabaseException("Error adding course: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean updateCourse(Course course) throws DatabaseException, ValidationException {
+        validateCourse(course);
+        
+        String query = "UPDATE courses SET course_code=?, course_name=?, credits=?, " +
+                      "semester=?, lecturer_id=?, capacity=?, description=? WHERE course_id=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            bindCourse(stmt, course);
+            stmt.setInt(8, course.getCourseId());
+            boolean updated = stmt.executeUpdate() > 0;
+            CACHE.invalidate(course.getCourseId());
+            EnrollmentDAO.invalidateSeats(course.getCourseId());
+            if (updated) {
+                DomainEventBus.getInstance().publish(
+                    DomainEvent.updated(DomainEvent.Entity.COURSE, course.getCourseId(), null, null));
+            }
+            return updated;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DatabaseException("Course code already exists");
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating course: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean deleteCourse(int courseId) throws DatabaseException {
+        String query = "DELETE FROM courses WHERE course_id=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            List<Enrollment> enrollments = EnrollmentDAO.getEnrollmentStates(connection, "course_id", courseId);
+            stmt.setInt(1, courseId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            CACHE.invalidate(courseId);
+            EnrollmentDAO.invalidateSeats(courseId);
+            if (deleted) {
+                EnrollmentDAO.publishCascadedDeletes(enrollments);
+                DomainEventBus.getInstance().publish(DomainEvent.deleted(DomainEvent.Entity.COURSE, courseId, null));
+                ChangeFeed.recordDeletes(connection, "courses", List.of(courseId));
+                EnrollmentDAO.recordCascadedDeletes(connection, enrollments);
+            }
+            return deleted;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting course: " + e.getMessage(), e);
+        }
+    }
+
+    public Course getCourseById(int courseId) throws DatabaseException {
+        return CACHE.getById(courseId, () -> findCourse("c.course_id", courseId));
+    }
+
+    public Course getCourseByCode(String courseCode) throws DatabaseException {
+        return CACHE.getByNaturalKey(courseCode, () -> findCourse("c.course_code", courseCode));
+    }
+
+    private Course findCourse(String column, Object key) throws DatabaseException {
+        String query = SELECT_WITH_LECTURER + "WHERE " + column + "=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setObject(1, key);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                return extractCourseFromResultSet(rs);
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving course: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * All courses with their lecturer names. The list is cached and unmodifiable.
+     */
+    public List<Course> getAllCourses() throws DatabaseException {
+        return CACHE.getAll(this::loadAllCourses);
+    }
+
+    private List<Course> loadAllCourses() throws DatabaseException {
+        List<Course> courses = new ArrayList<>();
+        String query = SELECT_WITH_LECTURER + "ORDER BY c.course_code";
+        
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            while (rs.next()) {
+                courses.add(extractCourseFromResultSet(rs));
+            }
+            return courses;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving courses: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Courses added or updated since the watermark, including those whose
+     * lecturer was changed, and the IDs of courses deleted since. Without a
+     * usable watermark every course is returned as a full reload. A course or
+     * lecturer saved in a transaction that commits more than
+     * sams.changes.overlapMs (5 s) after its statement ran is missed until the
+     * next full reload.
+     */
+    public ChangeSet<Course> getCourseChanges(Timestamp since) throws DatabaseException {
+        try (Connection connection = database.getConnection()) {
+            return ChangeFeed.read(connection, "courses", since,
+                SELECT_WITH_LECTURER + "ORDER BY c.course_code",
+                SELECT_WITH_LECTURER + "WHERE c.updated_at >= ? OR l.updated_at >= ?", 2,
+                this::extractCourseFromResultSet);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving course changes: " + e.getMessage(), e);
+        }
+    }
+
+    public static EntityCache.CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * Drop cached courses, e.g. after a lecturer rename changes the joined lecturer_name
+     */
+    static void invalidateCache() {
+        CACHE.invalidateAll();
+    }
+
+    private void bindCourse(PreparedStatement stmt, Course course) throws SQLException {
+        stmt.setString(1, course.getCourseCode());
+        stmt.setString(2, course.getCourseName());
+        stmt.setInt(3, course.getCredits());
+        stmt.setString(4, course.getSemester());
+        if (course.getLecturerId() > 0) {
+            stmt.setInt(5, course.getLecturerId());
+        } else {
+            stmt.setNull(5, Types.INTEGER);
+        }
+        stmt.setInt(6, course.getCapacity());
+        stmt.setString(7, course.getDescription());
+    }
+
+    private Course extractCourseFromResultSet(ResultSet rs) throws SQLException {
+        Course course = new Course();
+        course.setCourseId(rs.getInt("course_id"));
+        course.setCourseCode(rs.getString("course_code"));
+        course.setCourseName(rs.getString("course_name"));
+        course.setCredits(rs.getInt("credits"));
+        course.setSemester(rs.getString("semester"));
+        course.setLecturerId(rs.getInt("lecturer_id"));
+        course.setLecturerName(rs.getString("lecturer_name"));
+        course.setCapacity(rs.getInt("capacity"));
+        course.setDescription(rs.getString("description"));
+        return course;
+    }
+}
\ No newline at end of file
@@ -1,21 +1,40 @@
 package dao;
 
 import model.Enrollment;
+import util.DataAccessExecutor;
 import util.DatabaseConnection;
+import util.DomainEvent;
+import util.DomainEventBus;
 import exception.DatabaseException;
 import exception.ValidationException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class EnrollmentDAO {
     
-    private Connection connection;
+    private static final String ENROLLED = "Enrolled";
+    private static final String INSERT_QUERY =
+        "INSERT INTO enrollments (student_id, course_id, enrollment_date, status) VALUES (?, ?, ?, ?)";
+    private static final String EXISTS_QUERY =
+        "SELECT 1 FROM enrollments WHERE student_id = ? AND course_id = ?";
+    // MySQL error code for a unique key violation (ER_DUP_ENTRY)
+    private static final int DUPLICATE_KEY = 1062;
+    private static final SeatAllocator SEATS = new SeatAllocator();
+    
+    private final DatabaseConnection database;
     
     public EnrollmentDAO() throws SQLException {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.database = DatabaseConnection.getInstance();
     }
     
     private void validateEnrollment(Enrollment enrollment) throws ValidationException {
@@ -30,55 +49,381 @@ public class EnrollmentDAO {
         }
     }
 
-    private boolean isAlreadyEnrolled(int studentId, int courseId) throws SQLException {
-        String query = "SELECT COUNT(*) FROM enrollments WHERE student_id=? AND course_id=? " +
-                      "AND status='Enrolled'";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+    /**
+     * Enroll a student. A duplicate is looked up first, so enrolling twice in a
+     * full course says so rather than that the course is full. A seat is then
+     * reserved in memory, so a course known to be full is rejected without
+     * counting its enrollments, and claimed in the database in the same
+     * transaction as the insert, so another workstation cannot take it too. The
+     * unique (student, course) key still rejects a duplicate that raced the
+     * lookup, and the seat is given back if the insert fails.
+     */
+    public boolean addEnrollment(Enrollment enrollment) throws DatabaseException, ValidationException {
+        validateEnrollment(enrollment);
+        
+        String status = enrollment.getStatus() != null ? enrollment.getStatus() : "Enrolled";
+        
+        try (Connection connection = database.getConnection()) {
+            if (isEnrolled(connection, enrollment.getStudentId(), enrollment.getCourseId())) {
+                throw new ValidationException("Student is already enrolled in this course");
+            }
+            SeatAllocator.Reservation reservation = ENROLLED.equals(status)
+                ? SEATS.reserve(connection, enrollment.getCourseId())
+                : null;
+            
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+                if (reservation != null) {
+                    // Closing the connection rolls back, and so unlocks the count, if we do not get to commit
+                    connection.setAutoCommit(false);
+                    if (SEATS.claim(connection, enrollment.getCourseId(), 1) == 0) {
+                        throw new ValidationException("Course is full");
+                    }
+                }
+                stmt.setInt(1, enrollment.getStudentId());
+                stmt.setInt(2, enrollment.getCourseId());
+                stmt.setDate(3, new java.sql.Date(enrollment.getEnrollmentDate().getTime()));
+                stmt.setString(4, status);
+                
+                boolean added = stmt.executeUpdate() > 0;
+                if (reservation != null) {
+                    connection.commit();
+                    if (added) {
+                        reservation.commit();
+                    }
+                }
+                ResultSet keys = stmt.getGeneratedKeys();
+                if (added && keys.next()) {
+                    enrollment.setEnrollmentId(keys.getInt(1));
+                    DomainEventBus.getInstance().publish(
+                        DomainEvent.added(DomainEvent.Entity.ENROLLMENT, enrollment.getEnrollmentId(), status));
+                }
+                return added;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Anything but a duplicate (a student or course deleted meanwhile) is a database error
+                if (e.getErrorCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                throw new ValidationException("Student is already enrolled in this course");
+            } finally {
+                if (reservation != null) {
+                    reservation.cancel();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error adding enrollment: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isEnrolled(Connection connection, int studentId, int courseId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(EXISTS_QUERY)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
+            return rs.next();
         }
-        return false;
     }
 
-    public boolean addEnrollment(Enrollment enrollment) throws DatabaseException, ValidationException {
-        validateEnrollment(enrollment);
+    /**
+     * Enroll every given student in every given course. Students, courses and
+     * their existing enrollments are resolved with one query each, and the seats
+     * of all courses are counted in one more. Each course is then inserted as a
+     * single batch in its own transaction, so progress is reported per course and
+     * cancelling keeps the courses already done. Pairs that could not be enrolled
+     * are reported as conflicts keyed "student number -> course code".
+     */
+    public BatchResult enrollCohort(Collection<Integer> studentIds, Collection<Integer> courseIds,
+                                    java.util.Date enrollmentDate, DataAccessExecutor.Progress progress)
+            throws DatabaseException, ValidationException {
+        if (studentIds.isEmpty()) {
+            throw new ValidationException("Select at least one student");
+        }
+        if (courseIds.isEmpty()) {
+            throw new ValidationException("Select at least one course");
+        }
+        if (enrollmentDate == null) {
+            throw new ValidationException("Enrollment date is required");
+        }
+        
+        long started = System.currentTimeMillis();
+        BatchResult batchResult = new BatchResult();
         
+        try (Connection connection = database.getConnection()) {
+            Map<Integer, String> students = getKeys(connection,
+                "SELECT student_id, student_number FROM students WHERE student_id IN (%s)", studentIds);
+            Map<Integer, String> courses = getKeys(connection,
+                "SELECT course_id, course_code FROM courses WHERE course_id IN (%s)", courseIds);
+            for (Integer studentId : studentIds) {
+                if (!students.containsKey(studentId)) {
+                    batchResult.addFailure("Student #" + studentId, "Student no longer exists");
+                }
+            }
+            for (Integer courseId : courseIds) {
+                if (!courses.containsKey(courseId)) {
+                    batchResult.addFailure("Course #" + courseId, "Course no longer exists");
+                }
+            }
+            if (students.isEmpty() || courses.isEmpty()) {
+                batchResult.setElapsedMillis(System.currentTimeMillis() - started);
+                return batchResult;
+            }
+            
+            Set<Long> existing = getExistingPairs(connection, students.keySet(), courses.keySet());
+            SEATS.load(connection, courses.keySet());
+            connection.setAutoCommit(false);
+            
+            java.sql.Date date = new java.sql.Date(enrollmentDate.getTime());
+            int coursesDone = 0;
+            for (Map.Entry<Integer, String> course : courses.entrySet()) {
+                if (progress.isCancelled()) {
+                    break;
+                }
+                enrollCourse(connection, course.getKey(), course.getValue(), students, existing, date, batchResult);
+                progress.update(++coursesDone, courses.size());
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error enrolling cohort: " + e.getMessage(), e);
+        }
+        
+        batchResult.setElapsedMillis(System.currentTimeMillis() - started);
+        return batchResult;
+    }
+    
+    private void enrollCourse(Connection connection, int courseId, String courseCode,
+                              Map<Integer, String> students, Set<Long> existing, java.sql.Date date,
+                              BatchResult batchResult) throws SQLException {
+        List<Enrollment> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, String> student : students.entrySet()) {
+            if (existing.contains(pairKey(student.getKey(), courseId))) {
+                batchResult.addFailure(student.getValue() + " -> " + courseCode, "Already enrolled");
+                continue;
+            }
+            Enrollment enrollment = new Enrollment();
+            enrollment.setStudentId(student.getKey());
+            enrollment.setCourseId(courseId);
+            enrollment.setEnrollmentDate(date);
+            enrollment.setStatus(ENROLLED);
+            enrollment.setStudentNumber(student.getValue());
+            enrollment.setCourseCode(courseCode);
+            candidates.add(enrollment);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
+        SeatAllocator.Reservation reservation;
         try {
-            if (isAlreadyEnrolled(enrollment.getStudentId(), enrollment.getCourseId())) {
-                throw new ValidationException("Student is already enrolled in this course");
+            reservation = SEATS.reserveUpTo(connection, courseId, candidates.size());
+        } catch (ValidationException e) {
+            for (Enrollment enrollment : candidates) {
+                batchResult.addFailure(conflictKey(enrollment), e.getMessage());
+            }
+            return;
+        }
+        
+        List<Enrollment> saved = Collections.emptyList();
+        try {
+            int claimed = claimSeats(connection, courseId, candidates, reservation.size(), batchResult);
+            List<Enrollment> accepted = candidates.subList(0, claimed);
+            if (!accepted.isEmpty()) {
+                try {
+                    saved = insertBatch(connection, accepted);
+                } catch (BatchUpdateException e) {
+                    // A rewritten batch cannot tell us which row failed, so retry one by one;
+                    // the rollback also gave up the lock on the count, so claim the seats again
+                    connection.rollback();
+                    claimed = claimSeats(connection, courseId, accepted, accepted.size(), batchResult);
+                    saved = insertIndividually(connection, accepted.subList(0, claimed), batchResult);
+                }
             }
+            connection.commit();
+            reservation.commit(saved.size());
         } catch (SQLException e) {
-            throw new DatabaseException("Error checking enrollment status", e);
+            connection.rollback();
+            throw e;
+        } finally {
+            reservation.cancel();
+        }
+        
+        batchResult.addSaved(saved.size());
+        for (Enrollment enrollment : saved) {
+            DomainEventBus.getInstance().publish(
+                DomainEvent.added(DomainEvent.Entity.ENROLLMENT, enrollment.getEnrollmentId(), ENROLLED));
+        }
+    }
+    
+    /**
+     * Claim up to the wanted seats in the database for the leading candidates and
+     * report the rest as conflicts. Returns how many candidates may be inserted.
+     */
+    private int claimSeats(Connection connection, int courseId, List<Enrollment> candidates, int wanted,
+                           BatchResult batchResult) throws SQLException {
+        int claimed;
+        String reason = "Course is full";
+        try {
+            claimed = wanted > 0 ? SEATS.claim(connection, courseId, wanted) : 0;
+        } catch (ValidationException e) {
+            claimed = 0;
+            reason = e.getMessage();
+        }
+        for (Enrollment enrollment : candidates.subList(claimed, candidates.size())) {
+            batchResult.addFailure(conflictKey(enrollment), reason);
+        }
+        return claimed;
+    }
+    
+    private List<Enrollment> insertBatch(Connection connection, List<Enrollment> enrollments) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (Enrollment enrollment : enrollments) {
+                bindEnrollment(stmt, enrollment);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            ResultSet keys = stmt.getGeneratedKeys();
+            for (Enrollment enrollment : enrollments) {
+                if (keys.next()) {
+                    enrollment.setEnrollmentId(keys.getInt(1));
+                }
+            }
+            return enrollments;
+        }
+    }
+    
+    private List<Enrollment> insertIndividually(Connection connection, List<Enrollment> enrollments,
+                                                BatchResult batchResult) throws SQLException {
+        List<Enrollment> saved = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (Enrollment enrollment : enrollments) {
+                bindEnrollment(stmt, enrollment);
+                try {
+                    stmt.executeUpdate();
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    if (keys.next()) {
+                        enrollment.setEnrollmentId(keys.getInt(1));
+                    }
+                    saved.add(enrollment);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    batchResult.addFailure(conflictKey(enrollment), "Already enrolled");
+                } catch (SQLException e) {
+                    batchResult.addFailure(conflictKey(enrollment), e.getMessage());
+                }
+            }
+        }
+        return saved;
+    }
+    
+    private void bindEnrollment(PreparedStatement stmt, Enrollment enrollment) throws SQLException {
+        stmt.setInt(1, enrollment.getStudentId());
+        stmt.setInt(2, enrollment.getCourseId());
+        stmt.setDate(3, new java.sql.Date(enrollment.getEnrollmentDate().getTime()));
+        stmt.setString(4, enrollment.getStatus());
+    }
+    
+    private static String conflictKey(Enrollment enrollment) {
+        return enrollment.getStudentNumber() + " -> " + enrollment.getCourseCode();
+    }
+    
+    /**
+     * Map each of the given IDs that exists to its natural key, keeping the order of the IDs
+     */
+    private Map<Integer, String> getKeys(Connection connection, String query, Collection<Integer> ids)
+            throws SQLException {
+        List<Integer> idList = new ArrayList<>(ids);
+        Map<Integer, String> found = new HashMap<>();
+        String sql = String.format(query, InList.placeholders(idList.size()));
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            InList.bindInts(stmt, 1, idList);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                found.put(rs.getInt(1), rs.getString(2));
+            }
         }
         
-        String query = "INSERT INTO enrollments (student_id, course_id, enrollment_date, status) " +
-                      "VALUES (?, ?, ?, ?)";
+        Map<Integer, String> keys = new LinkedHashMap<>();
+        for (Integer id : idList) {
+            String key = found.get(id);
+            if (key != null) {
+                keys.put(id, key);
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Find which (student, course) pairs among the given students and courses are already enrolled
+     */
+    private Set<Long> getExistingPairs(Connection connection, Collection<Integer> studentIds,
+                                       Collection<Integer> courseIds) throws SQLException {
+        Set<Long> pairs = new HashSet<>();
+        String query = "SELECT student_id, course_id FROM enrollments " +
+                      "WHERE student_id IN (" + InList.placeholders(studentIds.size()) + ") " +
+                      "AND course_id IN (" + InList.placeholders(courseIds.size()) + ")";
         
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, enrollment.getStudentId());
-            stmt.setInt(2, enrollment.getCourseId());
-            stmt.setDate(3, new java.sql.Date(enrollment.getEnrollmentDate().getTime()));
-            stmt.setString(4, enrollment.getStatus() != null ? enrollment.getStatus() : "Enrolled");
-            
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DatabaseException("Error adding enrollment: " + e.getMessage(), e);
+            InList.bindInts(stmt, InList.bindInts(stmt, 1, studentIds), courseIds);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                pairs.add(pairKey(rs.getInt(1), rs.getInt(2)));
+            }
         }
+        return pairs;
+    }
+    
+    private static long pairKey(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
     }
 
-    public boolean updateEnrollment(Enrollment enrollment) throws DatabaseException {
+
+    /**
+     * Update status and grade. Moving into 'Enrolled' takes a seat, claimed in the
+     * database in the same transaction as the update, and fails if the course is
+     * full; moving out of it gives the seat back.
+     */
+    public boolean updateEnrollment(Enrollment enrollment) throws DatabaseException, ValidationException {
         String query = "UPDATE enrollments SET status=?, grade=? WHERE enrollment_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, enrollment.getStatus());
-            stmt.setString(2, enrollment.getGrade());
-            stmt.setInt(3, enrollment.getEnrollmentId());
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            Enrollment current = getEnrollmentState(connection, enrollment.getEnrollmentId());
+            if (current == null) {
+                return false;
+            }
+            boolean wasEnrolled = ENROLLED.equals(current.getStatus());
+            boolean isEnrolled = ENROLLED.equals(enrollment.getStatus());
+            SeatAllocator.Reservation reservation = !wasEnrolled && isEnrolled
+                ? SEATS.reserve(connection, current.getCourseId())
+                : null;
             
-            return stmt.executeUpdate() > 0;
+            try {
+                if (reservation != null) {
+                    connection.setAutoCommit(false);
+                    if (SEATS.claim(connection, current.getCourseId(), 1) == 0) {
+                        throw new ValidationException("Course is full");
+                    }
+                }
+                stmt.setString(1, enrollment.getStatus());
+                stmt.setString(2, enrollment.getGrade());
+                stmt.setInt(3, enrollment.getEnrollmentId());
+                
+                boolean updated = stmt.executeUpdate() > 0;
+                if (reservation != null) {
+                    connection.commit();
+                }
+                if (updated) {
+                    if (reservation != null) {
+                        reservation.commit();
+                    } else if (wasEnrolled && !isEnrolled) {
+                        SEATS.release(current.getCourseId());
+                    }
+                    DomainEventBus.getInstance().publish(DomainEvent.updated(DomainEvent.Entity.ENROLLMENT,
+                        enrollment.getEnrollmentId(), current.getStatus(), enrollment.getStatus()));
+                }
+                return updated;
+            } finally {
+                if (reservation != null) {
+                    reservation.cancel();
+                }
+            }
         } catch (SQLException e) {
             throw new DatabaseException("Error updating enrollment: " + e.getMessage(), e);
         }
@@ -87,9 +432,21 @@ public class EnrollmentDAO {
     public boolean deleteEnrollment(int enrollmentId) throws DatabaseException {
         String query = "DELETE FROM enrollments WHERE enrollment_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            Enrollment current = getEnrollmentState(connection, enrollmentId);
             stmt.setInt(1, enrollmentId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted && current != null) {
+                if (ENROLLED.equals(current.getStatus())) {
+                    SEATS.release(current.getCourseId());
+                }
+                AttendanceAnalyticsDAO.enrollmentRemoved(enrollmentId);
+                DomainEventBus.getInstance().publish(
+                    DomainEvent.deleted(DomainEvent.Entity.ENROLLMENT, enrollmentId, current.getStatus()));
+                ChangeFeed.recordDeletes(connection, "enrollments", List.of(enrollmentId));
+            }
+            return deleted;
         } catch (SQLException e) {
             throw new DatabaseException("Error deleting enrollment: " + e.getMessage(), e);
         }
@@ -103,7 +460,8 @@ public class EnrollmentDAO {
                       "JOIN courses c ON e.course_id = c.course_id " +
                       "ORDER BY e.enrollment_date DESC";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -115,13 +473,77 @@ public class EnrollmentDAO {
         }
     }
 
+    /**
+     * Fetch one page of enrollments, newest first, starting after the given
+     * enrollment (null for the first page). enrollment_id breaks ties between
+     * enrollments made on the same date so no row is skipped or repeated.
+     */
+    public List<Enrollment> getEnrollmentsPage(Enrollment after, int pageSize) throws DatabaseException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        String query = "SELECT e.*, s.student_number, CONCAT(s.first_name, ' ', s.last_name) as student_name, " +
+                      "c.course_code, c.course_name FROM enrollments e " +
+                      "JOIN students s ON e.student_id = s.student_id " +
+                      "JOIN courses c ON e.course_id = c.course_id " +
+                      (after != null
+                          ? "WHERE (e.enrollment_date < ? OR (e.enrollment_date = ? AND e.enrollment_id < ?)) "
+                          : "") +
+                      "ORDER BY e.enrollment_date DESC, e.enrollment_id DESC LIMIT ?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (after != null) {
+                Date afterDate = new Date(after.getEnrollmentDate().getTime());
+                stmt.setDate(index++, afterDate);
+                stmt.setDate(index++, afterDate);
+                stmt.setInt(index++, after.getEnrollmentId());
+            }
+            stmt.setInt(index, pageSize);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                enrollments.add(extractEnrollmentFromResultSet(rs));
+            }
+            return enrollments;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving enrollments: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Enrollments added or updated since the watermark, including those whose
+     * student or course changed, and the IDs of those deleted since. The
+     * enrollment list is paged, so a full reload returns no rows and the caller
+     * reloads its pages. An enrollment, student or course saved in a
+     * transaction that commits more than sams.changes.overlapMs (5 s) after its
+     * statement ran is missed until the next full reload.
+     */
+    public ChangeSet<Enrollment> getEnrollmentChanges(Timestamp since) throws DatabaseException {
+        String select = "SELECT e.*, s.student_number, CONCAT(s.first_name, ' ', s.last_name) as student_name, " +
+                        "c.course_code, c.course_name FROM enrollments e " +
+                        "JOIN students s ON e.student_id = s.student_id " +
+                        "JOIN courses c ON e.course_id = c.course_id ";
+        // One branch per timestamp so each can use its own index
+        String query = select + "WHERE e.updated_at >= ? UNION " +
+                       select + "WHERE s.updated_at >= ? UNION " +
+                       select + "WHERE c.updated_at >= ?";
+        
+        try (Connection connection = database.getConnection()) {
+            return ChangeFeed.read(connection, "enrollments", since, null, query, 3,
+                this::extractEnrollmentFromResultSet);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving enrollment changes: " + e.getMessage(), e);
+        }
+    }
+
     public List<Enrollment> getEnrollmentsByStudent(int studentId) throws DatabaseException {
         List<Enrollment> enrollments = new ArrayList<>();
         String query = "SELECT e.*, c.course_code, c.course_name FROM enrollments e " +
                       "JOIN courses c ON e.course_id = c.course_id " +
                       "WHERE e.student_id = ? ORDER BY e.enrollment_date DESC";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, studentId);
             ResultSet rs = stmt.executeQuery();
             
@@ -150,7 +572,8 @@ public class EnrollmentDAO {
                       "WHERE e.course_id = ? AND e.status = 'Enrolled' " +
                       "ORDER BY s.student_number";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, courseId);
             ResultSet rs = stmt.executeQuery();
             
@@ -163,6 +586,7 @@ public class EnrollmentDAO {
                 enrollment.setStatus(rs.getString("status"));
                 enrollment.setGrade(rs.getString("grade"));
                 enrollment.setStudentName(rs.getString("student_name"));
+                enrollment.setStudentNumber(rs.getString("student_number"));
                 enrollments.add(enrollment);
             }
             return enrollments;
@@ -171,6 +595,131 @@ public class EnrollmentDAO {
         }
     }
 
+    /**
+     * Map each student number enrolled in the course to its enrollment_id,
+     * so bulk writers can resolve a whole class with a single query
+     */
+    static Map<String, Integer> getEnrollmentIdsByCourse(Connection connection, int courseId) throws SQLException {
+        Map<String, Integer> enrollmentIds = new HashMap<>();
+        String query = "SELECT s.student_number, e.enrollment_id FROM enrollments e " +
+                      "JOIN students s ON e.student_id = s.student_id " +
+                      "WHERE e.course_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, courseId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                enrollmentIds.put(rs.getString("student_number"), rs.getInt("enrollment_id"));
+            }
+        }
+        return enrollmentIds;
+    }
+
+    /**
+     * Map each student number enrolled in the course to their enrollment's IDs
+     * (enrollment, student and course), resolving a whole class with a single query
+     */
+    static Map<String, Enrollment> getEnrollmentsByStudentNumber(Connection connection, int courseId)
+            throws SQLException {
+        Map<String, Enrollment> enrollments = new HashMap<>();
+        String query = "SELECT s.student_number, e.enrollment_id, e.student_id FROM enrollments e " +
+                      "JOIN students s ON e.student_id = s.student_id " +
+                      "WHERE e.course_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, courseId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
+                enrollment.setStudentId(rs.getInt("student_id"));
+                enrollment.setCourseId(courseId);
+                enrollment.setStudentNumber(rs.getString("student_number"));
+                enrollments.put(enrollment.getStudentNumber(), enrollment);
+            }
+        }
+        return enrollments;
+    }
+
+    /**
+     * Read the current status and course of an enrollment, or null if it does not exist
+     */
+    private Enrollment getEnrollmentState(Connection connection, int enrollmentId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT status, course_id FROM enrollments WHERE enrollment_id=?")) {
+            stmt.setInt(1, enrollmentId);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            Enrollment enrollment = new Enrollment();
+            enrollment.setEnrollmentId(enrollmentId);
+            enrollment.setStatus(rs.getString("status"));
+            enrollment.setCourseId(rs.getInt("course_id"));
+            return enrollment;
+        }
+    }
+
+    /**
+     * Recount a course's seats on next use, e.g. after its capacity changed or it was deleted
+     */
+    static void invalidateSeats(int courseId) {
+        SEATS.invalidate(courseId);
+    }
+
+    /**
+     * Recount every course's seats on next use, e.g. after a student delete cascaded to their enrollments
+     */
+    static void invalidateAllSeats() {
+        SEATS.invalidateAll();
+    }
+
+    /**
+     * Get the status and course of every enrollment owned by a student or course.
+     * Read before deleting the owner, since the delete cascades to these rows.
+     */
+    static List<Enrollment> getEnrollmentStates(Connection connection, String ownerColumn, int ownerId)
+            throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        String query = "SELECT enrollment_id, status, course_id FROM enrollments WHERE " + ownerColumn + "=?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, ownerId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
+                enrollment.setStatus(rs.getString("status"));
+                enrollment.setCourseId(rs.getInt("course_id"));
+                enrollments.add(enrollment);
+            }
+        }
+        return enrollments;
+    }
+
+    /**
+     * Account for each enrollment removed by a cascading delete: update the
+     * attendance analytics and publish a delete event
+     */
+    static void publishCascadedDeletes(List<Enrollment> enrollments) {
+        for (Enrollment enrollment : enrollments) {
+            AttendanceAnalyticsDAO.enrollmentRemoved(enrollment.getEnrollmentId());
+            DomainEventBus.getInstance().publish(DomainEvent.deleted(DomainEvent.Entity.ENROLLMENT,
+                enrollment.getEnrollmentId(), enrollment.getStatus()));
+        }
+    }
+
+    /**
+     * Leave change feed tombstones for the enrollments removed by a cascading delete
+     */
+    static void recordCascadedDeletes(Connection connection, List<Enrollment> enrollments) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (Enrollment enrollment : enrollments) {
+            ids.add(enrollment.getEnrollmentId());
+        }
+        ChangeFeed.recordDeletes(connection, "enrollments", ids);
+    }
+
     private Enrollment extractEnrollmentFromResultSet(ResultSet rs) throws SQLException {
         Enrollment enrollment = new Enrollment();
         enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
@@ -180,6 +729,7 @@ public class EnrollmentDAO {
         enrollment.setStatus(rs.getString("status"));
         enrollment.setGrade(rs.getString("grade"));
         enrollment.setStudentName(rs.getString("student_name"));
+        enrollment.setStudentNumber(rs.getString("student_number"));
         enrollment.setCourseCode(rs.getString("course_code"));
         enrollment.setCourseName(rs.getString("course_name"));
         return enrollment;
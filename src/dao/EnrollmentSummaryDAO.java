@@ -0,0 +1,115 @@
+package dao;
+
+import model.CourseSummary;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Course enrollment summary, the cached replacement for the
+ * course_enrollment_summary view. Enrollment counts come from
+ * course_enrollment_counts, which database triggers keep in the same
+ * transaction as every enrollment change, so no count can drift from the rows
+ * and changes made on other workstations are counted too.
+ *
+ * The rows are held in memory and each read brings them up to date through the
+ * ChangeFeed: only courses whose own row, enrollment count or lecturer changed
+ * since the last read are fetched again, so a read costs a few indexed queries
+ * however many enrollments exist. rebuild() reloads everything.
+ */
+public class EnrollmentSummaryDAO {
+
+    private static final String SUMMARY_QUERY =
+        "SELECT c.course_id, c.course_code, c.course_name, c.credits, c.capacity, c.lecturer_id, " +
+        "CONCAT(l.first_name, ' ', l.last_name) AS lecturer_name, l.department, " +
+        "n.enrolled AS total_students FROM courses c " +
+        "JOIN course_enrollment_counts n ON c.course_id = n.course_id " +
+        "LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id ";
+    private static final String CHANGED_QUERY = SUMMARY_QUERY +
+        "WHERE c.updated_at >= ? OR n.updated_at >= ? OR l.updated_at >= ?";
+
+    // Guards every field below; held across the refresh so concurrent reads fetch the changes once
+    private static final Object LOCK = new Object();
+
+    private static final Map<Integer, CourseSummary> SUMMARIES = new HashMap<>();
+    private static Timestamp watermark;
+    private static List<CourseSummary> sorted;
+
+    private final DatabaseConnection database;
+
+    public EnrollmentSummaryDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Every course's summary ordered by course code, current as of this call.
+     * The list is unmodifiable. A course, lecturer or enrollment saved in a
+     * transaction that commits more than sams.changes.overlapMs (5 s) after its
+     * statement ran is missed until the next full reload.
+     */
+    public List<CourseSummary> getCourseSummaries() throws DatabaseException {
+        synchronized (LOCK) {
+            refresh();
+            return sortedSummaries();
+        }
+    }
+
+    /**
+     * Reload the whole summary from the database
+     */
+    public void rebuild() throws DatabaseException {
+        synchronized (LOCK) {
+            watermark = null;
+            refresh();
+        }
+    }
+
+    private void refresh() throws DatabaseException {
+        try (Connection connection = database.getConnection()) {
+            ChangeSet<CourseSummary> changes = ChangeFeed.read(connection, "courses", watermark,
+                SUMMARY_QUERY, CHANGED_QUERY, 3, EnrollmentSummaryDAO::extractSummary);
+            if (changes.isFullReload()) {
+                SUMMARIES.clear();
+            }
+            for (CourseSummary summary : changes.getChanged()) {
+                SUMMARIES.put(summary.getCourseId(), summary);
+            }
+            SUMMARIES.keySet().removeAll(changes.getDeletedIds());
+            if (changes.isFullReload() || !changes.isEmpty()) {
+                sorted = null;
+            }
+            watermark = changes.getWatermark();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading enrollment summary: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<CourseSummary> sortedSummaries() {
+        if (sorted == null) {
+            List<CourseSummary> summaries = new ArrayList<>(SUMMARIES.values());
+            summaries.sort(Comparator.comparing(CourseSummary::getCourseCode));
+            sorted = Collections.unmodifiableList(summaries);
+        }
+        return sorted;
+    }
+
+    private static CourseSummary extractSummary(ResultSet rs) throws SQLException {
+        return new CourseSummary(
+            rs.getInt("course_id"),
+            rs.getString("course_code"),
+            rs.getString("course_name"),
+            rs.getInt("credits"),
+            rs.getInt("lecturer_id"),
+            rs.getString("lecturer_name"),
+            rs.getString("department"),
+            rs.getInt("total_students"),
+            rs.getInt("capacity"));
+    }
+}
\ No newline at end of file
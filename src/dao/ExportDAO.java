@@ -0,0 +1,165 @@
+package dao;
+
+import util.CsvWriter;
+import util.DataAccessExecutor;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+
+/**
+ * Streams report data from the database straight into CSV files. Rows are read
+ * from a forward-only result set and written as they arrive, so an export of any
+ * size runs in constant memory. The file is written beside the target and only
+ * moved into place once complete, so a failed or cancelled export leaves nothing behind.
+ */
+public class ExportDAO {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    public enum ExportType {
+        COURSE_SUMMARY("Course Enrollment Summary",
+            new String[]{"Course Code", "Course Name", "Credits", "Lecturer", "Department",
+                         "Enrolled Students", "Capacity", "Available Seats", "Enrollment %", "Status"},
+            "SELECT course_code, course_name, credits, COALESCE(lecturer_name, 'Not Assigned'), " +
+            "COALESCE(department, 'N/A'), total_students, capacity, available_seats, " +
+            "CONCAT(ROUND(IF(capacity > 0, total_students * 100.0 / capacity, 0), 1), '%'), " +
+            "CASE WHEN available_seats <= 0 THEN 'FULL - Add Section' " +
+            "WHEN total_students * 100.0 / capacity >= 70 THEN 'High Enrollment' " +
+            "WHEN total_students * 100.0 / capacity >= 50 THEN 'Medium Enrollment' " +
+            "WHEN total_students * 100.0 / capacity >= 30 THEN 'Low - Monitor' " +
+            "ELSE 'Critical - Review' END " +
+            "FROM course_enrollment_summary ORDER BY course_code"),
+
+        ENROLLMENTS("Enrollments",
+            new String[]{"Enrollment ID", "Student Number", "Student Name", "Course Code", "Course Name",
+                         "Enrollment Date", "Status", "Grade"},
+            "SELECT e.enrollment_id, s.student_number, CONCAT(s.first_name, ' ', s.last_name), " +
+            "c.course_code, c.course_name, e.enrollment_date, e.status, e.grade " +
+            "FROM enrollments e " +
+            "JOIN students s ON e.student_id = s.student_id " +
+            "JOIN courses c ON e.course_id = c.course_id " +
+            "ORDER BY e.enrollment_id"),
+
+        ATTENDANCE("Attendance",
+            new String[]{"Attendance ID", "Student Number", "Student Name", "Course Code",
+                         "Date", "Status", "Remarks"},
+            "SELECT a.attendance_id, s.student_number, CONCAT(s.first_name, ' ', s.last_name), " +
+            "c.course_code, a.attendance_date, a.status, a.remarks " +
+            "FROM attendance a " +
+            "JOIN enrollments e ON a.enrollment_id = e.enrollment_id " +
+            "JOIN students s ON e.student_id = s.student_id " +
+            "JOIN courses c ON e.course_id = c.course_id " +
+            "ORDER BY a.attendance_id"),
+
+        ASSESSMENTS("Assessments",
+            new String[]{"Assessment ID", "Student Number", "Student Name", "Course Code", "Type",
+                         "Marks Obtained", "Total Marks", "Date", "Remarks"},
+            "SELECT a.assessment_id, s.student_number, CONCAT(s.first_name, ' ', s.last_name), " +
+            "c.course_code, a.assessment_type, a.marks_obtained, a.total_marks, a.assessment_date, a.remarks " +
+            "FROM assessments a " +
+            "JOIN enrollments e ON a.enrollment_id = e.enrollment_id " +
+            "JOIN students s ON e.student_id = s.student_id " +
+            "JOIN courses c ON e.course_id = c.course_id " +
+            "ORDER BY a.assessment_id");
+
+        private final String label;
+        private final String[] headers;
+        private final String query;
+
+        ExportType(String label, String[] headers, String query) {
+            this.label = label;
+            this.headers = headers;
+            this.query = query;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final DatabaseConnection database;
+
+    public ExportDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Export every row of the report to the target file, reporting the number of
+     * rows written as it goes (the total is not known up front, so it is passed as -1).
+     * Returns the number of rows written, or -1 if the export was cancelled.
+     */
+    public long exportCsv(ExportType type, Path target, DataAccessExecutor.Progress progress)
+            throws DatabaseException, IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        boolean complete = false;
+
+        try {
+            long rows = writeCsv(type, partial, progress);
+            if (rows < 0) {
+                return -1;
+            }
+            moveIntoPlace(partial, target);
+            complete = true;
+            return rows;
+        } catch (SQLException e) {
+            if (progress.isCancelled()) {
+                return -1;
+            }
+            throw new DatabaseException("Error exporting " + type + ": " + e.getMessage(), e);
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    private long writeCsv(ExportType type, Path file, DataAccessExecutor.Progress progress)
+            throws SQLException, IOException {
+        try (Connection connection = database.getLongRunningConnection();
+             PreparedStatement stmt = connection.prepareStatement(type.query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J only streams row by row with this fetch size; any other value buffers the whole result
+            stmt.setFetchSize(Integer.MIN_VALUE);
+
+            try (ResultSet rs = stmt.executeQuery();
+                 CsvWriter csv = new CsvWriter(Files.newOutputStream(file))) {
+                csv.writeRow(type.headers);
+
+                String[] values = new String[type.headers.length];
+                long rows = 0;
+                while (rs.next()) {
+                    if (progress.isCancelled()) {
+                        // Stop the query on the server, otherwise closing the result set drains every remaining row
+                        stmt.cancel();
+                        return -1;
+                    }
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getString(i + 1);
+                    }
+                    csv.writeRow(values);
+
+                    if (++rows % PROGRESS_INTERVAL == 0) {
+                        progress.update(rows, -1);
+                    }
+                }
+                progress.update(rows, -1);
+                return rows;
+            }
+        }
+    }
+
+    private void moveIntoPlace(Path partial, Path target) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
\ No newline at end of file
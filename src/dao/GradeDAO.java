@@ -0,0 +1,264 @@
+package dao;
+
+import util.DataAccessExecutor;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Grade engine: turns the assessments of each enrollment into a final letter
+ * grade and stores it in enrollments.grade, and computes each student's
+ * cumulative GPA from those grades weighted by course credits.
+ *
+ * A final grade weights each assessment type's percentage by
+ * sams.grade.weight.&lt;Type&gt; (Quiz 10, Assignment 20, Midterm 30, Final 40),
+ * renormalized over the types the enrollment has marks for, so a grade is
+ * available from the first assessment on. Dropped enrollments are not graded.
+ *
+ * Saving assessments regrades only the enrollments it touched, in the same
+ * transaction; recomputeAll() regrades everything.
+ */
+public class GradeDAO {
+
+    private static final String[] TYPES = {"Quiz", "Assignment", "Midterm", "Final"};
+    private static final double[] WEIGHTS = {
+        weight("Quiz", 10), weight("Assignment", 20), weight("Midterm", 30), weight("Final", 40)
+    };
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private static final String TYPE_TOTALS_QUERY =
+        "SELECT e.enrollment_id, e.grade, a.assessment_type, SUM(a.marks_obtained), SUM(a.total_marks) " +
+        "FROM enrollments e JOIN assessments a ON a.enrollment_id = e.enrollment_id " +
+        "WHERE e.status <> 'Dropped' AND a.marks_obtained IS NOT NULL %s" +
+        "GROUP BY e.enrollment_id, e.grade, a.assessment_type";
+
+    private static final String GPA_QUERY =
+        "SELECT e.student_id, e.grade, c.credits FROM enrollments e " +
+        "JOIN courses c ON e.course_id = c.course_id " +
+        "WHERE e.status <> 'Dropped' AND e.grade IS NOT NULL";
+
+    private final DatabaseConnection database;
+
+    public GradeDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    private static double weight(String type, double defaultWeight) {
+        return Double.parseDouble(System.getProperty("sams.grade.weight." + type, String.valueOf(defaultWeight)));
+    }
+
+    public static String letterGrade(double percentage) {
+        if (percentage >= 80) return "A";
+        else if (percentage >= 70) return "B";
+        else if (percentage >= 60) return "C";
+        else if (percentage >= 50) return "D";
+        else return "F";
+    }
+
+    /**
+     * Grade points of a letter grade on a 4.0 scale, or -1 for a grade that is not on the scale
+     */
+    public static double gradePoints(String grade) {
+        return switch (grade) {
+            case "A" -> 4.0;
+            case "B" -> 3.0;
+            case "C" -> 2.0;
+            case "D" -> 1.0;
+            case "F" -> 0.0;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Regrade every enrollment with assessment marks, writing changed grades back
+     * in batches, then compute every student's GPA. Progress counts grades written.
+     */
+    public GradeResult recomputeAll(DataAccessExecutor.Progress progress) throws DatabaseException {
+        long started = System.currentTimeMillis();
+        try (Connection connection = database.getLongRunningConnection()) {
+            List<EnrollmentMarks> marks = loadMarks(connection, Collections.emptyList());
+            List<EnrollmentMarks> changed = grade(marks);
+            writeGrades(connection, changed, progress);
+            Map<Integer, Double> gpas = computeGpas(connection);
+            return new GradeResult(marks.size(), changed.size(), gpas, System.currentTimeMillis() - started);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error computing grades: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cumulative GPA of every student with at least one graded course, keyed by student ID
+     */
+    public Map<Integer, Double> getGpas() throws DatabaseException {
+        try (Connection connection = database.getConnection()) {
+            return computeGpas(connection);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error computing GPAs: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Regrade only the given enrollments, on the caller's connection and transaction
+     *
+     * @return number of grades that changed
+     */
+    static int recomputeGrades(Connection connection, Collection<Integer> enrollmentIds) throws SQLException {
+        if (enrollmentIds.isEmpty()) {
+            return 0;
+        }
+        List<EnrollmentMarks> changed = grade(loadMarks(connection, enrollmentIds));
+        writeGrades(connection, changed, null);
+        return changed.size();
+    }
+
+    /**
+     * Sum marks per enrollment and type, for the given enrollments or all when empty
+     */
+    private static List<EnrollmentMarks> loadMarks(Connection connection, Collection<Integer> enrollmentIds)
+            throws SQLException {
+        String filter = enrollmentIds.isEmpty() ? "" :
+            "AND e.enrollment_id IN (" + InList.placeholders(enrollmentIds.size()) + ") ";
+        Map<Integer, EnrollmentMarks> byEnrollment = new HashMap<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(String.format(TYPE_TOTALS_QUERY, filter))) {
+            InList.bindInts(stmt, 1, enrollmentIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int type = typeIndex(rs.getString(3));
+                    if (type < 0) {
+                        continue;
+                    }
+                    EnrollmentMarks marks = byEnrollment.computeIfAbsent(rs.getInt(1), EnrollmentMarks::new);
+                    marks.storedGrade = rs.getString(2);
+                    marks.obtained[type] = rs.getDouble(4);
+                    marks.possible[type] = rs.getDouble(5);
+                }
+            }
+        }
+        return new ArrayList<>(byEnrollment.values());
+    }
+
+    /**
+     * Compute every enrollment's grade in parallel and return those that changed
+     */
+    private static List<EnrollmentMarks> grade(List<EnrollmentMarks> marks) {
+        marks.parallelStream().forEach(m -> m.grade = letterGrade(weightedPercentage(m)));
+        return marks.stream()
+            .filter(m -> !m.grade.equals(m.storedGrade))
+            .collect(Collectors.toList());
+    }
+
+    private static double weightedPercentage(EnrollmentMarks marks) {
+        double weighted = 0;
+        double weights = 0;
+        for (int type = 0; type < TYPES.length; type++) {
+            if (marks.possible[type] > 0) {
+                weighted += WEIGHTS[type] * marks.obtained[type] * 100 / marks.possible[type];
+                weights += WEIGHTS[type];
+            }
+        }
+        return weights > 0 ? weighted / weights : 0;
+    }
+
+    /**
+     * Write grades in batches. Without a progress the caller owns the transaction;
+     * with one, each batch is committed on its own.
+     */
+    private static void writeGrades(Connection connection, List<EnrollmentMarks> changed,
+                                    DataAccessExecutor.Progress progress) throws SQLException {
+        if (changed.isEmpty()) {
+            return;
+        }
+        boolean ownTransaction = progress != null;
+        if (ownTransaction) {
+            connection.setAutoCommit(false);
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "UPDATE enrollments SET grade=? WHERE enrollment_id=?")) {
+            for (int i = 0; i < changed.size(); i++) {
+                EnrollmentMarks marks = changed.get(i);
+                stmt.setString(1, marks.grade);
+                stmt.setInt(2, marks.enrollmentId);
+                stmt.addBatch();
+
+                if ((i + 1) % WRITE_BATCH_SIZE == 0 || i == changed.size() - 1) {
+                    stmt.executeBatch();
+                    if (ownTransaction) {
+                        connection.commit();
+                        progress.update(i + 1, changed.size());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            if (ownTransaction) {
+                connection.rollback();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Credit-weighted grade point average per student, aggregated in parallel
+     */
+    private static Map<Integer, Double> computeGpas(Connection connection) throws SQLException {
+        List<int[]> rows = new ArrayList<>();
+        List<String> grades = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(GPA_QUERY)) {
+            while (rs.next()) {
+                rows.add(new int[]{rs.getInt(1), rs.getInt(3)});
+                grades.add(rs.getString(2));
+            }
+        }
+
+        Map<Integer, double[]> totals = IntStream.range(0, rows.size())
+            .parallel()
+            .filter(i -> gradePoints(grades.get(i)) >= 0)
+            .boxed()
+            .collect(Collectors.toConcurrentMap(
+                i -> rows.get(i)[0],
+                i -> new double[]{gradePoints(grades.get(i)) * rows.get(i)[1], rows.get(i)[1]},
+                (a, b) -> new double[]{a[0] + b[0], a[1] + b[1]},
+                ConcurrentHashMap::new));
+
+        return totals.entrySet().stream()
+            .filter(total -> total.getValue()[1] > 0)
+            .collect(Collectors.toMap(Map.Entry::getKey, total -> total.getValue()[0] / total.getValue()[1]));
+    }
+
+    private static int typeIndex(String type) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (Objects.equals(TYPES[i], type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marks obtained and possible per assessment type for one enrollment
+     */
+    private static class EnrollmentMarks {
+        final int enrollmentId;
+        final double[] obtained = new double[TYPES.length];
+        final double[] possible = new double[TYPES.length];
+        String storedGrade;
+        String grade;
+
+        EnrollmentMarks(int enrollmentId) {
+            this.enrollmentId = enrollmentId;
+        }
+    }
+}
\ No newline at end of file
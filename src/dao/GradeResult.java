@@ -0,0 +1,47 @@
+package dao;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a full grade recomputation
+ */
+public class GradeResult {
+
+    private final int gradedCount;
+    private final int changedCount;
+    private final Map<Integer, Double> gpaByStudent;
+    private final long elapsedMillis;
+
+    GradeResult(int gradedCount, int changedCount, Map<Integer, Double> gpaByStudent, long elapsedMillis) {
+        this.gradedCount = gradedCount;
+        this.changedCount = changedCount;
+        this.gpaByStudent = Collections.unmodifiableMap(gpaByStudent);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Enrollments that have assessment marks and so received a computed grade
+     */
+    public int getGradedCount() {
+        return gradedCount;
+    }
+
+    /**
+     * Enrollments whose stored grade was different and has been rewritten
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * Cumulative GPA of every student with at least one graded course, keyed by student ID
+     */
+    public Map<Integer, Double> getGpaByStudent() {
+        return gpaByStudent;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
\ No newline at end of file
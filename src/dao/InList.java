@@ -0,0 +1,76 @@
+package dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Placeholder lists for IN (...) queries, rounded up to a few fixed sizes.
+ * The connection pool caches prepared statements by SQL text and the driver
+ * prepares each text on the server, so a list sized to its values would give
+ * every count its own statement and churn both caches. The padding repeats
+ * the last value, which leaves the result unchanged.
+ */
+final class InList {
+
+    private static final int[] SIZES = {1, 4, 16, 64, 256, 1024};
+    private static final int LARGEST = SIZES[SIZES.length - 1];
+
+    private InList() {
+    }
+
+    /**
+     * Number of placeholders used for count values; none for no values and,
+     * beyond the largest size, the next multiple of it
+     */
+    static int size(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        for (int size : SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        return (count + LARGEST - 1) / LARGEST * LARGEST;
+    }
+
+    static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(size(count), "?"));
+    }
+
+    /**
+     * Bind the values from index on, padded to size(values.size())
+     *
+     * @return the index after the list
+     */
+    static int bindInts(PreparedStatement stmt, int index, Collection<Integer> values) throws SQLException {
+        int last = 0;
+        for (int value : values) {
+            stmt.setInt(index++, value);
+            last = value;
+        }
+        for (int i = values.size(); i < size(values.size()); i++) {
+            stmt.setInt(index++, last);
+        }
+        return index;
+    }
+
+    /**
+     * Bind the values from index on, padded to size(values.size())
+     *
+     * @return the index after the list
+     */
+    static int bindStrings(PreparedStatement stmt, int index, Collection<String> values) throws SQLException {
+        String last = null;
+        for (String value : values) {
+            stmt.setString(index++, value);
+            last = value;
+        }
+        for (int i = values.size(); i < size(values.size()); i++) {
+            stmt.setString(index++, last);
+        }
+        return index;
+    }
+}
\ No newline at end of file
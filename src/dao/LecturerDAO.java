@@ -0,0 +1,183 @@
+package dao;
+
+import model.Lecturer;
+import util.DatabaseConnection;
+import exception.DatabaseException;
+import exception.ValidationException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LecturerDAO {
+    
+    private final DatabaseConnection database;
+    
+    public LecturerDAO() throws SQLException {
+        this.database = DatabaseConnection.getInstance();
+    }
+
+    private void validateLecturer(Lecturer lecturer) throws ValidationException {
+        if (lecturer.getLecturerNumber() == null || lecturer.getLecturerNumber().trim().isEmpty()) {
+            throw new ValidationException("Lecturer number is required");
+        }
+        if (lecturer.getFirstName() == null || lecturer.getFirstName().trim().isEmpty()) {
+            throw new ValidationException("First name is required");
+        }
+        if (lecturer.getLastName() == null || lecturer.getLastName().trim().isEmpty()) {
+            throw new ValidationException("Last name is required");
+        }
+        if (lecturer.getEmail() == null || lecturer.getEmail().trim().isEmpty()) {
+            throw new ValidationException("Email is required");
+        }
+        if (!lecturer.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+            throw new ValidationException("Invalid email format");
+        }
+    }
+
+    public boolean addLecturer(Lecturer lecturer) throws DatabaseException, ValidationException {
+        validateLecturer(lecturer);
+        
+        String query = "INSERT INTO lecturers (lecturer_number, first_name, last_name, " +
+                      "email, phone, department, qualification) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, lecturer.getLecturerNumber());
+            stmt.setString(2, lecturer.getFirstName());
+            stmt.setString(3, lecturer.getLastName());
+            stmt.setString(4, lecturer.getEmail());
+            stmt.setString(5, lecturer.getPhone());
+            stmt.setString(6, lecturer.getDepartment());
+            stmt.setString(7, lecturer.getQualification());
+            
+            boolean added = stmt.executeUpdate() > 0;
+            ReferenceData.lecturersChanged();
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (added && keys.next()) {
+                lecturer.setLecturerId(keys.getInt(1));
+            }
+            return added;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DatabaseException("Lecturer number or email already exists");
+        } catch (SQLException e) {
+            throw new DatabaseException("Error adding lecturer: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean updateLecturer(Lecturer lecturer) throws DatabaseException, ValidationException {
+        validateLecturer(lecturer);
+        
+        String query = "UPDATE lecturers SET lecturer_number=?, first_name=?, last_name=?, " +
+                      "email=?, phone=?, department=?, qualification=? WHERE lecturer_id=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, lecturer.getLecturerNumber());
+            stmt.setString(2, lecturer.getFirstName());
+            stmt.setString(3, lecturer.getLastName());
+            stmt.setString(4, lecturer.getEmail());
+            stmt.setString(5, lecturer.getPhone());
+            stmt.setString(6, lecturer.getDepartment());
+            stmt.setString(7, lecturer.getQualification());
+            stmt.setInt(8, lecturer.getLecturerId());
+            
+            boolean updated = stmt.executeUpdate() > 0;
+            CourseDAO.invalidateCache();
+            ReferenceData.lecturersChanged();
+            return updated;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new DatabaseException("Lecturer number or email already exists");
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating lecturer: " + e.getMessage(), e);
+        }
+    }
+
+    public boolean deleteLecturer(int lecturerId) throws DatabaseException {
+        String query = "DELETE FROM lecturers WHERE lecturer_id=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement unassign = connection.prepareStatement(
+                 "UPDATE courses SET lecturer_id=NULL WHERE lecturer_id=?");
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            // Done by hand rather than by the foreign key so the courses' updated_at moves
+            unassign.setInt(1, lecturerId);
+            unassign.executeUpdate();
+            stmt.setInt(1, lecturerId);
+            boolean deleted = stmt.executeUpdate() > 0;
+            CourseDAO.invalidateCache();
+            ReferenceData.lecturersChanged();
+            if (deleted) {
+                ChangeFeed.recordDeletes(connection, "lecturers", List.of(lecturerId));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting lecturer: " + e.getMessage(), e);
+        }
+    }
+
+    public Lecturer getLecturerById(int lecturerId) throws DatabaseException {
+        String query = "SELECT * FROM lecturers WHERE lecturer_id=?";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, lecturerId);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                return extractLecturerFromResultSet(rs);
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving lecturer: " + e.getMessage(), e);
+        }
+    }
+
+    public List<Lecturer> getAllLecturers() throws DatabaseException {
+        List<Lecturer> lecturers = new ArrayList<>();
+        String query = "SELECT * FROM lecturers ORDER BY lecturer_number";
+        
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            
+            while (rs.next()) {
+                lecturers.add(extractLecturerFromResultSet(rs));
+            }
+            return lecturers;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving lecturers: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lecturers added or updated since the watermark and the IDs of those
+     * deleted since. Without a usable watermark every lecturer is returned as a
+     * full reload. A lecturer saved in a transaction that commits more than
+     * sams.changes.overlapMs (5 s) after its statement ran is missed until the
+     * next full reload.
+     */
+    public ChangeSet<Lecturer> getLecturerChanges(Timestamp since) throws DatabaseException {
+        try (Connection connection = database.getConnection()) {
+            return ChangeFeed.read(connection, "lecturers", since,
+                "SELECT * FROM lecturers ORDER BY lecturer_number",
+                "SELECT * FROM lecturers WHERE updated_at >= ?", 1,
+                this::extractLecturerFromResultSet);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving lecturer changes: " + e.getMessage(), e);
+        }
+    }
+
+    private Lecturer extractLecturerFromResultSet(ResultSet rs) throws SQLException {
+        Lecturer lecturer = new Lecturer();
+        lecturer.setLecturerId(rs.getInt("lecturer_id"));
+        lecturer.setLecturerNumber(rs.getString("lecturer_number"));
+        lecturer.setFirstName(rs.getString("first_name"));
+        lecturer.setLastName(rs.getString("last_name"));
+        lecturer.setEmail(rs.getString("email"));
+        lecturer.setPhone(rs.getString("phone"));
+        lecturer.setDepartment(rs.getString("department"));
+        lecturer.setQualification(rs.getString("qualification"));
+        return lecturer;
+    }
+}
\ No newline at end of file
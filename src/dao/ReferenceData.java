@@ -0,0 +1,474 @@
+package dao;
+
+import model.Course;
+import model.Lecturer;
+import model.Student;
+import util.DatabaseConnection;
+import util.DomainEvent;
+import util.DomainEventBus;
+import util.Startup;
+import exception.DatabaseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * Reference Data - Singleton Pattern
+ * Courses, lecturers and active students as the combo boxes show them, kept in
+ * a compact binary snapshot on local disk (sams.reference.file,
+ * ~/.sams/reference.snapshot). The snapshot is read and decoded in full on
+ * first use, so screens can fill their combo boxes before any query has run.
+ *
+ * refresh() brings it up to date through the change feed, reading only rows
+ * changed since the watermarks stored with the snapshot, and writes the
+ * snapshot back. A snapshot taken from another database, as told by its
+ * stamp, or one too old for the change feed is reloaded in full. Refreshes
+ * query at most every sams.reference.maxAgeMs (60000) unless a course,
+ * lecturer or student was written in this process since.
+ *
+ * The objects handed out are shared and only carry what the combo boxes
+ * need: IDs, codes, numbers, names, course credits and lecturer.
+ */
+public class ReferenceData implements DomainEventBus.Listener {
+
+    private static final int MAGIC = 0x53414d52;
+    private static final int FORMAT = 1;
+    private static final Path FILE = Path.of(System.getProperty("sams.reference.file",
+        Path.of(System.getProperty("user.home"), ".sams", "reference.snapshot").toString()));
+    private static final long MAX_AGE_MILLIS = Long.getLong("sams.reference.maxAgeMs", 60_000);
+
+    private static final Comparator<Course> COURSE_ORDER =
+        Comparator.comparing(Course::getCourseCode, String.CASE_INSENSITIVE_ORDER);
+    private static final Comparator<Lecturer> LECTURER_ORDER =
+        Comparator.comparing(Lecturer::getLecturerNumber, String.CASE_INSENSITIVE_ORDER);
+    private static final Comparator<Student> STUDENT_ORDER =
+        Comparator.comparing(Student::getStudentNumber, String.CASE_INSENSITIVE_ORDER);
+
+    private static ReferenceData instance;
+
+    private final Object refreshLock = new Object();
+    // Null until read from the file or the database
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+    private long refreshedAt;
+
+    private ReferenceData() {
+        try {
+            snapshot = read(FILE);
+            if (snapshot != null) {
+                Startup.milestone("reference data decoded");
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable reference data snapshot: " + e.getMessage());
+        }
+        DomainEventBus.getInstance().subscribe(this);
+    }
+
+    /**
+     * Get singleton instance. Only reads the local snapshot, so it is cheap
+     * enough for the EDT.
+     */
+    public static synchronized ReferenceData getInstance() {
+        if (instance == null) {
+            instance = new ReferenceData();
+        }
+        return instance;
+    }
+
+    /**
+     * True once there is something to show, from the snapshot file or the database
+     */
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * Courses ordered by code, or an empty list before anything is loaded
+     */
+    public List<Course> getCourses() {
+        Snapshot current = snapshot;
+        return current != null ? current.courses : Collections.emptyList();
+    }
+
+    /**
+     * Lecturers ordered by lecturer number, or an empty list before anything is loaded
+     */
+    public List<Lecturer> getLecturers() {
+        Snapshot current = snapshot;
+        return current != null ? current.lecturers : Collections.emptyList();
+    }
+
+    /**
+     * Active students ordered by student number, or an empty list before anything is loaded
+     */
+    public List<Student> getActiveStudents() {
+        Snapshot current = snapshot;
+        return current != null ? current.students : Collections.emptyList();
+    }
+
+    /**
+     * Bring the reference data up to date with the database and save the
+     * snapshot. Does nothing while it is recent and nothing was written since.
+     *
+     * @return true if the lists changed
+     */
+    public boolean refresh() throws SQLException, DatabaseException {
+        synchronized (refreshLock) {
+            long now = System.currentTimeMillis();
+            if (!stale && now - refreshedAt < MAX_AGE_MILLIS) {
+                return false;
+            }
+            // Cleared first, so a write during the refresh makes the next one query again
+            stale = false;
+            try {
+                return reload(now);
+            } catch (SQLException | DatabaseException | RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Read what changed since the snapshot, or everything when there is none
+     * or it was taken from another database
+     */
+    private boolean reload(long now) throws SQLException, DatabaseException {
+        Snapshot current = snapshot;
+        String stamp = readStamp();
+        boolean sameDatabase = current != null && stamp.equals(current.stamp);
+
+        ChangeSet<Course> courseChanges = new CourseDAO()
+            .getCourseChanges(sameDatabase ? current.coursesSince : null);
+        ChangeSet<Lecturer> lecturerChanges = new LecturerDAO()
+            .getLecturerChanges(sameDatabase ? current.lecturersSince : null);
+        ChangeSet<Student> studentChanges = new StudentDAO()
+            .getStudentChanges(sameDatabase ? current.studentsSince : null);
+
+        List<Course> courses = merge(sameDatabase ? current.courses : null, courseChanges,
+                                     Course::getCourseId, course -> true, COURSE_ORDER);
+        List<Lecturer> lecturers = merge(sameDatabase ? current.lecturers : null, lecturerChanges,
+                                         Lecturer::getLecturerId, lecturer -> true, LECTURER_ORDER);
+        Predicate<Student> active = student -> "Active".equals(student.getStatus());
+        List<Student> students = studentChanges.isFullReload()
+            ? merge(null, new ChangeSet<>(true, readActiveStudents(), Collections.emptySet(), null),
+                    Student::getStudentId, active, STUDENT_ORDER)
+            : merge(current.students, studentChanges, Student::getStudentId, active, STUDENT_ORDER);
+
+        Snapshot next = new Snapshot(stamp, courseChanges.getWatermark(), lecturerChanges.getWatermark(),
+                                     studentChanges.getWatermark(), courses, lecturers, students);
+        boolean changed = current == null || !current.sameContents(next);
+        snapshot = next;
+        refreshedAt = now;
+        try {
+            write(FILE, next);
+        } catch (IOException e) {
+            System.err.println("Could not save reference data snapshot: " + e.getMessage());
+        }
+        return changed;
+    }
+
+    /**
+     * Called on the publishing thread; only marks the data for the next refresh
+     */
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event.getEntity() != DomainEvent.Entity.ENROLLMENT) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Lecturer writes publish no domain event, so LecturerDAO reports them here
+     */
+    static void lecturersChanged() {
+        ReferenceData current;
+        synchronized (ReferenceData.class) {
+            current = instance;
+        }
+        if (current != null) {
+            current.stale = true;
+        }
+    }
+
+    /**
+     * Identifies the database the snapshot came from, so one taken against
+     * another server or schema is never patched with this one's changes
+     */
+    private static String readStamp() throws SQLException {
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CONCAT(@@server_uuid, '/', DATABASE())")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    /**
+     * Every active student with only the columns the snapshot keeps, for a full reload
+     */
+    private static List<Student> readActiveStudents() throws SQLException {
+        List<Student> students = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT student_id, student_number, first_name, last_name " +
+                                              "FROM students WHERE status = 'Active'")) {
+            while (rs.next()) {
+                Student student = new Student();
+                student.setStudentId(rs.getInt("student_id"));
+                student.setStudentNumber(rs.getString("student_number"));
+                student.setFirstName(rs.getString("first_name"));
+                student.setLastName(rs.getString("last_name"));
+                student.setStatus("Active");
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    private static <T> List<T> merge(List<T> current, ChangeSet<T> changes, ToIntFunction<T> idOf,
+                                     Predicate<T> keep, Comparator<T> order) {
+        Map<Integer, T> byId = new LinkedHashMap<>();
+        if (current != null && !changes.isFullReload()) {
+            for (T value : current) {
+                byId.put(idOf.applyAsInt(value), value);
+            }
+            for (Integer id : changes.getDeletedIds()) {
+                byId.remove(id);
+            }
+        }
+        for (T value : changes.getChanged()) {
+            int id = idOf.applyAsInt(value);
+            if (keep.test(value) && !changes.getDeletedIds().contains(id)) {
+                byId.put(id, value);
+            } else {
+                byId.remove(id);
+            }
+        }
+        List<T> merged = new ArrayList<>(byId.values());
+        merged.sort(order);
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * Decode a snapshot file; null if there is none or it is from another
+     * format or damaged. Mapping the file only saves copying it into a heap
+     * buffer: every entry is decoded into objects here, before the first
+     * combo box is filled.
+     */
+    private static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                return null;
+            }
+            int checksum = buffer.getInt();
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+
+            String stamp = getString(buffer);
+            Timestamp coursesSince = getTimestamp(buffer);
+            Timestamp lecturersSince = getTimestamp(buffer);
+            Timestamp studentsSince = getTimestamp(buffer);
+
+            int courseCount = buffer.getInt();
+            List<Course> courses = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                Course course = new Course();
+                course.setCourseId(buffer.getInt());
+                course.setCourseCode(getString(buffer));
+                course.setCourseName(getString(buffer));
+                course.setCredits(buffer.getInt());
+                course.setLecturerId(buffer.getInt());
+                course.setLecturerName(getString(buffer));
+                courses.add(course);
+            }
+            int lecturerCount = buffer.getInt();
+            List<Lecturer> lecturers = new ArrayList<>(lecturerCount);
+            for (int i = 0; i < lecturerCount; i++) {
+                Lecturer lecturer = new Lecturer();
+                lecturer.setLecturerId(buffer.getInt());
+                lecturer.setLecturerNumber(getString(buffer));
+                lecturer.setFirstName(getString(buffer));
+                lecturer.setLastName(getString(buffer));
+                lecturers.add(lecturer);
+            }
+            int studentCount = buffer.getInt();
+            List<Student> students = new ArrayList<>(studentCount);
+            for (int i = 0; i < studentCount; i++) {
+                Student student = new Student();
+                student.setStudentId(buffer.getInt());
+                student.setStudentNumber(getString(buffer));
+                student.setFirstName(getString(buffer));
+                student.setLastName(getString(buffer));
+                student.setStatus("Active");
+                students.add(student);
+            }
+            return new Snapshot(stamp, coursesSince, lecturersSince, studentsSince,
+                                Collections.unmodifiableList(courses), Collections.unmodifiableList(lecturers),
+                                Collections.unmodifiableList(students));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // A truncated or inconsistent file that still passed the checksum
+            throw new IOException("Corrupt reference data snapshot", e);
+        }
+    }
+
+    /**
+     * Replace the snapshot file atomically, so a crash mid-write leaves the old one
+     */
+    private static void write(Path file, Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            putString(out, snapshot.stamp);
+            putTimestamp(out, snapshot.coursesSince);
+            putTimestamp(out, snapshot.lecturersSince);
+            putTimestamp(out, snapshot.studentsSince);
+            out.writeInt(snapshot.courses.size());
+            for (Course course : snapshot.courses) {
+                out.writeInt(course.getCourseId());
+                putString(out, course.getCourseCode());
+                putString(out, course.getCourseName());
+                out.writeInt(course.getCredits());
+                out.writeInt(course.getLecturerId());
+                putString(out, course.getLecturerName());
+            }
+            out.writeInt(snapshot.lecturers.size());
+            for (Lecturer lecturer : snapshot.lecturers) {
+                out.writeInt(lecturer.getLecturerId());
+                putString(out, lecturer.getLecturerNumber());
+                putString(out, lecturer.getFirstName());
+                putString(out, lecturer.getLastName());
+            }
+            out.writeInt(snapshot.students.size());
+            for (Student student : snapshot.students) {
+                out.writeInt(student.getStudentId());
+                putString(out, student.getStudentNumber());
+                putString(out, student.getFirstName());
+                putString(out, student.getLastName());
+            }
+        }
+        byte[] body = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+
+        ByteBuffer header = ByteBuffer.allocate(12);
+        header.putInt(MAGIC).putInt(FORMAT).putInt((int) crc.getValue()).flip();
+
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, ByteBuffer.wrap(body)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        // On Windows this fails while the old file is still mapped; the next refresh tries again
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static void putTimestamp(DataOutputStream out, Timestamp value) throws IOException {
+        out.writeLong(value != null ? value.getTime() : Long.MIN_VALUE);
+    }
+
+    private static Timestamp getTimestamp(ByteBuffer buffer) {
+        long millis = buffer.getLong();
+        return millis != Long.MIN_VALUE ? new Timestamp(millis) : null;
+    }
+
+    private static class Snapshot {
+        final String stamp;
+        final Timestamp coursesSince;
+        final Timestamp lecturersSince;
+        final Timestamp studentsSince;
+        final List<Course> courses;
+        final List<Lecturer> lecturers;
+        final List<Student> students;
+
+        Snapshot(String stamp, Timestamp coursesSince, Timestamp lecturersSince, Timestamp studentsSince,
+                 List<Course> courses, List<Lecturer> lecturers, List<Student> students) {
+            this.stamp = stamp;
+            this.coursesSince = coursesSince;
+            this.lecturersSince = lecturersSince;
+            this.studentsSince = studentsSince;
+            this.courses = courses;
+            this.lecturers = lecturers;
+            this.students = students;
+        }
+
+        /**
+         * Compares only what is stored in the snapshot, so rows the change
+         * feed returns again without a visible change do not count
+         */
+        boolean sameContents(Snapshot other) {
+            return same(courses, other.courses, course -> Arrays.asList(course.getCourseId(), course.getCourseCode(),
+                            course.getCourseName(), course.getCredits(), course.getLecturerId(),
+                            course.getLecturerName()))
+                   && same(lecturers, other.lecturers, lecturer -> Arrays.asList(lecturer.getLecturerId(),
+                            lecturer.getLecturerNumber(), lecturer.getFirstName(), lecturer.getLastName()))
+                   && same(students, other.students, student -> Arrays.asList(student.getStudentId(),
+                            student.getStudentNumber(), student.getFirstName(), student.getLastName()));
+        }
+
+        private static <T> boolean same(List<T> a, List<T> b, Function<T, List<Object>> fields) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (int i = 0; i < a.size(); i++) {
+                if (!Objects.equals(fields.apply(a.get(i)), fields.apply(b.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package dao;
+
+import exception.ValidationException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the remaining seats of each course in memory so enrollments can be
+ * rejected without locking. A seat is taken with a compare-and-set before the
+ * enrollment is inserted, so a course this workstation knows to be full is
+ * rejected without touching the database, and requests on one workstation
+ * never take more seats than it counted.
+ *
+ * The counts are per workstation, so they only fast-reject. Capacity itself is
+ * enforced by claim(), which locks the course's row in course_enrollment_counts
+ * inside the insert transaction; two workstations taking the last seat are
+ * serialized there and the second one finds the course full.
+ *
+ * Counts are loaded on first use and reconciled against the database on a
+ * schedule (sams.seats.reconcileMs). Seats still held by uncommitted inserts are
+ * subtracted from the recount, and a recount that races a reservation is dropped
+ * rather than applied, so reconciliation can only ever under-count.
+ */
+class SeatAllocator {
+
+    private static final long RECONCILE_INTERVAL_MS = Long.getLong("sams.seats.reconcileMs", 60_000);
+
+    private static final String AVAILABLE_QUERY =
+        "SELECT c.capacity - (SELECT COUNT(*) FROM enrollments e " +
+        "WHERE e.course_id = c.course_id AND e.status = 'Enrolled') " +
+        "FROM courses c WHERE c.course_id = ?";
+
+    private static final String AVAILABLE_BULK_QUERY =
+        "SELECT c.course_id, c.capacity - (SELECT COUNT(*) FROM enrollments e " +
+        "WHERE e.course_id = c.course_id AND e.status = 'Enrolled') " +
+        "FROM courses c WHERE c.course_id IN (%s)";
+
+    private static final String CLAIM_QUERY =
+        "SELECT c.capacity - n.enrolled FROM course_enrollment_counts n " +
+        "JOIN courses c ON c.course_id = n.course_id WHERE n.course_id = ? FOR UPDATE";
+
+    private final ConcurrentMap<Integer, Seats> courses = new ConcurrentHashMap<>();
+
+    /**
+     * Take a seat in the course. The returned reservation must be committed once
+     * the enrollment is stored, or cancelled if it was not.
+     */
+    Reservation reserve(Connection connection, int courseId) throws SQLException, ValidationException {
+        Seats seats = courses.computeIfAbsent(courseId, id -> new Seats());
+        reconcileIfDue(connection, courseId, seats);
+        if (seats.tryReserve(1) == 0) {
+            throw new ValidationException("Course is full");
+        }
+        return new Reservation(seats, 1);
+    }
+
+    /**
+     * Take as many of the wanted seats as are left, possibly none. Once the
+     * enrollments are stored, commit the number actually used; the rest go back.
+     */
+    Reservation reserveUpTo(Connection connection, int courseId, int wanted)
+            throws SQLException, ValidationException {
+        Seats seats = courses.computeIfAbsent(courseId, id -> new Seats());
+        reconcileIfDue(connection, courseId, seats);
+        return new Reservation(seats, seats.tryReserve(wanted));
+    }
+
+    /**
+     * Lock the course's enrollment count and return how many of the wanted seats
+     * the database still has, possibly none. Call it inside the transaction that
+     * inserts the enrollments: the lock is held until that commits, and the count
+     * triggers take the seats in the same transaction. When the database has fewer
+     * seats than wanted, this workstation's count was stale and is dropped.
+     */
+    int claim(Connection connection, int courseId, int wanted) throws SQLException, ValidationException {
+        int available;
+        try (PreparedStatement stmt = connection.prepareStatement(CLAIM_QUERY)) {
+            stmt.setInt(1, courseId);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                courses.remove(courseId);
+                throw new ValidationException("Selected course no longer exists");
+            }
+            available = rs.getInt(1);
+        }
+        if (available < wanted) {
+            courses.remove(courseId);
+        }
+        return Math.max(0, Math.min(wanted, available));
+    }
+
+    /**
+     * Count the seats of every course not loaded yet in a single query, so a bulk
+     * writer does not pay one count per course. Unknown courses are left unloaded.
+     */
+    void load(Connection connection, Collection<Integer> courseIds) throws SQLException {
+        List<Integer> missing = new ArrayList<>();
+        for (Integer courseId : courseIds) {
+            if (!courses.computeIfAbsent(courseId, id -> new Seats()).loaded) {
+                missing.add(courseId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> available = new HashMap<>();
+        String query = String.format(AVAILABLE_BULK_QUERY, InList.placeholders(missing.size()));
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            InList.bindInts(stmt, 1, missing);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                available.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+
+        for (Map.Entry<Integer, Integer> entry : available.entrySet()) {
+            Seats seats = courses.computeIfAbsent(entry.getKey(), id -> new Seats());
+            synchronized (seats) {
+                if (!seats.loaded) {
+                    seats.remaining.set(entry.getValue());
+                    seats.reconciledAt = System.currentTimeMillis();
+                    seats.loaded = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Give back the seat of an enrollment that was dropped or deleted
+     */
+    void release(int courseId) {
+        Seats seats = courses.get(courseId);
+        if (seats != null) {
+            seats.remaining.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forget a course so its seats are recounted on next use, e.g. after its capacity changed
+     */
+    void invalidate(int courseId) {
+        courses.remove(courseId);
+    }
+
+    /**
+     * Forget every course, e.g. after a delete cascaded to an unknown set of courses
+     */
+    void invalidateAll() {
+        courses.clear();
+    }
+
+    private void reconcileIfDue(Connection connection, int courseId, Seats seats)
+            throws SQLException, ValidationException {
+        if (!seats.loaded) {
+            // Nobody can reserve until the first count is in, so load it exactly once
+            synchronized (seats) {
+                if (!seats.loaded) {
+                    seats.remaining.set(loadAvailable(connection, courseId));
+                    seats.reconciledAt = System.currentTimeMillis();
+                    seats.loaded = true;
+                }
+            }
+            return;
+        }
+
+        if (System.currentTimeMillis() - seats.reconciledAt < RECONCILE_INTERVAL_MS ||
+            !seats.reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = seats.remaining.get();
+            int pending = seats.pending.get();
+            int available = loadAvailable(connection, courseId);
+            seats.remaining.compareAndSet(before, available - pending);
+            seats.reconciledAt = System.currentTimeMillis();
+        } finally {
+            seats.reconciling.set(false);
+        }
+    }
+
+    private int loadAvailable(Connection connection, int courseId) throws SQLException, ValidationException {
+        try (PreparedStatement stmt = connection.prepareStatement(AVAILABLE_QUERY)) {
+            stmt.setInt(1, courseId);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                courses.remove(courseId);
+                throw new ValidationException("Selected course no longer exists");
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    private static class Seats {
+        final AtomicInteger remaining = new AtomicInteger();
+        // Seats taken whose enrollment insert has not finished yet
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean reconciling = new AtomicBoolean();
+        volatile boolean loaded;
+        volatile long reconciledAt;
+
+        /**
+         * Take up to wanted seats and return how many were taken
+         */
+        int tryReserve(int wanted) {
+            if (wanted <= 0) {
+                return 0;
+            }
+            // Count the seats as pending first, so a concurrent recount never misses them
+            pending.addAndGet(wanted);
+            int current;
+            int taken;
+            do {
+                current = remaining.get();
+                taken = Math.min(wanted, current);
+                if (taken <= 0) {
+                    pending.addAndGet(-wanted);
+                    return 0;
+                }
+            } while (!remaining.compareAndSet(current, current - taken));
+            pending.addAndGet(taken - wanted);
+            return taken;
+        }
+    }
+
+    /**
+     * Seats held for enrollments that are being inserted
+     */
+    static class Reservation {
+        private final Seats seats;
+        private final int count;
+        private boolean done;
+
+        private Reservation(Seats seats, int count) {
+            this.seats = seats;
+            this.count = count;
+        }
+
+        /**
+         * Number of seats held
+         */
+        int size() {
+            return count;
+        }
+
+        /**
+         * The enrollments were stored; every seat stays taken
+         */
+        void commit() {
+            finish(count);
+        }
+
+        /**
+         * Only the given number of enrollments were stored; the other seats are given back
+         */
+        void commit(int used) {
+            finish(Math.min(used, count));
+        }
+
+        /**
+         * Nothing was stored; every seat is given back. Does nothing after commit().
+         */
+        void cancel() {
+            finish(0);
+        }
+
+        private void finish(int kept) {
+            if (done) {
+                return;
+            }
+            done = true;
+            seats.pending.addAndGet(-count);
+            seats.remaining.addAndGet(count - kept);
+        }
+    }
+}
\ No newline at end of file
@@ -1,20 +1,57 @@
 package dao;
 
+import model.Enrollment;
 import model.Student;
+import util.CsvReader;
+import util.DataAccessExecutor;
 import util.DatabaseConnection;
+import util.DomainEvent;
+import util.DomainEventBus;
+import util.EntityCache;
+import util.SearchIndex;
 import exception.DatabaseException;
 import exception.ValidationException;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public class StudentDAO {
     
-    private Connection connection;
+    private static final EntityCache<Student> CACHE =
+        new EntityCache<>("students", Student::getStudentId, Student::getStudentNumber, Student::new);
+    private static final SearchIndex SEARCH_INDEX = new SearchIndex("students");
+    private static final int SEARCH_LIMIT = 1000;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    
+    private static final String INSERT_QUERY =
+        "INSERT INTO students (student_number, first_name, last_name, email, " +
+        "phone, date_of_birth, enrollment_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Column order expected by parseImportRow; the header row may list them in any order
+    private static final String[] IMPORT_COLUMNS = {
+        "student_number", "first_name", "last_name", "email",
+        "phone", "date_of_birth", "enrollment_date", "status"
+    };
+    private static final Set<String> OPTIONAL_COLUMNS = Set.of("phone", "date_of_birth", "status");
+    private static final Set<String> STATUSES = Set.of("Active", "Inactive", "Graduated");
+    private static final int IMPORT_CHUNK_SIZE = Integer.getInteger("sams.import.chunkSize", 1000);
+    
+    private final DatabaseConnection database;
     
     public StudentDAO() throws SQLException {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.database = DatabaseConnection.getInstance();
     }
 
     private void validateStudent(Student student) throws ValidationException {
@@ -30,7 +67,7 @@ public class StudentDAO {
         if (student.getEmail() == null || student.getEmail().trim().isEmpty()) {
             throw new ValidationException("Email is required");
         }
-        if (!student.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!EMAIL_PATTERN.matcher(student.getEmail()).matches()) {
             throw new ValidationException("Invalid email format");
         }
         if (student.getEnrollmentDate() == null) {
@@ -41,21 +78,17 @@ public class StudentDAO {
     public boolean addStudent(Student student) throws DatabaseException, ValidationException {
         validateStudent(student);
         
-        String query = "INSERT INTO students (student_number, first_name, last_name, email, " +
-                      "phone, date_of_birth, enrollment_date, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, student.getStudentNumber());
-            stmt.setString(2, student.getFirstName());
-            stmt.setString(3, student.getLastName());
-            stmt.setString(4, student.getEmail());
-            stmt.setString(5, student.getPhone());
-            stmt.setDate(6, student.getDateOfBirth() != null ? 
-                         new java.sql.Date(student.getDateOfBirth().getTime()) : null);
-            stmt.setDate(7, new java.sql.Date(student.getEnrollmentDate().getTime()));
-            stmt.setString(8, student.getStatus() != null ? student.getStatus() : "Active");
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            bindStudent(stmt, student);
             
-            return stmt.executeUpdate() > 0;
+            boolean added = stmt.executeUpdate() > 0;
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (added && keys.next()) {
+                student.setStudentId(keys.getInt(1));
+                studentAdded(student);
+            }
+            return added;
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new DatabaseException("Student number or email already exists");
         } catch (SQLException e) {
@@ -63,13 +96,300 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Import students from a CSV file whose header row names the columns:
+     * student_number, first_name, last_name, email, enrollment_date and optionally
+     * phone, date_of_birth and status, with dates as yyyy-MM-dd.
+     *
+     * The file is streamed in chunks of sams.import.chunkSize rows. Each chunk is
+     * parsed and validated in parallel, checked for duplicates against the rows
+     * before it and against the database in a single query, then inserted as one
+     * batch in its own transaction. Rejected rows are reported by line number and
+     * never stop the rest of the import. Cancelling stops after the current chunk;
+     * chunks already committed stay imported.
+     */
+    public BatchResult importStudents(Path file, DataAccessExecutor.Progress progress)
+            throws DatabaseException, ValidationException, IOException {
+        long started = System.currentTimeMillis();
+        BatchResult batchResult = new BatchResult();
+        Set<String> seenNumbers = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        
+        try (CsvReader csv = new CsvReader(Files.newInputStream(file));
+             Connection connection = database.getLongRunningConnection()) {
+            int[] columns = mapImportColumns(csv.readRow());
+            connection.setAutoCommit(false);
+            
+            List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            long rowsRead = 0;
+            String[] values;
+            while ((values = csv.readRow()) != null) {
+                chunk.add(new ImportRow(csv.getRowLine(), values));
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importChunk(connection, chunk, columns, seenNumbers, seenEmails, batchResult);
+                    rowsRead += chunk.size();
+                    chunk.clear();
+                    progress.update(rowsRead, -1);
+                    if (progress.isCancelled()) {
+                        break;
+                    }
+                }
+            }
+            if (!chunk.isEmpty() && !progress.isCancelled()) {
+                importChunk(connection, chunk, columns, seenNumbers, seenEmails, batchResult);
+                progress.update(rowsRead + chunk.size(), -1);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error importing students: " + e.getMessage(), e);
+        }
+        
+        batchResult.setElapsedMillis(System.currentTimeMillis() - started);
+        return batchResult;
+    }
+    
+    private int[] mapImportColumns(String[] header) throws ValidationException {
+        if (header == null) {
+            throw new ValidationException("The import file is empty");
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : header) {
+            names.add(name.trim().toLowerCase(Locale.ROOT).replace(' ', '_'));
+        }
+        int[] columns = new int[IMPORT_COLUMNS.length];
+        for (int i = 0; i < IMPORT_COLUMNS.length; i++) {
+            columns[i] = names.indexOf(IMPORT_COLUMNS[i]);
+            if (columns[i] < 0 && !OPTIONAL_COLUMNS.contains(IMPORT_COLUMNS[i])) {
+                throw new ValidationException("The import file has no " + IMPORT_COLUMNS[i] + " column");
+            }
+        }
+        return columns;
+    }
+    
+    private void importChunk(Connection connection, List<ImportRow> chunk, int[] columns,
+                             Set<String> seenNumbers, Set<String> seenEmails,
+                             BatchResult batchResult) throws SQLException {
+        // Parsing and validation share no state, so the rows of a chunk are checked in parallel
+        chunk.parallelStream().forEach(row -> parseImportRow(row, columns));
+        
+        // MySQL compares the unique keys case-insensitively, so duplicates are found the same way
+        List<ImportRow> candidates = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            if (row.error != null) {
+                batchResult.addFailure(row.key(), row.error);
+                continue;
+            }
+            String number = row.student.getStudentNumber().toLowerCase(Locale.ROOT);
+            String email = row.student.getEmail().toLowerCase(Locale.ROOT);
+            if (seenNumbers.contains(number)) {
+                batchResult.addFailure(row.key(), "Student number appears earlier in the file");
+            } else if (seenEmails.contains(email)) {
+                batchResult.addFailure(row.key(), "Email appears earlier in the file");
+            } else {
+                seenNumbers.add(number);
+                seenEmails.add(email);
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        
+        Set<String> existingNumbers = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        findExistingKeys(connection, candidates, existingNumbers, existingEmails);
+        
+        List<Student> accepted = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (ImportRow row : candidates) {
+            if (existingNumbers.contains(row.student.getStudentNumber().toLowerCase(Locale.ROOT))) {
+                batchResult.addFailure(row.key(), "Student number already exists");
+            } else if (existingEmails.contains(row.student.getEmail().toLowerCase(Locale.ROOT))) {
+                batchResult.addFailure(row.key(), "Email already exists");
+            } else {
+                accepted.add(row.student);
+                keys.add(row.key());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        List<Student> saved;
+        try {
+            try {
+                saved = insertBatch(connection, accepted);
+            } catch (BatchUpdateException e) {
+                // A rewritten batch cannot tell us which row failed, so retry one by one
+                connection.rollback();
+                saved = insertIndividually(connection, accepted, keys, batchResult);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        
+        batchResult.addSaved(saved.size());
+        for (Student student : saved) {
+            studentAdded(student);
+        }
+    }
+    
+    private void parseImportRow(ImportRow row, int[] columns) {
+        try {
+            Student student = new Student();
+            student.setStudentNumber(importValue(row, columns[0]));
+            student.setFirstName(importValue(row, columns[1]));
+            student.setLastName(importValue(row, columns[2]));
+            student.setEmail(importValue(row, columns[3]));
+            student.setPhone(importValue(row, columns[4]));
+            student.setDateOfBirth(importDate(row, columns[5], "date of birth"));
+            student.setEnrollmentDate(importDate(row, columns[6], "enrollment date"));
+            String status = importValue(row, columns[7]);
+            if (status != null && !STATUSES.contains(status)) {
+                throw new ValidationException("Invalid status: " + status);
+            }
+            student.setStatus(status != null ? status : "Active");
+            validateStudent(student);
+            row.student = student;
+        } catch (ValidationException e) {
+            row.error = e.getMessage();
+        }
+    }
+    
+    private static String importValue(ImportRow row, int column) {
+        if (column < 0 || column >= row.values.length) {
+            return null;
+        }
+        String value = row.values[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static java.sql.Date importDate(ImportRow row, int column, String name) throws ValidationException {
+        String value = importValue(row, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return java.sql.Date.valueOf(LocalDate.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid " + name + ": " + value + " (expected yyyy-MM-dd)");
+        }
+    }
+    
+    /**
+     * Look up which of the rows' student numbers and emails are already taken, in one query
+     */
+    private void findExistingKeys(Connection connection, List<ImportRow> rows,
+                                  Set<String> existingNumbers, Set<String> existingEmails) throws SQLException {
+        String placeholders = InList.placeholders(rows.size());
+        String query = "SELECT student_number, email FROM students " +
+                      "WHERE student_number IN (" + placeholders + ") OR email IN (" + placeholders + ")";
+        List<String> numbers = new ArrayList<>(rows.size());
+        List<String> emails = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            numbers.add(row.student.getStudentNumber());
+            emails.add(row.student.getEmail());
+        }
+        
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            InList.bindStrings(stmt, InList.bindStrings(stmt, 1, numbers), emails);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                existingNumbers.add(rs.getString(1).toLowerCase(Locale.ROOT));
+                existingEmails.add(rs.getString(2).toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+    
+    private List<Student> insertBatch(Connection connection, List<Student> students) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (Student student : students) {
+                bindStudent(stmt, student);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            
+            ResultSet keys = stmt.getGeneratedKeys();
+            for (Student student : students) {
+                if (keys.next()) {
+                    student.setStudentId(keys.getInt(1));
+                }
+            }
+            return students;
+        }
+    }
+    
+    private List<Student> insertIndividually(Connection connection, List<Student> students, List<String> keys,
+                                             BatchResult batchResult) throws SQLException {
+        List<Student> saved = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < students.size(); i++) {
+                Student student = students.get(i);
+                bindStudent(stmt, student);
+                try {
+                    stmt.executeUpdate();
+                    ResultSet generated = stmt.getGeneratedKeys();
+                    if (generated.next()) {
+                        student.setStudentId(generated.getInt(1));
+                    }
+                    saved.add(student);
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    batchResult.addFailure(keys.get(i), "Student number or email already exists");
+                } catch (SQLException e) {
+                    batchResult.addFailure(keys.get(i), e.getMessage());
+                }
+            }
+        }
+        return saved;
+    }
+    
+    private void bindStudent(PreparedStatement stmt, Student student) throws SQLException {
+        stmt.setString(1, student.getStudentNumber());
+        stmt.setString(2, student.getFirstName());
+        stmt.setString(3, student.getLastName());
+        stmt.setString(4, student.getEmail());
+        stmt.setString(5, student.getPhone());
+        stmt.setDate(6, student.getDateOfBirth() != null ? 
+                     new java.sql.Date(student.getDateOfBirth().getTime()) : null);
+        stmt.setDate(7, new java.sql.Date(student.getEnrollmentDate().getTime()));
+        stmt.setString(8, student.getStatus() != null ? student.getStatus() : "Active");
+    }
+    
+    private static void studentAdded(Student student) {
+        indexStudent(student);
+        DomainEventBus.getInstance().publish(DomainEvent.added(DomainEvent.Entity.STUDENT,
+            student.getStudentId(), student.getStatus() != null ? student.getStatus() : "Active"));
+    }
+    
+    /**
+     * One data row of an import file, with its parsed student or the reason it was rejected
+     */
+    private static class ImportRow {
+        final long line;
+        final String[] values;
+        Student student;
+        String error;
+        
+        ImportRow(long line, String[] values) {
+            this.line = line;
+            this.values = values;
+        }
+        
+        String key() {
+            return "Line " + line;
+        }
+    }
+
     public boolean updateStudent(Student student) throws DatabaseException, ValidationException {
         validateStudent(student);
         
         String query = "UPDATE students SET student_number=?, first_name=?, last_name=?, " +
                       "email=?, phone=?, date_of_birth=?, status=? WHERE student_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            String oldStatus = getStudentStatus(connection, student.getStudentId());
             stmt.setString(1, student.getStudentNumber());
             stmt.setString(2, student.getFirstName());
             stmt.setString(3, student.getLastName());
@@ -80,7 +400,14 @@ public class StudentDAO {
             stmt.setString(7, student.getStatus());
             stmt.setInt(8, student.getStudentId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            CACHE.invalidate(student.getStudentId());
+            if (updated) {
+                indexStudent(student);
+                DomainEventBus.getInstance().publish(DomainEvent.updated(DomainEvent.Entity.STUDENT,
+                    student.getStudentId(), oldStatus, student.getStatus()));
+            }
+            return updated;
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new DatabaseException("Student number or email already exists");
         } catch (SQLException e) {
@@ -91,19 +418,51 @@ public class StudentDAO {
     public boolean deleteStudent(int studentId) throws DatabaseException {
         String query = "DELETE FROM students WHERE student_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            String oldStatus = getStudentStatus(connection, studentId);
+            List<Enrollment> enrollments = EnrollmentDAO.getEnrollmentStates(connection, "student_id", studentId);
             stmt.setInt(1, studentId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            CACHE.invalidate(studentId);
+            SEARCH_INDEX.remove(studentId);
+            if (deleted) {
+                EnrollmentDAO.invalidateAllSeats();
+                EnrollmentDAO.publishCascadedDeletes(enrollments);
+                DomainEventBus.getInstance().publish(
+                    DomainEvent.deleted(DomainEvent.Entity.STUDENT, studentId, oldStatus));
+                ChangeFeed.recordDeletes(connection, "students", List.of(studentId));
+                EnrollmentDAO.recordCascadedDeletes(connection, enrollments);
+            }
+            return deleted;
         } catch (SQLException e) {
             throw new DatabaseException("Error deleting student: " + e.getMessage(), e);
         }
     }
 
+    private String getStudentStatus(Connection connection, int studentId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT status FROM students WHERE student_id=?")) {
+            stmt.setInt(1, studentId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
     public Student getStudentById(int studentId) throws DatabaseException {
-        String query = "SELECT * FROM students WHERE student_id=?";
+        return CACHE.getById(studentId, () -> findStudent("student_id", studentId));
+    }
+
+    public Student getStudentByNumber(String studentNumber) throws DatabaseException {
+        return CACHE.getByNaturalKey(studentNumber, () -> findStudent("student_number", studentNumber));
+    }
+
+    private Student findStudent(String column, Object key) throws DatabaseException {
+        String query = "SELECT * FROM students WHERE " + column + "=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, studentId);
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setObject(1, key);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
@@ -119,7 +478,8 @@ public class StudentDAO {
         List<Student> students = new ArrayList<>();
         String query = "SELECT * FROM students ORDER BY student_number";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -131,27 +491,151 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Search by student number or name through the in-memory index, best match first
+     */
     public List<Student> searchStudents(String searchTerm) throws DatabaseException {
+        buildSearchIndex();
+        return getStudentsByIds(SEARCH_INDEX.search(searchTerm, SEARCH_LIMIT));
+    }
+
+    /**
+     * Fetch one page of ranked search results, starting after the given student
+     * (null for the first page). Ranking happens in memory, so each page only
+     * reads the rows it shows.
+     */
+    public List<Student> searchStudentsPage(String searchTerm, Student after, int pageSize)
+            throws DatabaseException {
+        buildSearchIndex();
+        List<Integer> ids = SEARCH_INDEX.search(searchTerm, Integer.MAX_VALUE);
+        int from = 0;
+        if (after != null) {
+            from = ids.indexOf(after.getStudentId()) + 1;
+            if (from == 0) {
+                return new ArrayList<>();
+            }
+        }
+        return getStudentsByIds(ids.subList(from, Math.min(from + pageSize, ids.size())));
+    }
+
+    /**
+     * Whether searchStudentsPage() would return the student for the search term
+     */
+    public boolean matchesSearch(String searchTerm, Student student) {
+        return SEARCH_INDEX.matches(searchTerm, student.getStudentNumber(),
+                                    student.getFirstName(), student.getLastName());
+    }
+
+    /**
+     * Fetch one page of students ordered by student number, starting after
+     * the given student number (null for the first page). Seeking on the
+     * unique key keeps every page equally cheap, however deep the scroll.
+     */
+    public List<Student> getStudentsPage(String afterStudentNumber, int pageSize) throws DatabaseException {
         List<Student> students = new ArrayList<>();
-        String query = "SELECT * FROM students WHERE student_number LIKE ? OR " +
-                      "first_name LIKE ? OR last_name LIKE ? ORDER BY student_number";
+        String query = "SELECT * FROM students " +
+                      (afterStudentNumber != null ? "WHERE student_number > ? " : "") +
+                      "ORDER BY student_number LIMIT ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            String search = "%" + searchTerm + "%";
-            stmt.setString(1, search);
-            stmt.setString(2, search);
-            stmt.setString(3, search);
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (afterStudentNumber != null) {
+                stmt.setString(index++, afterStudentNumber);
+            }
+            stmt.setInt(index, pageSize);
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 students.add(extractStudentFromResultSet(rs));
             }
             return students;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving students: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Students added or updated since the watermark and the IDs of those
+     * deleted since. The student list is paged, so a full reload returns no
+     * rows and the caller reloads its pages. A student saved in a transaction
+     * that commits more than sams.changes.overlapMs (5 s) after its statement
+     * ran is missed until the next full reload.
+     */
+    public ChangeSet<Student> getStudentChanges(Timestamp since) throws DatabaseException {
+        try (Connection connection = database.getConnection()) {
+            ChangeSet<Student> changes = ChangeFeed.read(connection, "students", since, null,
+                "SELECT * FROM students WHERE updated_at >= ?", 1, this::extractStudentFromResultSet);
+            // Keep searches current with edits made on other workstations
+            changes.getChanged().forEach(StudentDAO::indexStudent);
+            changes.getDeletedIds().forEach(SEARCH_INDEX::remove);
+            return changes;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving student changes: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load the given students in the order of the ID list
+     */
+    private List<Student> getStudentsByIds(List<Integer> ids) throws DatabaseException {
+        List<Student> students = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return students;
+        }
+        
+        String query = "SELECT * FROM students WHERE student_id IN (" + InList.placeholders(ids.size()) + ")";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            InList.bindInts(stmt, 1, ids);
+            
+            Map<Integer, Student> byId = new HashMap<>();
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Student student = extractStudentFromResultSet(rs);
+                byId.put(student.getStudentId(), student);
+            }
+            for (Integer id : ids) {
+                Student student = byId.get(id);
+                if (student != null) {
+                    students.add(student);
+                }
+            }
+            return students;
         } catch (SQLException e) {
             throw new DatabaseException("Error searching students: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Build the search index if it has not been built yet; cheap once it has
+     */
+    public void buildSearchIndex() throws DatabaseException {
+        SEARCH_INDEX.buildIfNeeded(sink -> {
+            String query = "SELECT student_id, student_number, first_name, last_name FROM students";
+            try (Connection connection = database.getConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    sink.add(rs.getInt("student_id"), rs.getString("student_number"),
+                             rs.getString("first_name"), rs.getString("last_name"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("Error building student search index: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private static void indexStudent(Student student) {
+        SEARCH_INDEX.put(student.getStudentId(), student.getStudentNumber(),
+                         student.getFirstName(), student.getLastName());
+    }
+
+    public static EntityCache.CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+
     private Student extractStudentFromResultSet(ResultSet rs) throws SQLException {
         Student student = new Student();
         student.setStudentId(rs.getInt("student_id"));
@@ -2,6 +2,8 @@ package dao;
 
 import model.User;
 import util.DatabaseConnection;
+import util.EntityCache;
+import util.SearchIndex;
 import exception.DatabaseException;
 import exception.ValidationException;
 
@@ -9,14 +11,21 @@ import java.sql.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class UserDAO {
     
-    private Connection connection;
+    private static final EntityCache<User> CACHE =
+        new EntityCache<>("users", User::getUserId, User::getUsername, User::new);
+    private static final SearchIndex SEARCH_INDEX = new SearchIndex("users");
+    private static final int SEARCH_LIMIT = 1000;
+    
+    private final DatabaseConnection database;
     
     public UserDAO() throws SQLException {
-        this.connection = DatabaseConnection.getInstance().getConnection();
+        this.database = DatabaseConnection.getInstance();
     }
 
     private String hashPassword(String password) throws DatabaseException {
@@ -67,7 +76,8 @@ public class UserDAO {
     public User authenticate(String username, String password) throws DatabaseException {
         String query = "SELECT * FROM users WHERE username=? AND status='Active'";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
@@ -76,7 +86,7 @@ public class UserDAO {
                 String inputHash = hashPassword(password);
                 
                 if (storedHash.equals(inputHash)) {
-                    updateLastLogin(rs.getInt("user_id"));
+                    updateLastLogin(connection, rs.getInt("user_id"));
                     
                     User user = extractUserFromResultSet(rs);
                     user.setPassword(null); 
@@ -89,12 +99,13 @@ public class UserDAO {
         }
     }
 
-    private void updateLastLogin(int userId) throws SQLException {
+    private void updateLastLogin(Connection connection, int userId) throws SQLException {
         String query = "UPDATE users SET last_login=NOW() WHERE user_id=?";
         try (PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             stmt.executeUpdate();
         }
+        CACHE.invalidate(userId);
     }
 
     public boolean addUser(User user) throws DatabaseException, ValidationException {
@@ -103,7 +114,8 @@ public class UserDAO {
         String query = "INSERT INTO users (username, password, full_name, email, role, status) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, hashPassword(user.getPassword()));
             stmt.setString(3, user.getFullName());
@@ -111,7 +123,13 @@ public class UserDAO {
             stmt.setString(5, user.getRole());
             stmt.setString(6, user.getStatus() != null ? user.getStatus() : "Active");
             
-            return stmt.executeUpdate() > 0;
+            boolean added = stmt.executeUpdate() > 0;
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (added && keys.next()) {
+                user.setUserId(keys.getInt(1));
+                SEARCH_INDEX.put(user.getUserId(), user.getUsername(), user.getFullName());
+            }
+            return added;
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new DatabaseException("Username or email already exists");
         } catch (SQLException e) {
@@ -132,14 +150,24 @@ public class UserDAO {
         
         String query = "UPDATE users SET full_name=?, email=?, role=?, status=? WHERE user_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, user.getFullName());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getRole());
             stmt.setString(4, user.getStatus());
             stmt.setInt(5, user.getUserId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            CACHE.invalidate(user.getUserId());
+            if (updated) {
+                // username is not updatable here, so index the stored one rather than the caller's
+                User stored = getUserById(user.getUserId());
+                if (stored != null) {
+                    SEARCH_INDEX.put(stored.getUserId(), stored.getUsername(), stored.getFullName());
+                }
+            }
+            return updated;
         } catch (SQLIntegrityConstraintViolationException e) {
             throw new DatabaseException("Email already exists");
         } catch (SQLException e) {
@@ -155,7 +183,8 @@ public class UserDAO {
         }
 
         String query = "SELECT password FROM users WHERE user_id=?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
@@ -174,10 +203,13 @@ public class UserDAO {
         }
 
         String updateQuery = "UPDATE users SET password=? WHERE user_id=?";
-        try (PreparedStatement stmt = connection.prepareStatement(updateQuery)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(updateQuery)) {
             stmt.setString(1, hashPassword(newPassword));
             stmt.setInt(2, userId);
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            CACHE.invalidate(userId);
+            return updated;
         } catch (SQLException e) {
             throw new DatabaseException("Error updating password: " + e.getMessage(), e);
         }
@@ -191,10 +223,13 @@ public class UserDAO {
         }
         
         String query = "UPDATE users SET password=? WHERE user_id=?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, hashPassword(newPassword));
             stmt.setInt(2, userId);
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            CACHE.invalidate(userId);
+            return updated;
         } catch (SQLException e) {
             throw new DatabaseException("Error resetting password: " + e.getMessage(), e);
         }
@@ -203,18 +238,27 @@ public class UserDAO {
     public boolean deleteUser(int userId) throws DatabaseException {
         String query = "DELETE FROM users WHERE user_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            CACHE.invalidate(userId);
+            SEARCH_INDEX.remove(userId);
+            return deleted;
         } catch (SQLException e) {
             throw new DatabaseException("Error deleting user: " + e.getMessage(), e);
         }
     }
 
     public User getUserById(int userId) throws DatabaseException {
+        return CACHE.getById(userId, () -> findUserById(userId));
+    }
+
+    private User findUserById(int userId) throws DatabaseException {
         String query = "SELECT * FROM users WHERE user_id=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
             
@@ -230,9 +274,14 @@ public class UserDAO {
     }
 
     public User getUserByUsername(String username) throws DatabaseException {
+        return CACHE.getByNaturalKey(username, () -> findUserByUsername(username));
+    }
+
+    private User findUserByUsername(String username) throws DatabaseException {
         String query = "SELECT * FROM users WHERE username=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             
@@ -251,7 +300,8 @@ public class UserDAO {
         List<User> users = new ArrayList<>();
         String query = "SELECT * FROM users ORDER BY username";
         
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = database.getConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
@@ -265,32 +315,121 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Search by username or full name through the in-memory index, best match first
+     */
     public List<User> searchUsers(String searchTerm) throws DatabaseException {
+        buildSearchIndex();
+        return getUsersByIds(SEARCH_INDEX.search(searchTerm, SEARCH_LIMIT));
+    }
+
+    /**
+     * Fetch one page of ranked search results, starting after the given user (null for the first page)
+     */
+    public List<User> searchUsersPage(String searchTerm, User after, int pageSize) throws DatabaseException {
+        buildSearchIndex();
+        List<Integer> ids = SEARCH_INDEX.search(searchTerm, Integer.MAX_VALUE);
+        int from = 0;
+        if (after != null) {
+            from = ids.indexOf(after.getUserId()) + 1;
+            if (from == 0) {
+                return new ArrayList<>();
+            }
+        }
+        return getUsersByIds(ids.subList(from, Math.min(from + pageSize, ids.size())));
+    }
+
+    /**
+     * Fetch one page of users ordered by username, starting after the given
+     * username (null for the first page)
+     */
+    public List<User> getUsersPage(String afterUsername, int pageSize) throws DatabaseException {
         List<User> users = new ArrayList<>();
-        String query = "SELECT * FROM users WHERE username LIKE ? OR full_name LIKE ? " +
-                      "ORDER BY username";
+        String query = "SELECT * FROM users " +
+                      (afterUsername != null ? "WHERE username > ? " : "") +
+                      "ORDER BY username LIMIT ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            String search = "%" + searchTerm + "%";
-            stmt.setString(1, search);
-            stmt.setString(2, search);
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            if (afterUsername != null) {
+                stmt.setString(index++, afterUsername);
+            }
+            stmt.setInt(index, pageSize);
             
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 User user = extractUserFromResultSet(rs);
-                user.setPassword(null); 
+                user.setPassword(null);
                 users.add(user);
             }
             return users;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error retrieving users: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load the given users in the order of the ID list
+     */
+    private List<User> getUsersByIds(List<Integer> ids) throws DatabaseException {
+        List<User> users = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return users;
+        }
+        
+        String query = "SELECT * FROM users WHERE user_id IN (" + InList.placeholders(ids.size()) + ")";
+        
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            InList.bindInts(stmt, 1, ids);
+            
+            Map<Integer, User> byId = new HashMap<>();
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                User user = extractUserFromResultSet(rs);
+                user.setPassword(null);
+                byId.put(user.getUserId(), user);
+            }
+            for (Integer id : ids) {
+                User user = byId.get(id);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+            return users;
         } catch (SQLException e) {
             throw new DatabaseException("Error searching users: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Build the search index if it has not been built yet; cheap once it has
+     */
+    public void buildSearchIndex() throws DatabaseException {
+        SEARCH_INDEX.buildIfNeeded(sink -> {
+            String query = "SELECT user_id, username, full_name FROM users";
+            try (Connection connection = database.getConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(query)) {
+                while (rs.next()) {
+                    sink.add(rs.getInt("user_id"), rs.getString("username"), rs.getString("full_name"));
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException("Error building user search index: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    public static EntityCache.CacheStats getCacheStats() {
+        return CACHE.getStats();
+    }
+
     public boolean usernameExists(String username) throws DatabaseException {
         String query = "SELECT COUNT(*) FROM users WHERE username=?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
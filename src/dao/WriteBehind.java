@@ -0,0 +1,423 @@
+package dao;
+
+import util.DatabaseConnection;
+import util.WriteJournal;
+import exception.DatabaseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind for attendance and assessment saves. A save is appended to a
+ * local WriteJournal and returns as soon as the journal has it on disk, so
+ * its latency is bounded by the local disk rather than the database, and a
+ * database outage mid-save loses nothing. A flusher thread drains the journal
+ * into MySQL, up to sams.journal.batchRecords (100) records per transaction,
+ * retrying with backoff while the database is unreachable.
+ *
+ * Every flush stores the sequence of its last record in journal_checkpoints
+ * in the same transaction as the rows, so after a crash the journal is
+ * replayed from exactly where the database left off and no save is applied
+ * twice. A record the database rejects outright is skipped rather than
+ * holding up the ones behind it; it goes to rejected_saves, in the same
+ * transaction as the checkpoint that skips it, together with any single rows
+ * a replayed save had to leave out, such as students no longer enrolled. The
+ * outcome of each save is handed to whoever registered with whenFlushed, so
+ * the screen that made the save can report what was left out.
+ *
+ * The journal lives in sams.journal.dir (~/.sams/journal). When it is
+ * disabled with sams.journal.enabled=false or cannot be opened, the DAOs
+ * write straight to the database as before.
+ */
+public class WriteBehind {
+
+    static final byte ATTENDANCE = 1;
+    static final byte ASSESSMENTS = 2;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sams.journal.enabled", "true"));
+    private static final Path DIRECTORY = Path.of(System.getProperty("sams.journal.dir",
+        Path.of(System.getProperty("user.home"), ".sams", "journal").toString()));
+    private static final int SEGMENT_BYTES = Integer.getInteger("sams.journal.segmentMb", 16) * 1024 * 1024;
+    private static final int BATCH_RECORDS = Integer.getInteger("sams.journal.batchRecords", 100);
+    private static final long IDLE_WAIT_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final int KEPT_OUTCOMES = 256;
+
+    private static WriteBehind instance;
+    private static boolean unavailable;
+
+    private final WriteJournal journal;
+    // Guards appliedSequence, waiters and outcomes, and wakes the flusher
+    private final Object signal = new Object();
+    private final List<Waiter> waiters = new ArrayList<>();
+    // Outcomes of recent saves not yet asked for, in case the flush beats whenFlushed
+    private final Map<Long, BatchResult> outcomes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BatchResult> eldest) {
+            return size() > KEPT_OUTCOMES;
+        }
+    };
+    // -1 until read from journal_checkpoints
+    private long appliedSequence = -1;
+
+    /**
+     * Serializes a save into a journal record
+     */
+    interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private WriteBehind(WriteJournal journal) {
+        this.journal = journal;
+        Thread flusher = new Thread(this::flushLoop, "sams-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * The write-behind queue, started on first use so anything left in the
+     * journal by the last run is replayed. Null when the journal is disabled
+     * or cannot be opened.
+     */
+    public static synchronized WriteBehind getInstance() {
+        if (instance == null && !unavailable) {
+            if (!ENABLED) {
+                unavailable = true;
+                return null;
+            }
+            try {
+                WriteJournal journal = WriteJournal.open(DIRECTORY, SEGMENT_BYTES);
+                for (String problem : journal.getRecoveryProblems()) {
+                    System.err.println(problem);
+                }
+                instance = new WriteBehind(journal);
+            } catch (IOException e) {
+                unavailable = true;
+                System.err.println("Save journal unavailable, saving directly to the database: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Journal a save and wait until it is on disk
+     *
+     * @return the save's sequence, for whenFlushed
+     */
+    long append(byte type, PayloadWriter writer) throws DatabaseException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new DatabaseException("Error encoding save: " + e.getMessage(), e);
+        }
+        long sequence;
+        try {
+            sequence = journal.append(type, bytes.toByteArray());
+        } catch (IOException e) {
+            throw new DatabaseException("Error writing save journal: " + e.getMessage(), e);
+        }
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        return sequence;
+    }
+
+    /**
+     * Hand the outcome of a save to the action once it is in the database:
+     * the rows written and those rejected, with the reason. Runs on the
+     * flusher thread, or straight away if the save is already written.
+     */
+    void whenFlushed(long sequence, Consumer<BatchResult> action) {
+        BatchResult outcome;
+        synchronized (signal) {
+            if (appliedSequence < sequence) {
+                waiters.add(new Waiter(sequence, action));
+                return;
+            }
+            outcome = takeOutcome(sequence);
+        }
+        action.accept(outcome);
+    }
+
+    /**
+     * Saves accepted but not yet written to the database
+     */
+    public int getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    private void flushLoop() {
+        long backoff = 0;
+        // After a batch the database rejected, records go one at a time up to here to find the bad one
+        long singleUntil = 0;
+        while (true) {
+            List<WriteJournal.Record> batch = null;
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                }
+                long applied = getAppliedSequence();
+                batch = journal.pendingAfter(applied, applied < singleUntil ? 1 : BATCH_RECORDS);
+                if (batch.isEmpty()) {
+                    synchronized (signal) {
+                        signal.wait(IDLE_WAIT_MILLIS);
+                    }
+                    continue;
+                }
+                flush(batch);
+                backoff = 0;
+            } catch (InterruptedException e) {
+                return;
+            } catch (RecordFailure e) {
+                if (isTransient(e.getCause())) {
+                    backoff = nextBackoff(backoff, e.getCause());
+                } else if (batch.size() > 1) {
+                    singleUntil = batch.get(batch.size() - 1).getSequence();
+                } else {
+                    try {
+                        skip(batch.get(0), e.getCause());
+                    } catch (SQLException | RuntimeException f) {
+                        // Not skipped until it is on record; try the record again later
+                        backoff = nextBackoff(backoff, f);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Reaching the database, or committing, failed: no record is to blame
+                backoff = nextBackoff(backoff, e);
+            }
+        }
+    }
+
+    private static long nextBackoff(long backoff, Exception cause) {
+        long next = Math.min(Math.max(500, backoff * 2), MAX_BACKOFF_MILLIS);
+        System.err.println("Save journal flush failed, retrying in " + next + " ms: " + cause);
+        return next;
+    }
+
+    private long getAppliedSequence() throws SQLException {
+        synchronized (signal) {
+            if (appliedSequence >= 0) {
+                return appliedSequence;
+            }
+        }
+        long applied = 0;
+        try (Connection connection = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT applied_sequence FROM journal_checkpoints WHERE journal_id=?")) {
+            stmt.setString(1, journal.getId());
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                applied = rs.getLong(1);
+            }
+        }
+        applied(applied, Collections.emptyMap());
+        return applied;
+    }
+
+    /**
+     * Apply a batch of records, record the rows they left out and advance the
+     * checkpoint in one transaction
+     */
+    private void flush(List<WriteJournal.Record> batch) throws SQLException, RecordFailure {
+        long last = batch.get(batch.size() - 1).getSequence();
+        List<Runnable> afterCommit = new ArrayList<>();
+        Map<Long, BatchResult> flushed = new HashMap<>();
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try {
+                    for (WriteJournal.Record record : batch) {
+                        BatchResult outcome = new BatchResult();
+                        apply(connection, record, outcome, afterCommit);
+                        flushed.put(record.getSequence(), outcome);
+                    }
+                } catch (SQLException | IOException | RuntimeException e) {
+                    throw new RecordFailure(e);
+                }
+                for (WriteJournal.Record record : batch) {
+                    Map<String, String> failures = flushed.get(record.getSequence()).getFailures();
+                    for (Map.Entry<String, String> failure : failures.entrySet()) {
+                        reject(connection, record, failure.getKey(), failure.getValue(), null);
+                    }
+                }
+                saveCheckpoint(connection, last);
+                connection.commit();
+            } catch (SQLException | RecordFailure | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        runAll(afterCommit);
+        applied(last, flushed);
+    }
+
+    private void apply(Connection connection, WriteJournal.Record record, BatchResult outcome,
+                       List<Runnable> afterCommit) throws SQLException, IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.getPayload()));
+        switch (record.getType()) {
+            case ATTENDANCE -> AttendanceDAO.replay(connection, in, outcome, afterCommit);
+            case ASSESSMENTS -> AssessmentDAO.replay(connection, in, outcome, afterCommit);
+            default -> throw new IOException("Unknown journal record type " + record.getType());
+        }
+    }
+
+    /**
+     * Move a record the database will not take to rejected_saves, payload and
+     * all, and advance the checkpoint past it in the same transaction
+     */
+    private void skip(WriteJournal.Record record, Exception cause) throws SQLException {
+        System.err.println("Save " + record.getSequence() + " rejected by the database, moved to rejected_saves: " +
+                           cause.getMessage());
+        try (Connection connection = DatabaseConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                reject(connection, record, null, String.valueOf(cause.getMessage()), record.getPayload());
+                saveCheckpoint(connection, record.getSequence());
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        BatchResult outcome = new BatchResult();
+        outcome.addFailure("Whole save", String.valueOf(cause.getMessage()));
+        applied(record.getSequence(), Map.of(record.getSequence(), outcome));
+    }
+
+    private void reject(Connection connection, WriteJournal.Record record, String studentNumber, String reason,
+                        byte[] payload) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO rejected_saves (journal_id, sequence, save_type, student_number, reason, payload) " +
+                "VALUES (?, ?, ?, ?, ?, ?)")) {
+            stmt.setString(1, journal.getId());
+            stmt.setLong(2, record.getSequence());
+            stmt.setString(3, record.getType() == ATTENDANCE ? "Attendance" : "Assessments");
+            stmt.setString(4, studentNumber);
+            stmt.setString(5, reason.length() > 500 ? reason.substring(0, 500) : reason);
+            stmt.setBytes(6, payload);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void saveCheckpoint(Connection connection, long sequence) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO journal_checkpoints (journal_id, applied_sequence) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE applied_sequence=VALUES(applied_sequence)")) {
+            stmt.setString(1, journal.getId());
+            stmt.setLong(2, sequence);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Record progress, let the journal drop what is applied and hand the
+     * waiters it satisfies their outcome
+     */
+    private void applied(long sequence, Map<Long, BatchResult> flushed) {
+        try {
+            journal.release(sequence);
+        } catch (IOException e) {
+            System.err.println("Could not release save journal: " + e.getMessage());
+        }
+
+        List<Runnable> ready = new ArrayList<>();
+        synchronized (signal) {
+            outcomes.putAll(flushed);
+            appliedSequence = sequence;
+            Iterator<Waiter> iterator = waiters.iterator();
+            while (iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (waiter.target <= sequence) {
+                    BatchResult outcome = takeOutcome(waiter.target);
+                    ready.add(() -> waiter.action.accept(outcome));
+                    iterator.remove();
+                }
+            }
+        }
+        runAll(ready);
+    }
+
+    /**
+     * Caller holds signal. A save flushed by an earlier run left no outcome;
+     * all that is known is that nothing of it is still waiting.
+     */
+    private BatchResult takeOutcome(long sequence) {
+        BatchResult outcome = outcomes.remove(sequence);
+        return outcome != null ? outcome : new BatchResult();
+    }
+
+    private static void runAll(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Save journal callback failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Connection failures, timeouts and deadlocks pass and are retried.
+     * Anything else, including MySQL's catch-all HY000 for bad data, is the
+     * record's fault and retrying it would only hold up the records behind it.
+     */
+    private static boolean isTransient(Exception e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        if (!(e instanceof SQLException)) {
+            return false;
+        }
+        String state = ((SQLException) e).getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("40"));
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Applying a record failed, as opposed to reaching the database
+     */
+    private static class RecordFailure extends Exception {
+        RecordFailure(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+
+    private static class Waiter {
+        final long target;
+        final Consumer<BatchResult> action;
+
+        Waiter(long target, Consumer<BatchResult> action) {
+            this.target = target;
+            this.action = action;
+        }
+    }
+}
\ No newline at end of file
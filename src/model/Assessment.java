@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Date;
+
+public class Assessment {
+    
+    private int assessmentId;
+    private int enrollmentId;
+    private String assessmentType;
+    private Double marksObtained;
+    private double totalMarks;
+    private Date assessmentDate;
+    private String remarks;
+
+    private String studentNumber;
+
+    public Assessment() {
+    }
+    
+    public Assessment(String studentNumber, Double marksObtained) {
+        this.studentNumber = studentNumber;
+        this.marksObtained = marksObtained;
+    }
+
+    public int getAssessmentId() {
+        return assessmentId;
+    }
+    
+    public void setAssessmentId(int assessmentId) {
+        this.assessmentId = assessmentId;
+    }
+    
+    public int getEnrollmentId() {
+        return enrollmentId;
+    }
+    
+    public void setEnrollmentId(int enrollmentId) {
+        this.enrollmentId = enrollmentId;
+    }
+    
+    public String getAssessmentType() {
+        return assessmentType;
+    }
+    
+    public void setAssessmentType(String assessmentType) {
+        this.assessmentType = assessmentType;
+    }
+    
+    public Double getMarksObtained() {
+        return marksObtained;
+    }
+    
+    public void setMarksObtained(Double marksObtained) {
+        this.marksObtained = marksObtained;
+    }
+    
+    public double getTotalMarks() {
+        return totalMarks;
+    }
+    
+    public void setTotalMarks(double totalMarks) {
+        this.totalMarks = totalMarks;
+    }
+    
+    public Date getAssessmentDate() {
+        return assessmentDate;
+    }
+    
+    public void setAssessmentDate(Date assessmentDate) {
+        this.assessmentDate = assessmentDate;
+    }
+    
+    public String getRemarks() {
+        return remarks;
+    }
+    
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+    
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+    
+    public void setStudentNumber(String studentNumber) {
+        this.studentNumber = studentNumber;
+    }
+}
\ No newline at end of file
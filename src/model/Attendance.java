@@ -0,0 +1,71 @@
+package model;
+
+import java.util.Date;
+
+public class Attendance {
+    
+    private int attendanceId;
+    private int enrollmentId;
+    private Date attendanceDate;
+    private String status;
+    private String remarks;
+
+    private String studentNumber;
+
+    public Attendance() {
+    }
+    
+    public Attendance(String studentNumber, String status, String remarks) {
+        this.studentNumber = studentNumber;
+        this.status = status;
+        this.remarks = remarks;
+    }
+
+    public int getAttendanceId() {
+        return attendanceId;
+    }
+    
+    public void setAttendanceId(int attendanceId) {
+        this.attendanceId = attendanceId;
+    }
+    
+    public int getEnrollmentId() {
+        return enrollmentId;
+    }
+    
+    public void setEnrollmentId(int enrollmentId) {
+        this.enrollmentId = enrollmentId;
+    }
+    
+    public Date getAttendanceDate() {
+        return attendanceDate;
+    }
+    
+    public void setAttendanceDate(Date attendanceDate) {
+        this.attendanceDate = attendanceDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getRemarks() {
+        return remarks;
+    }
+    
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+    
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+    
+    public void setStudentNumber(String studentNumber) {
+        this.studentNumber = studentNumber;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package model;
+
+/**
+ * Attendance figures of one enrollment. Late counts as attended.
+ */
+public class AttendanceSummary {
+
+    private final int enrollmentId;
+    private final int studentId;
+    private final int courseId;
+    private final int present;
+    private final int late;
+    private final int absent;
+    private final int currentAbsenceStreak;
+    private final int longestAbsenceStreak;
+
+    public AttendanceSummary(int enrollmentId, int studentId, int courseId, int present, int late, int absent,
+                             int currentAbsenceStreak, int longestAbsenceStreak) {
+        this.enrollmentId = enrollmentId;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.present = present;
+        this.late = late;
+        this.absent = absent;
+        this.currentAbsenceStreak = currentAbsenceStreak;
+        this.longestAbsenceStreak = longestAbsenceStreak;
+    }
+
+    public int getEnrollmentId() {
+        return enrollmentId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public int getSessions() {
+        return present + late + absent;
+    }
+
+    public int getPresent() {
+        return present;
+    }
+
+    public int getLate() {
+        return late;
+    }
+
+    public int getAbsent() {
+        return absent;
+    }
+
+    /**
+     * Absences in a row up to and including the latest session
+     */
+    public int getCurrentAbsenceStreak() {
+        return currentAbsenceStreak;
+    }
+
+    public int getLongestAbsenceStreak() {
+        return longestAbsenceStreak;
+    }
+
+    /**
+     * Percentage of sessions attended, 0 when there were none
+     */
+    public double getAttendanceRate() {
+        int sessions = getSessions();
+        return sessions > 0 ? (present + late) * 100.0 / sessions : 0;
+    }
+}
\ No newline at end of file
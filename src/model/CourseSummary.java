@@ -0,0 +1,104 @@
+package model;
+
+/**
+ * One row of the course enrollment summary. Immutable, so rows can be shared
+ * between threads; the enrollment percentage and status are worked out once,
+ * when the row is created.
+ */
+public class CourseSummary {
+
+    public static final String STATUS_FULL = "FULL - Add Section";
+    public static final String STATUS_HIGH = "High Enrollment";
+    public static final String STATUS_MEDIUM = "Medium Enrollment";
+    public static final String STATUS_LOW = "Low - Monitor";
+    public static final String STATUS_CRITICAL = "Critical - Review";
+
+    private final int courseId;
+    private final String courseCode;
+    private final String courseName;
+    private final int credits;
+    private final int lecturerId;
+    private final String lecturerName;
+    private final String department;
+    private final int totalStudents;
+    private final int capacity;
+    private final double enrollmentPercentage;
+    private final String status;
+
+    public CourseSummary(int courseId, String courseCode, String courseName, int credits,
+                         int lecturerId, String lecturerName, String department,
+                         int totalStudents, int capacity) {
+        this.courseId = courseId;
+        this.courseCode = courseCode;
+        this.courseName = courseName;
+        this.credits = credits;
+        this.lecturerId = lecturerId;
+        this.lecturerName = lecturerName;
+        this.department = department;
+        this.totalStudents = totalStudents;
+        this.capacity = capacity;
+        this.enrollmentPercentage = capacity > 0 ? totalStudents * 100.0 / capacity : 0;
+        this.status = classify(getAvailableSeats(), enrollmentPercentage);
+    }
+
+    private static String classify(int availableSeats, double enrollmentPercentage) {
+        if (availableSeats <= 0) {
+            return STATUS_FULL;
+        } else if (enrollmentPercentage >= 70) {
+            return STATUS_HIGH;
+        } else if (enrollmentPercentage >= 50) {
+            return STATUS_MEDIUM;
+        } else if (enrollmentPercentage >= 30) {
+            return STATUS_LOW;
+        }
+        return STATUS_CRITICAL;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public int getCredits() {
+        return credits;
+    }
+
+    public int getLecturerId() {
+        return lecturerId;
+    }
+
+    public String getLecturerName() {
+        return lecturerName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public int getTotalStudents() {
+        return totalStudents;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAvailableSeats() {
+        return capacity - totalStudents;
+    }
+
+    public double getEnrollmentPercentage() {
+        return enrollmentPercentage;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
\ No newline at end of file
@@ -12,6 +12,7 @@ public class Enrollment {
     private String grade;
 
     private String studentName;
+    private String studentNumber;
     private String courseName;
     private String courseCode;
 
@@ -81,6 +82,14 @@ public class Enrollment {
         this.studentName = studentName;
     }
     
+    public String getStudentNumber() {
+        return studentNumber;
+    }
+    
+    public void setStudentNumber(String studentNumber) {
+        this.studentNumber = studentNumber;
+    }
+    
     public String getCourseName() {
         return courseName;
     }
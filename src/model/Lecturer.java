@@ -0,0 +1,100 @@
+package model;
+
+public class Lecturer {
+    
+    private int lecturerId;
+    private String lecturerNumber;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phone;
+    private String department;
+    private String qualification;
+
+    public Lecturer() {
+    }
+    
+    public Lecturer(String lecturerNumber, String firstName, String lastName, String email,
+                    String phone, String department, String qualification) {
+        this.lecturerNumber = lecturerNumber;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.department = department;
+        this.qualification = qualification;
+    }
+
+    public int getLecturerId() {
+        return lecturerId;
+    }
+    
+    public void setLecturerId(int lecturerId) {
+        this.lecturerId = lecturerId;
+    }
+    
+    public String getLecturerNumber() {
+        return lecturerNumber;
+    }
+    
+    public void setLecturerNumber(String lecturerNumber) {
+        this.lecturerNumber = lecturerNumber;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPhone() {
+        return phone;
+    }
+    
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+    
+    public String getDepartment() {
+        return department;
+    }
+    
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+    
+    public String getQualification() {
+        return qualification;
+    }
+    
+    public void setQualification(String qualification) {
+        this.qualification = qualification;
+    }
+    
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+    
+    @Override
+    public String toString() {
+        return getFullName();
+    }
+}
\ No newline at end of file
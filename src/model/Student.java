@@ -28,6 +28,21 @@ public class Student {
         this.enrollmentDate = enrollmentDate;
         this.status = "Active";
     }
+    
+    /**
+     * Copy of another student; the dates are copied too, since Date is mutable
+     */
+    public Student(Student other) {
+        this.studentId = other.studentId;
+        this.studentNumber = other.studentNumber;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phone = other.phone;
+        this.dateOfBirth = other.dateOfBirth != null ? (Date) other.dateOfBirth.clone() : null;
+        this.enrollmentDate = other.enrollmentDate != null ? (Date) other.enrollmentDate.clone() : null;
+        this.status = other.status;
+    }
 
     public int getStudentId() {
         return studentId;
@@ -25,6 +25,21 @@ public class User {
         this.role = role;
         this.status = "Active";
     }
+    
+    /**
+     * Copy of another user without the password, which a copy handed out
+     * from a cache must never carry
+     */
+    public User(User other) {
+        this.userId = other.userId;
+        this.username = other.username;
+        this.fullName = other.fullName;
+        this.email = other.email;
+        this.role = other.role;
+        this.status = other.status;
+        this.createdAt = other.createdAt != null ? (Date) other.createdAt.clone() : null;
+        this.lastLogin = other.lastLogin != null ? (Date) other.lastLogin.clone() : null;
+    }
 
     public int getUserId() {
         return userId;
@@ -1,33 +1,43 @@
 package ui;
 
-import util.DatabaseConnection;
+import dao.AssessmentDAO;
+import dao.BatchResult;
+import dao.EnrollmentDAO;
+import dao.GradeDAO;
+import dao.ReferenceData;
+import model.Assessment;
+import model.Course;
+import model.Enrollment;
+import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
-public class AssessmentResultsUI extends JFrame {
+public class AssessmentResultsUI extends JFrame implements ReusableScreen {
     
     private JComboBox<CourseItem> cmbCourse;
     private JComboBox<String> cmbAssessmentType;
     private JTextField txtTotalMarks;
     private JTable assessmentTable;
     private DefaultTableModel tableModel;
-    private JButton btnSave, btnClear, btnRefresh, btnCalculateGrades;
+    private JButton btnSave, btnClear, btnRefresh, btnCalculateGrades, btnFinalGrades;
     
-    private Connection connection;
+    private AssessmentDAO assessmentDAO;
+    private EnrollmentDAO enrollmentDAO;
+    private GradeDAO gradeDAO;
     
-    public AssessmentResultsUI() {
-        try {
-            connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot studentSlot = new DataAccessExecutor.TaskSlot();
+    
+    public AssessmentResultsUI() throws SQLException {
+        assessmentDAO = new AssessmentDAO();
+        enrollmentDAO = new EnrollmentDAO();
+        gradeDAO = new GradeDAO();
         
         setTitle("Assessment Results");
         setSize(1100, 700);
@@ -81,16 +91,19 @@ public class AssessmentResultsUI extends JFrame {
         
         btnSave = createButton("💾 Save Results", new Color(46, 204, 113));
         btnCalculateGrades = createButton("🎓 Calculate Grades", new Color(52, 152, 219));
+        btnFinalGrades = createButton("📊 Final Grades", new Color(155, 89, 182));
         btnClear = createButton("🔄 Clear", new Color(149, 165, 166));
         btnRefresh = createButton("🔄 Refresh", new Color(26, 188, 156));
         
         btnSave.addActionListener(e -> saveAssessments());
         btnCalculateGrades.addActionListener(e -> calculateGrades());
+        btnFinalGrades.addActionListener(e -> recomputeFinalGrades());
         btnClear.addActionListener(e -> clearTable());
         btnRefresh.addActionListener(e -> loadStudentsForCourse());
         
         buttonPanel.add(btnSave);
         buttonPanel.add(btnCalculateGrades);
+        buttonPanel.add(btnFinalGrades);
         buttonPanel.add(btnClear);
         buttonPanel.add(btnRefresh);
 
@@ -164,59 +177,57 @@ public class AssessmentResultsUI extends JFrame {
         return button;
     }
     
+    /**
+     * Reloading the courses reselects one and so reloads its students as well
+     */
+    @Override
+    public void refresh() {
+        loadCourses();
+    }
+    
     private void loadCourses() {
-        try {
+        ReferenceLists.load(this, ReferenceData::getCourses, courses -> {
+            CourseItem selected = (CourseItem) cmbCourse.getSelectedItem();
             cmbCourse.removeAllItems();
-            String query = "SELECT course_id, course_code, course_name FROM courses ORDER BY course_code";
-            
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
             
-            while (rs.next()) {
-                cmbCourse.addItem(new CourseItem(
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name")
-                ));
+            for (Course course : courses) {
+                CourseItem item = new CourseItem(
+                    course.getCourseId(),
+                    course.getCourseCode(),
+                    course.getCourseName()
+                );
+                cmbCourse.addItem(item);
+                if (selected != null && item.id == selected.id) {
+                    cmbCourse.setSelectedItem(item);
+                }
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading courses: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading courses: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void loadStudentsForCourse() {
         CourseItem course = (CourseItem) cmbCourse.getSelectedItem();
         if (course == null) return;
         
-        try {
+        tableModel.setRowCount(0);
+        
+        studentSlot.submit(this, progress -> enrollmentDAO.getEnrollmentsByCourse(course.id), enrollments -> {
             tableModel.setRowCount(0);
-            String query = "SELECT s.student_number, CONCAT(s.first_name, ' ', s.last_name) as name " +
-                          "FROM students s " +
-                          "JOIN enrollments e ON s.student_id = e.student_id " +
-                          "WHERE e.course_id = ? AND e.status = 'Enrolled' " +
-                          "ORDER BY s.student_number";
             
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, course.id);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
+            for (Enrollment enrollment : enrollments) {
                 Object[] row = {
-                    rs.getString("student_number"),
-                    rs.getString("name"),
+                    enrollment.getStudentNumber(),
+                    enrollment.getStudentName(),
                     "",
                     "",
                     ""
                 };
                 tableModel.addRow(row);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading students: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading students: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void calculateGrades() {
@@ -228,7 +239,7 @@ public class AssessmentResultsUI extends JFrame {
                 if (marksStr != null && !marksStr.trim().isEmpty()) {
                     double marks = Double.parseDouble(marksStr);
                     double percentage = (marks / totalMarks) * 100;
-                    String grade = getGrade(percentage);
+                    String grade = GradeDAO.letterGrade(percentage);
                     
                     tableModel.setValueAt(String.format("%.2f%%", percentage), i, 3);
                     tableModel.setValueAt(grade, i, 4);
@@ -241,12 +252,32 @@ public class AssessmentResultsUI extends JFrame {
         }
     }
     
-    private String getGrade(double percentage) {
-        if (percentage >= 80) return "A";
-        else if (percentage >= 70) return "B";
-        else if (percentage >= 60) return "C";
-        else if (percentage >= 50) return "D";
-        else return "F";
+    /**
+     * Regrade every enrollment from all of its assessments and report how many
+     * final grades changed. Saving results already regrades the students saved,
+     * so this is only needed after weights change or data was edited elsewhere.
+     */
+    private void recomputeFinalGrades() {
+        ProgressDialog progressDialog = new ProgressDialog(this, "Final Grades", "Computing final grades...");
+        progressDialog.track(DataAccessExecutor.getInstance().submit(this,
+            progress -> gradeDAO.recomputeAll(progress),
+            result -> {
+                progressDialog.dispose();
+                double averageGpa = result.getGpaByStudent().values().stream()
+                    .mapToDouble(Double::doubleValue).average().orElse(0);
+                JOptionPane.showMessageDialog(this, 
+                    String.format("Graded %,d enrollments, %,d grades changed in %.1f s.%n" +
+                        "Average GPA across %,d students: %.2f",
+                        result.getGradedCount(), result.getChangedCount(), result.getElapsedMillis() / 1000.0,
+                        result.getGpaByStudent().size(), averageGpa),
+                    "Final Grades", JOptionPane.INFORMATION_MESSAGE);
+            },
+            e -> {
+                progressDialog.dispose();
+                JOptionPane.showMessageDialog(this, e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            },
+            (done, total) -> progressDialog.setText(String.format("%,d of %,d grades written", done, total))));
     }
     
     private void saveAssessments() {
@@ -258,57 +289,66 @@ public class AssessmentResultsUI extends JFrame {
             return;
         }
         
+        if (assessmentTable.isEditing()) {
+            assessmentTable.getCellEditor().stopCellEditing();
+        }
+        
+        String assessmentType = (String) cmbAssessmentType.getSelectedItem();
+        double totalMarks;
         try {
-            String assessmentType = (String) cmbAssessmentType.getSelectedItem();
-            double totalMarks = Double.parseDouble(txtTotalMarks.getText().trim());
-            int savedCount = 0;
-            
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String studentNumber = (String) tableModel.getValueAt(i, 0);
-                String marksStr = (String) tableModel.getValueAt(i, 2);
-                
-                if (marksStr != null && !marksStr.trim().isEmpty()) {
-                    double marks = Double.parseDouble(marksStr);
-
-                    String query1 = "SELECT e.enrollment_id FROM enrollments e " +
-                                   "JOIN students s ON e.student_id = s.student_id " +
-                                   "WHERE s.student_number = ? AND e.course_id = ?";
-                    PreparedStatement stmt1 = connection.prepareStatement(query1);
-                    stmt1.setString(1, studentNumber);
-                    stmt1.setInt(2, course.id);
-                    ResultSet rs = stmt1.executeQuery();
-                    
-                    if (rs.next()) {
-                        int enrollmentId = rs.getInt("enrollment_id");
-
-                        String query2 = "INSERT INTO assessments (enrollment_id, assessment_type, " +
-                                       "marks_obtained, total_marks, assessment_date) " +
-                                       "VALUES (?, ?, ?, ?, CURDATE())";
-                        PreparedStatement stmt2 = connection.prepareStatement(query2);
-                        stmt2.setInt(1, enrollmentId);
-                        stmt2.setString(2, assessmentType);
-                        stmt2.setDouble(3, marks);
-                        stmt2.setDouble(4, totalMarks);
-                        
-                        if (stmt2.executeUpdate() > 0) {
-                            savedCount++;
-                        }
-                    }
-                }
-            }
-            
-            JOptionPane.showMessageDialog(this, 
-                "Assessment results saved for " + savedCount + " students!",
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            
+            totalMarks = Double.parseDouble(txtTotalMarks.getText().trim());
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, 
                 "Please enter valid numbers",
                 "Validation Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
+            return;
+        }
+        
+        List<Assessment> results = new ArrayList<>();
+        List<String> invalidRows = new ArrayList<>();
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            String studentNumber = (String) tableModel.getValueAt(i, 0);
+            String marksStr = (String) tableModel.getValueAt(i, 2);
+            
+            if (marksStr != null && !marksStr.trim().isEmpty()) {
+                try {
+                    results.add(new Assessment(studentNumber, Double.parseDouble(marksStr.trim())));
+                } catch (NumberFormatException e) {
+                    invalidRows.add(studentNumber);
+                }
+            }
+        }
+        
+        btnSave.setEnabled(false);
+        // The outcome is reported once the rows reach the database, which may be after a retry
+        DataAccessExecutor.getInstance().submit(this,
+            progress -> {
+                assessmentDAO.saveAssessments(course.id, assessmentType, totalMarks,
+                    java.sql.Date.valueOf(LocalDate.now()), results,
+                    batchResult -> SwingUtilities.invokeLater(() -> assessmentsWritten(batchResult, invalidRows)));
+                return null;
+            }, saved -> btnSave.setEnabled(true), e -> {
+                btnSave.setEnabled(true);
+                String title = e instanceof ValidationException ? "Validation Error" : "Error";
+                JOptionPane.showMessageDialog(this, e.getMessage(),
+                    title, JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    private void assessmentsWritten(BatchResult batchResult, List<String> invalidRows) {
+        for (String studentNumber : invalidRows) {
+            batchResult.addFailure(studentNumber, "Marks must be a number");
+        }
+        
+        if (batchResult.hasFailures()) {
+            JOptionPane.showMessageDialog(this, 
+                "Assessment results saved for " + batchResult.getSavedCount() + " students.\n\n" +
+                "Not saved:\n" + batchResult.getFailureSummary(10),
+                "Saved With Errors", JOptionPane.WARNING_MESSAGE);
+        } else {
             JOptionPane.showMessageDialog(this, 
-                "Error saving assessments: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
+                "Assessment results saved for " + batchResult.getSavedCount() + " students!",
+                "Success", JOptionPane.INFORMATION_MESSAGE);
         }
     }
     
@@ -1,15 +1,29 @@
 package ui;
 
-import util.DatabaseConnection;
+import dao.AttendanceAnalyticsDAO;
+import dao.AttendanceDAO;
+import dao.BatchResult;
+import dao.EnrollmentDAO;
+import dao.ReferenceData;
+import model.Attendance;
+import model.AttendanceSummary;
+import model.Course;
+import model.Enrollment;
+import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-public class AttendanceTrackingUI extends JFrame {
+public class AttendanceTrackingUI extends JFrame implements ReusableScreen {
     
     private JComboBox<CourseItem> cmbCourse;
     private JTable attendanceTable;
@@ -17,18 +31,19 @@ public class AttendanceTrackingUI extends JFrame {
     private JButton btnMarkPresent, btnMarkAbsent, btnMarkLate, btnSave, btnRefresh;
     private JLabel lblDate, lblCourseInfo;
     
-    private Connection connection;
+    private AttendanceDAO attendanceDAO;
+    private AttendanceAnalyticsDAO analyticsDAO;
+    private EnrollmentDAO enrollmentDAO;
     
-    public AttendanceTrackingUI() {
-        try {
-            connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot studentSlot = new DataAccessExecutor.TaskSlot();
+    private final DataAccessExecutor.TaskSlot analyticsSlot = new DataAccessExecutor.TaskSlot();
+    // Table row of each enrollment on screen, so analytics can be filled in
+    private final Map<Integer, Integer> rowByEnrollment = new HashMap<>();
+    
+    public AttendanceTrackingUI() throws SQLException {
+        attendanceDAO = new AttendanceDAO();
+        analyticsDAO = new AttendanceAnalyticsDAO();
+        enrollmentDAO = new EnrollmentDAO();
         
         setTitle("Attendance Tracking");
         setSize(1000, 700);
@@ -101,7 +116,8 @@ public class AttendanceTrackingUI extends JFrame {
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createTitledBorder("Student List"));
         
-        String[] columns = {"Select", "Student Number", "Student Name", "Status", "Remarks"};
+        String[] columns = {"Select", "Student Number", "Student Name", "Status", "Remarks",
+                           "Attendance %", "Absence Streak"};
         tableModel = new DefaultTableModel(columns, 0) {
             @Override
             public Class<?> getColumnClass(int column) {
@@ -168,30 +184,34 @@ public class AttendanceTrackingUI extends JFrame {
         return button;
     }
     
+    /**
+     * Reloading the courses reselects one and so reloads its students as well
+     */
+    @Override
+    public void refresh() {
+        loadCourses();
+    }
+    
     private void loadCourses() {
-        try {
+        ReferenceLists.load(this, ReferenceData::getCourses, courses -> {
+            CourseItem selected = (CourseItem) cmbCourse.getSelectedItem();
             cmbCourse.removeAllItems();
-            String query = "SELECT c.course_id, c.course_code, c.course_name, " +
-                          "CONCAT(l.first_name, ' ', l.last_name) as lecturer " +
-                          "FROM courses c LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id " +
-                          "ORDER BY c.course_code";
-            
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
             
-            while (rs.next()) {
-                cmbCourse.addItem(new CourseItem(
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getString("lecturer")
-                ));
+            for (Course course : courses) {
+                CourseItem item = new CourseItem(
+                    course.getCourseId(),
+                    course.getCourseCode(),
+                    course.getCourseName(),
+                    course.getLecturerName()
+                );
+                cmbCourse.addItem(item);
+                if (selected != null && item.id == selected.id) {
+                    cmbCourse.setSelectedItem(item);
+                }
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading courses: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading courses: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void loadStudentsForCourse() {
@@ -199,35 +219,67 @@ public class AttendanceTrackingUI extends JFrame {
         if (course == null) return;
         
         lblCourseInfo.setText("Lecturer: " + (course.lecturer != null ? course.lecturer : "Not Assigned"));
+        tableModel.setRowCount(0);
         
-        try {
+        studentSlot.submit(this, progress -> enrollmentDAO.getEnrollmentsByCourse(course.id), enrollments -> {
             tableModel.setRowCount(0);
-            String query = "SELECT s.student_number, CONCAT(s.first_name, ' ', s.last_name) as name, " +
-                          "e.enrollment_id " +
-                          "FROM students s " +
-                          "JOIN enrollments e ON s.student_id = e.student_id " +
-                          "WHERE e.course_id = ? AND e.status = 'Enrolled' " +
-                          "ORDER BY s.student_number";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, course.id);
-            ResultSet rs = stmt.executeQuery();
+            rowByEnrollment.clear();
             
-            while (rs.next()) {
+            for (Enrollment enrollment : enrollments) {
                 Object[] row = {
                     false,
-                    rs.getString("student_number"),
-                    rs.getString("name"),
+                    enrollment.getStudentNumber(),
+                    enrollment.getStudentName(),
                     "Present",
+                    "",
+                    "",
                     ""
                 };
+                rowByEnrollment.put(enrollment.getEnrollmentId(), tableModel.getRowCount());
                 tableModel.addRow(row);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading students: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            loadAnalytics(course);
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading students: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Fill in each student's attendance rate and current absence streak, and
+     * summarize the course above the table
+     */
+    private void loadAnalytics(CourseItem course) {
+        analyticsSlot.submit(this, progress -> analyticsDAO.getCourseAttendance(course.id), summaries -> {
+            int attended = 0;
+            int sessions = 0;
+            int atRisk = 0;
+            for (AttendanceSummary summary : summaries) {
+                attended += summary.getPresent() + summary.getLate();
+                sessions += summary.getSessions();
+                boolean breach = summary.getAttendanceRate() < AttendanceAnalyticsDAO.MIN_RATE ||
+                                 summary.getCurrentAbsenceStreak() >= AttendanceAnalyticsDAO.ABSENCE_STREAK;
+                Integer row = rowByEnrollment.get(summary.getEnrollmentId());
+                if (row == null) {
+                    continue;
+                }
+                if (breach) {
+                    atRisk++;
+                }
+                tableModel.setValueAt(String.format("%.1f%%", summary.getAttendanceRate()), row, 5);
+                tableModel.setValueAt(String.valueOf(summary.getCurrentAbsenceStreak()), row, 6);
+            }
+            
+            String lecturer = "Lecturer: " + (course.lecturer != null ? course.lecturer : "Not Assigned");
+            if (sessions > 0) {
+                lblCourseInfo.setText(String.format("%s | Average attendance %.1f%% | %d at risk " +
+                    "(below %.0f%% or %d+ absences in a row)", lecturer, attended * 100.0 / sessions,
+                    atRisk, AttendanceAnalyticsDAO.MIN_RATE, AttendanceAnalyticsDAO.ABSENCE_STREAK));
+            } else {
+                lblCourseInfo.setText(lecturer);
+            }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading attendance analytics: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void markAttendance(String status) {
@@ -248,48 +300,51 @@ public class AttendanceTrackingUI extends JFrame {
             return;
         }
         
-        try {
-            String dateStr = lblDate.getText();
-            int savedCount = 0;
-            
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String studentNumber = (String) tableModel.getValueAt(i, 1);
-                String status = (String) tableModel.getValueAt(i, 3);
-                String remarks = (String) tableModel.getValueAt(i, 4);
-
-                String query1 = "SELECT e.enrollment_id FROM enrollments e " +
-                               "JOIN students s ON e.student_id = s.student_id " +
-                               "WHERE s.student_number = ? AND e.course_id = ?";
-                PreparedStatement stmt1 = connection.prepareStatement(query1);
-                stmt1.setString(1, studentNumber);
-                stmt1.setInt(2, course.id);
-                ResultSet rs = stmt1.executeQuery();
-                
-                if (rs.next()) {
-                    int enrollmentId = rs.getInt("enrollment_id");
-
-                    String query2 = "INSERT INTO attendance (enrollment_id, attendance_date, status, remarks) " +
-                                   "VALUES (?, ?, ?, ?)";
-                    PreparedStatement stmt2 = connection.prepareStatement(query2);
-                    stmt2.setInt(1, enrollmentId);
-                    stmt2.setDate(2, java.sql.Date.valueOf(dateStr));
-                    stmt2.setString(3, status);
-                    stmt2.setString(4, remarks);
-                    
-                    if (stmt2.executeUpdate() > 0) {
-                        savedCount++;
-                    }
+        if (attendanceTable.isEditing()) {
+            attendanceTable.getCellEditor().stopCellEditing();
+        }
+        
+        List<Attendance> records = new ArrayList<>();
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            records.add(new Attendance(
+                (String) tableModel.getValueAt(i, 1),
+                (String) tableModel.getValueAt(i, 3),
+                (String) tableModel.getValueAt(i, 4)
+            ));
+        }
+        
+        java.sql.Date date = java.sql.Date.valueOf(lblDate.getText());
+        btnSave.setEnabled(false);
+        
+        // The outcome is reported once the session reaches the database, which may be after a retry
+        DataAccessExecutor.getInstance().submit(this,
+            progress -> {
+                attendanceDAO.saveAttendance(course.id, date, records,
+                    batchResult -> SwingUtilities.invokeLater(() -> attendanceWritten(course, date, batchResult)));
+                return null;
+            }, saved -> btnSave.setEnabled(true), e -> {
+                btnSave.setEnabled(true);
+                if (e instanceof ValidationException) {
+                    JOptionPane.showMessageDialog(this, e.getMessage(),
+                        "Validation Error", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            }
-            
+            });
+    }
+    
+    private void attendanceWritten(CourseItem course, java.sql.Date date, BatchResult batchResult) {
+        loadAnalytics(course);
+        if (batchResult.hasFailures()) {
             JOptionPane.showMessageDialog(this, 
-                "Attendance saved for " + savedCount + " students!",
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            
-        } catch (SQLException e) {
+                course.code + " attendance for " + date + " saved for " + batchResult.getSavedCount() +
+                " students.\n\nNot saved:\n" + batchResult.getFailureSummary(10),
+                "Saved With Errors", JOptionPane.WARNING_MESSAGE);
+        } else {
             JOptionPane.showMessageDialog(this, 
-                "Error saving attendance: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
+                "Attendance saved for " + batchResult.getSavedCount() + " students!",
+                "Success", JOptionPane.INFORMATION_MESSAGE);
         }
     }
     
@@ -1,9 +1,8 @@
 package ui;
 
 import dao.UserDAO;
+import util.DataAccessExecutor;
 import util.SessionManager;
-import exception.DatabaseException;
-import exception.ValidationException;
 
 import javax.swing.*;
 import java.awt.*;
@@ -188,21 +187,25 @@ public class ChangePasswordUI extends JDialog {
             return;
         }
 
-        try {
-            int userId = SessionManager.getInstance().getCurrentUser().getUserId();
-            
-            if (userDAO.changePassword(userId, currentPassword, newPassword)) {
+        int userId = SessionManager.getInstance().getCurrentUser().getUserId();
+        btnChange.setEnabled(false);
+        
+        DataAccessExecutor.getInstance().submit(this,
+            progress -> userDAO.changePassword(userId, currentPassword, newPassword), changed -> {
+                btnChange.setEnabled(true);
+                if (changed) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Password changed successfully!", 
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                }
+            }, e -> {
+                btnChange.setEnabled(true);
                 JOptionPane.showMessageDialog(this, 
-                    "Password changed successfully!", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            }
-        } catch (ValidationException | DatabaseException e) {
-            JOptionPane.showMessageDialog(this, 
-                e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-            txtCurrentPassword.setText("");
-            txtCurrentPassword.requestFocus();
-        }
+                    e.getMessage(), 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+                txtCurrentPassword.setText("");
+                txtCurrentPassword.requestFocus();
+            });
     }
 }
\ No newline at end of file
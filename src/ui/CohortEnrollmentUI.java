@@ -0,0 +1,234 @@
+package ui;
+
+import dao.EnrollmentDAO;
+import dao.ReferenceData;
+import model.Course;
+import model.Student;
+import exception.ValidationException;
+import util.DataAccessExecutor;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Enrolls a whole cohort at once: every selected student in every selected course
+ */
+public class CohortEnrollmentUI extends JFrame implements ReusableScreen {
+
+    private JTextField txtFilter;
+    private JList<Student> lstStudents;
+    private JList<Course> lstCourses;
+    private DefaultListModel<Student> studentModel;
+    private DefaultListModel<Course> courseModel;
+    private JFormattedTextField txtEnrollmentDate;
+    private JLabel lblSelection;
+    private JButton btnEnroll;
+
+    private EnrollmentDAO enrollmentDAO;
+    private List<Student> activeStudents = new ArrayList<>();
+
+    public CohortEnrollmentUI() throws SQLException {
+        enrollmentDAO = new EnrollmentDAO();
+
+        setTitle("Cohort Enrollment");
+        setSize(900, 650);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        initComponents();
+        loadStudents();
+        loadCourses();
+    }
+
+    private void initComponents() {
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JPanel headerPanel = new JPanel();
+        headerPanel.setBackground(new Color(46, 204, 113));
+        JLabel headerLabel = new JLabel("COHORT ENROLLMENT");
+        headerLabel.setFont(new Font("Arial", Font.BOLD, 20));
+        headerLabel.setForeground(Color.WHITE);
+        headerPanel.add(headerLabel);
+
+        JPanel studentPanel = new JPanel(new BorderLayout(5, 5));
+        studentPanel.setBorder(BorderFactory.createTitledBorder("Students"));
+        JPanel filterPanel = new JPanel(new BorderLayout(5, 5));
+        filterPanel.add(new JLabel("Filter:"), BorderLayout.WEST);
+        txtFilter = new JTextField();
+        txtFilter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterStudents();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterStudents();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterStudents();
+            }
+        });
+        filterPanel.add(txtFilter, BorderLayout.CENTER);
+        JButton btnSelectAll = new JButton("Select All");
+        btnSelectAll.addActionListener(e -> selectAll(lstStudents));
+        filterPanel.add(btnSelectAll, BorderLayout.EAST);
+        studentPanel.add(filterPanel, BorderLayout.NORTH);
+
+        studentModel = new DefaultListModel<>();
+        lstStudents = new JList<>(studentModel);
+        lstStudents.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        lstStudents.addListSelectionListener(e -> updateSelection());
+        studentPanel.add(new JScrollPane(lstStudents), BorderLayout.CENTER);
+
+        JPanel coursePanel = new JPanel(new BorderLayout(5, 5));
+        coursePanel.setBorder(BorderFactory.createTitledBorder("Courses"));
+        courseModel = new DefaultListModel<>();
+        lstCourses = new JList<>(courseModel);
+        lstCourses.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        lstCourses.addListSelectionListener(e -> updateSelection());
+        coursePanel.add(new JScrollPane(lstCourses), BorderLayout.CENTER);
+
+        JPanel listsPanel = new JPanel(new GridLayout(1, 2, 10, 10));
+        listsPanel.add(studentPanel);
+        listsPanel.add(coursePanel);
+
+        JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        bottomPanel.add(new JLabel("Enrollment Date:"));
+        txtEnrollmentDate = new JFormattedTextField(new SimpleDateFormat("yyyy-MM-dd"));
+        txtEnrollmentDate.setText(new SimpleDateFormat("yyyy-MM-dd").format(new Date()));
+        txtEnrollmentDate.setColumns(10);
+        bottomPanel.add(txtEnrollmentDate);
+        lblSelection = new JLabel();
+        bottomPanel.add(lblSelection);
+        btnEnroll = new JButton("✓ Enroll Cohort");
+        btnEnroll.addActionListener(e -> enrollCohort());
+        bottomPanel.add(btnEnroll);
+        updateSelection();
+
+        mainPanel.add(headerPanel, BorderLayout.NORTH);
+        mainPanel.add(listsPanel, BorderLayout.CENTER);
+        mainPanel.add(bottomPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+    }
+
+    @Override
+    public void refresh() {
+        loadStudents();
+        loadCourses();
+    }
+
+    private void loadStudents() {
+        ReferenceLists.load(this, ReferenceData::getActiveStudents, students -> {
+            activeStudents = students;
+            filterStudents();
+        }, this::showError);
+    }
+
+    private void loadCourses() {
+        ReferenceLists.load(this, ReferenceData::getCourses, courses -> {
+            courseModel.clear();
+            courseModel.addAll(courses);
+        }, this::showError);
+    }
+
+    /**
+     * Show the active students whose number or name contains the filter text, e.g. an intake prefix
+     */
+    private void filterStudents() {
+        String filter = txtFilter.getText().trim().toLowerCase(Locale.ROOT);
+        List<Student> matching = new ArrayList<>();
+        for (Student student : activeStudents) {
+            if (filter.isEmpty() || student.toString().toLowerCase(Locale.ROOT).contains(filter)) {
+                matching.add(student);
+            }
+        }
+        studentModel.clear();
+        studentModel.addAll(matching);
+        updateSelection();
+    }
+
+    private void selectAll(JList<?> list) {
+        if (list.getModel().getSize() > 0) {
+            list.setSelectionInterval(0, list.getModel().getSize() - 1);
+        }
+    }
+
+    private void updateSelection() {
+        int students = lstStudents.getSelectedIndices().length;
+        int courses = lstCourses.getSelectedIndices().length;
+        lblSelection.setText(String.format("%,d students × %,d courses = %,d enrollments",
+            students, courses, (long) students * courses));
+        btnEnroll.setEnabled(students > 0 && courses > 0);
+    }
+
+    private void enrollCohort() {
+        List<Integer> studentIds = new ArrayList<>();
+        for (Student student : lstStudents.getSelectedValuesList()) {
+            studentIds.add(student.getStudentId());
+        }
+        List<Integer> courseIds = new ArrayList<>();
+        for (Course course : lstCourses.getSelectedValuesList()) {
+            courseIds.add(course.getCourseId());
+        }
+
+        Date enrollmentDate;
+        try {
+            enrollmentDate = new SimpleDateFormat("yyyy-MM-dd").parse(txtEnrollmentDate.getText());
+        } catch (ParseException e) {
+            JOptionPane.showMessageDialog(this,
+                "Error: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+            String.format("Enroll %,d students in %,d courses?", studentIds.size(), courseIds.size()),
+            "Confirm Cohort Enrollment", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        ProgressDialog progressDialog = new ProgressDialog(this, "Enrolling Cohort", "Starting enrollment...");
+        progressDialog.track(DataAccessExecutor.getInstance().submit(this,
+            progress -> enrollmentDAO.enrollCohort(studentIds, courseIds, enrollmentDate, progress),
+            result -> {
+                progressDialog.dispose();
+                String message = String.format("Created %,d enrollments in %.1f s",
+                    result.getSavedCount(), result.getElapsedMillis() / 1000.0);
+                if (result.hasFailures()) {
+                    JOptionPane.showMessageDialog(this,
+                        message + "\n\n" + result.getFailures().size() + " could not be enrolled:\n" +
+                        result.getFailureSummary(10),
+                        "Enrollment Finished with Conflicts", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, message,
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                }
+            },
+            e -> {
+                progressDialog.dispose();
+                showError(e);
+            },
+            (done, total) -> progressDialog.setText(String.format("%d of %d courses enrolled", done, total))));
+    }
+
+    private void showError(Exception e) {
+        String title = e instanceof ValidationException ? "Validation Error" : "Error";
+        JOptionPane.showMessageDialog(this, e.getMessage(),
+            title, JOptionPane.ERROR_MESSAGE);
+    }
+}
\ No newline at end of file
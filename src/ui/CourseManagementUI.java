@@ -1,37 +1,37 @@
 package ui;
 
-import util.DatabaseConnection;
-import exception.DatabaseException;
+import dao.CourseDAO;
+import dao.ReferenceData;
+import model.Course;
+import model.Lecturer;
+import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 
-public class CourseManagementUI extends JFrame {
+public class CourseManagementUI extends JFrame implements ReusableScreen {
     
     private JTextField txtCourseCode, txtCourseName, txtCredits, txtSemester, 
                        txtCapacity, txtDescription, txtSearch;
     private JComboBox<LecturerItem> cmbLecturer;
     private JTable courseTable;
     private DefaultTableModel tableModel;
+    private TableFilter tableFilter;
     private JButton btnAdd, btnUpdate, btnDelete, btnClear, btnSearch, btnRefresh;
     
-    private Connection connection;
+    private CourseDAO courseDAO;
     private int selectedCourseId = -1;
+    // Change feed position of the rows on display; null until the first load
+    private Timestamp watermark;
     
-    public CourseManagementUI() {
-        try {
-            connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot loadSlot = new DataAccessExecutor.TaskSlot();
+    
+    public CourseManagementUI() throws SQLException {
+        courseDAO = new CourseDAO();
         
         setTitle("Course Management");
         setSize(1100, 750);
@@ -132,7 +132,7 @@ public class CourseManagementUI extends JFrame {
         searchPanel.add(txtSearch);
         
         btnSearch = createButton("🔍 Search", new Color(155, 89, 182));
-        btnSearch.addActionListener(e -> searchCourses());
+        btnSearch.addActionListener(e -> tableFilter.apply());
         searchPanel.add(btnSearch);
         
         btnRefresh = createButton("🔄 Refresh", new Color(26, 188, 156));
@@ -158,6 +158,7 @@ public class CourseManagementUI extends JFrame {
                 loadSelectedCourse();
             }
         });
+        tableFilter = new TableFilter(courseTable, txtSearch);
         
         JScrollPane scrollPane = new JScrollPane(courseTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
@@ -212,61 +213,59 @@ public class CourseManagementUI extends JFrame {
         return button;
     }
     
+    @Override
+    public void refresh() {
+        loadLecturers();
+        loadCourses();
+    }
+    
     private void loadLecturers() {
-        try {
+        ReferenceLists.load(this, ReferenceData::getLecturers, lecturers -> {
+            LecturerItem selected = (LecturerItem) cmbLecturer.getSelectedItem();
             cmbLecturer.removeAllItems();
             cmbLecturer.addItem(new LecturerItem(0, "-- No Lecturer --"));
             
-            String query = "SELECT lecturer_id, CONCAT(first_name, ' ', last_name) as name " +
-                          "FROM lecturers ORDER BY first_name";
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-            
-            while (rs.next()) {
-                cmbLecturer.addItem(new LecturerItem(
-                    rs.getInt("lecturer_id"),
-                    rs.getString("name")
-                ));
+            for (Lecturer lecturer : lecturers) {
+                LecturerItem item = new LecturerItem(
+                    lecturer.getLecturerId(),
+                    lecturer.getFullName()
+                );
+                cmbLecturer.addItem(item);
+                if (selected != null && item.id == selected.id) {
+                    cmbLecturer.setSelectedItem(item);
+                }
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading lecturers: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading lecturers: " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
+    /**
+     * Load every course the first time, then only those written or deleted since
+     */
     private void loadCourses() {
-        try {
-            tableModel.setRowCount(0);
-            String query = "SELECT c.*, CONCAT(l.first_name, ' ', l.last_name) as lecturer_name " +
-                          "FROM courses c LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id " +
-                          "ORDER BY c.course_code";
-            
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getInt("credits"),
-                    rs.getString("semester"),
-                    rs.getString("lecturer_name") != null ? rs.getString("lecturer_name") : "Not Assigned",
-                    rs.getInt("capacity"),
-                    rs.getString("description")
-                };
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading courses: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        Timestamp since = watermark;
+        loadSlot.submit(this, progress -> courseDAO.getCourseChanges(since), changes -> {
+            watermark = changes.getWatermark();
+            TableChanges.apply(tableModel, changes, this::courseRow, 1);
+        }, this::showError);
+    }
+    
+    private Object[] courseRow(Course course) {
+        return new Object[] {
+            course.getCourseId(),
+            course.getCourseCode(),
+            course.getCourseName(),
+            course.getCredits(),
+            course.getSemester(),
+            course.getLecturerName() != null ? course.getLecturerName() : "Not Assigned",
+            course.getCapacity(),
+            course.getDescription()
+        };
     }
     
     private void loadSelectedCourse() {
-        int selectedRow = courseTable.getSelectedRow();
+        int selectedRow = tableFilter.getSelectedModelRow();
         if (selectedRow >= 0) {
             selectedCourseId = (int) tableModel.getValueAt(selectedRow, 0);
             txtCourseCode.setText((String) tableModel.getValueAt(selectedRow, 1));
@@ -279,42 +278,25 @@ public class CourseManagementUI extends JFrame {
     }
     
     private void addCourse() {
+        Course course;
         try {
-            String query = "INSERT INTO courses (course_code, course_name, credits, semester, " +
-                          "lecturer_id, capacity, description) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, txtCourseCode.getText().trim());
-            stmt.setString(2, txtCourseName.getText().trim());
-            stmt.setInt(3, Integer.parseInt(txtCredits.getText().trim()));
-            stmt.setString(4, txtSemester.getText().trim());
-            
-            LecturerItem lecturer = (LecturerItem) cmbLecturer.getSelectedItem();
-            if (lecturer.id > 0) {
-                stmt.setInt(5, lecturer.id);
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-            
-            stmt.setInt(6, Integer.parseInt(txtCapacity.getText().trim()));
-            stmt.setString(7, txtDescription.getText().trim());
-            
-            if (stmt.executeUpdate() > 0) {
+            course = getCourseFromForm();
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, 
+                "Please enter valid numbers for Credits and Capacity",
+                "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> courseDAO.addCourse(course), added -> {
+            if (added) {
                 JOptionPane.showMessageDialog(this, 
                     "Course added successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadCourses();
             }
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Please enter valid numbers for Credits and Capacity",
-                "Validation Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error adding course: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void updateCourse() {
@@ -325,43 +307,26 @@ public class CourseManagementUI extends JFrame {
             return;
         }
         
+        Course course;
         try {
-            String query = "UPDATE courses SET course_code=?, course_name=?, credits=?, " +
-                          "semester=?, lecturer_id=?, capacity=?, description=? WHERE course_id=?";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, txtCourseCode.getText().trim());
-            stmt.setString(2, txtCourseName.getText().trim());
-            stmt.setInt(3, Integer.parseInt(txtCredits.getText().trim()));
-            stmt.setString(4, txtSemester.getText().trim());
-            
-            LecturerItem lecturer = (LecturerItem) cmbLecturer.getSelectedItem();
-            if (lecturer.id > 0) {
-                stmt.setInt(5, lecturer.id);
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-            
-            stmt.setInt(6, Integer.parseInt(txtCapacity.getText().trim()));
-            stmt.setString(7, txtDescription.getText().trim());
-            stmt.setInt(8, selectedCourseId);
-            
-            if (stmt.executeUpdate() > 0) {
+            course = getCourseFromForm();
+            course.setCourseId(selectedCourseId);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, 
+                "Please enter valid numbers for Credits and Capacity",
+                "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> courseDAO.updateCourse(course), updated -> {
+            if (updated) {
                 JOptionPane.showMessageDialog(this, 
                     "Course updated successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadCourses();
             }
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Please enter valid numbers for Credits and Capacity",
-                "Validation Error", JOptionPane.ERROR_MESSAGE);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error updating course: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void deleteCourse() {
@@ -377,65 +342,38 @@ public class CourseManagementUI extends JFrame {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                String query = "DELETE FROM courses WHERE course_id=?";
-                PreparedStatement stmt = connection.prepareStatement(query);
-                stmt.setInt(1, selectedCourseId);
-                
-                if (stmt.executeUpdate() > 0) {
+            int courseId = selectedCourseId;
+            DataAccessExecutor.getInstance().submit(this, progress -> courseDAO.deleteCourse(courseId), deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, 
                         "Course deleted successfully!",
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                     clearForm();
                     loadCourses();
                 }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error deleting course: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
-    private void searchCourses() {
-        String searchTerm = txtSearch.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadCourses();
-            return;
-        }
+    private Course getCourseFromForm() {
+        Course course = new Course();
+        course.setCourseCode(txtCourseCode.getText().trim());
+        course.setCourseName(txtCourseName.getText().trim());
+        course.setCredits(Integer.parseInt(txtCredits.getText().trim()));
+        course.setSemester(txtSemester.getText().trim());
         
-        try {
-            tableModel.setRowCount(0);
-            String query = "SELECT c.*, CONCAT(l.first_name, ' ', l.last_name) as lecturer_name " +
-                          "FROM courses c LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id " +
-                          "WHERE c.course_code LIKE ? OR c.course_name LIKE ? " +
-                          "ORDER BY c.course_code";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            String search = "%" + searchTerm + "%";
-            stmt.setString(1, search);
-            stmt.setString(2, search);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getInt("credits"),
-                    rs.getString("semester"),
-                    rs.getString("lecturer_name") != null ? rs.getString("lecturer_name") : "Not Assigned",
-                    rs.getInt("capacity"),
-                    rs.getString("description")
-                };
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error searching courses: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        LecturerItem lecturer = (LecturerItem) cmbLecturer.getSelectedItem();
+        course.setLecturerId(lecturer != null ? lecturer.id : 0);
+        
+        course.setCapacity(Integer.parseInt(txtCapacity.getText().trim()));
+        course.setDescription(txtDescription.getText().trim());
+        return course;
+    }
+    
+    private void showError(Exception e) {
+        String title = e instanceof ValidationException ? "Validation Error" : "Error";
+        JOptionPane.showMessageDialog(this, e.getMessage(), 
+            title, JOptionPane.ERROR_MESSAGE);
     }
     
     private void clearForm() {
@@ -1,7 +1,11 @@
 package ui;
 
+import dao.StudentDAO;
+import dao.UserDAO;
+import util.DataAccessExecutor;
 import util.DatabaseConnection;
 import util.SessionManager;
+import util.StatisticsService;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -12,6 +16,8 @@ public class Dashboard extends JFrame {
     private JLabel lblTotalStudents, lblTotalCourses, lblTotalEnrollments;
     private JLabel lblWelcome;
     private JPanel statsPanel;
+    private final StatisticsService.Listener statisticsListener = this::showStatistics;
+    private StatisticsService statisticsService;
     
     public Dashboard() {
 
@@ -31,6 +37,7 @@ public class Dashboard extends JFrame {
         
         initComponents();
         loadStatistics();
+        buildSearchIndexes();
     }
     
     private void initComponents() {
@@ -55,7 +62,10 @@ public class Dashboard extends JFrame {
         JMenu enrollmentMenu = new JMenu("Enrollments");
         JMenuItem manageEnrollments = new JMenuItem("Course Enrollment");
         manageEnrollments.addActionListener(e -> openEnrollmentManagement());
+        JMenuItem cohortEnrollment = new JMenuItem("Cohort Enrollment");
+        cohortEnrollment.addActionListener(e -> openCohortEnrollment());
         enrollmentMenu.add(manageEnrollments);
+        enrollmentMenu.add(cohortEnrollment);
 
         JMenu academicMenu = new JMenu("Academic");
         JMenuItem attendance = new JMenuItem("Attendance Tracking");
@@ -249,57 +259,69 @@ public class Dashboard extends JFrame {
         return button;
     }
     
+    /**
+     * Build the in-memory search indexes in the background so the first search is instant
+     */
+    private void buildSearchIndexes() {
+        DataAccessExecutor.getInstance().submit(null, progress -> {
+            new StudentDAO().buildSearchIndex();
+            new UserDAO().buildSearchIndex();
+            return null;
+        }, null, e -> System.err.println("Search index build failed: " + e.getMessage()));
+    }
+    
+    /**
+     * Show the counts kept by the StatisticsService and follow its live updates.
+     * The service counts once per session, so opening the dashboard runs no queries.
+     */
     private void loadStatistics() {
-        try {
-            Connection conn = DatabaseConnection.getInstance().getConnection();
-
-            Statement stmt1 = conn.createStatement();
-            ResultSet rs1 = stmt1.executeQuery("SELECT COUNT(*) FROM students WHERE status='Active'");
-            if (rs1.next()) {
-                lblTotalStudents.setText("Total Students: " + rs1.getInt(1));
-            }
-
-            Statement stmt2 = conn.createStatement();
-            ResultSet rs2 = stmt2.executeQuery("SELECT COUNT(*) FROM courses");
-            if (rs2.next()) {
-                lblTotalCourses.setText("Total Courses: " + rs2.getInt(1));
-            }
-
-            Statement stmt3 = conn.createStatement();
-            ResultSet rs3 = stmt3.executeQuery("SELECT COUNT(*) FROM enrollments WHERE status='Enrolled'");
-            if (rs3.next()) {
-                lblTotalEnrollments.setText("Active Enrollments: " + rs3.getInt(1));
-            }
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading statistics: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+        statisticsService = StatisticsService.getInstance();
+        statisticsService.addListener(statisticsListener);
+        if (statisticsService.isLoaded()) {
+            showStatistics(statisticsService.getStatistics());
         }
     }
     
+    private void showStatistics(StatisticsService.Statistics statistics) {
+        lblTotalStudents.setText("Total Students: " + statistics.getActiveStudents());
+        lblTotalCourses.setText("Total Courses: " + statistics.getCourses());
+        lblTotalEnrollments.setText("Active Enrollments: " + statistics.getActiveEnrollments());
+    }
+    
+    @Override
+    public void dispose() {
+        if (statisticsService != null) {
+            statisticsService.removeListener(statisticsListener);
+        }
+        super.dispose();
+    }
+    
     private void openStudentManagement() {
-        new StudentManagementUI().setVisible(true);
+        WindowRegistry.getInstance().open(StudentManagementUI.class, StudentManagementUI::new);
     }
     
     private void openLecturerManagement() {
-        new LecturerManagementUI().setVisible(true);
+        WindowRegistry.getInstance().open(LecturerManagementUI.class, LecturerManagementUI::new);
     }
     
     private void openCourseManagement() {
-        new CourseManagementUI().setVisible(true);
+        WindowRegistry.getInstance().open(CourseManagementUI.class, CourseManagementUI::new);
     }
     
     private void openEnrollmentManagement() {
-        new EnrollmentUI().setVisible(true);
+        WindowRegistry.getInstance().open(EnrollmentUI.class, EnrollmentUI::new);
+    }
+    
+    private void openCohortEnrollment() {
+        WindowRegistry.getInstance().open(CohortEnrollmentUI.class, CohortEnrollmentUI::new);
     }
     
     private void openAttendanceTracking() {
-        new AttendanceTrackingUI().setVisible(true);
+        WindowRegistry.getInstance().open(AttendanceTrackingUI.class, AttendanceTrackingUI::new);
     }
     
     private void openAssessmentResults() {
-        new AssessmentResultsUI().setVisible(true);
+        WindowRegistry.getInstance().open(AssessmentResultsUI.class, AssessmentResultsUI::new);
     }
     
     private void openStudentReport() {
@@ -309,17 +331,11 @@ public class Dashboard extends JFrame {
     }
     
     private void openEnrollmentReport() {
-        try {
-            new EnrollmentReportUI().setVisible(true);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error opening report: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        WindowRegistry.getInstance().open(EnrollmentReportUI.class, EnrollmentReportUI::new);
     }
     
     private void openUserManagement() {
-        new UserManagementUI().setVisible(true);
+        WindowRegistry.getInstance().open(UserManagementUI.class, UserManagementUI::create);
     }
     
     private void showProfile() {
@@ -344,6 +360,7 @@ public class Dashboard extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             SessionManager.getInstance().logout();
+            WindowRegistry.getInstance().closeAll();
             dispose();
             new LoginUI().setVisible(true);
         }
@@ -356,6 +373,8 @@ public class Dashboard extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             SessionManager.getInstance().logout();
+            StatisticsService.getInstance().shutdown();
+            DataAccessExecutor.getInstance().shutdown();
             try {
                 DatabaseConnection.getInstance().closeConnection();
             } catch (SQLException e) {
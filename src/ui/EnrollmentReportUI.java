@@ -1,21 +1,31 @@
 package ui;
 
-import util.DatabaseConnection;
+import dao.EnrollmentSummaryDAO;
+import dao.ExportDAO;
+import model.CourseSummary;
+import exception.DatabaseException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.nio.file.Path;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
-public class EnrollmentReportUI extends JFrame {
+public class EnrollmentReportUI extends JFrame implements ReusableScreen {
     
     private JTable reportTable;
     private DefaultTableModel tableModel;
     private JLabel lblTotalCourses, lblFullCourses, lblLowEnrollment;
-    private Connection connection;
+    
+    private final DataAccessExecutor.TaskSlot loadSlot = new DataAccessExecutor.TaskSlot();
+    private final EnrollmentSummaryDAO summaryDAO;
     
     public EnrollmentReportUI() throws SQLException {
-        connection = DatabaseConnection.getInstance().getConnection();
+        summaryDAO = new EnrollmentSummaryDAO();
         
         setTitle("Course Enrollment Report - Decision Support");
         setSize(1000, 700);
@@ -93,14 +103,17 @@ public class EnrollmentReportUI extends JFrame {
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         JButton btnRefresh = createButton("🔄 Refresh Report", new Color(46, 204, 113));
+        JButton btnRebuild = createButton("♻ Rebuild Summary", new Color(230, 126, 34));
         JButton btnExport = createButton("💾 Export to CSV", new Color(52, 152, 219));
         JButton btnPrint = createButton("🖨 Print Report", new Color(149, 165, 166));
         
         btnRefresh.addActionListener(e -> loadReport());
+        btnRebuild.addActionListener(e -> rebuildReport());
         btnExport.addActionListener(e -> exportReport());
         btnPrint.addActionListener(e -> printReport());
         
         buttonPanel.add(btnRefresh);
+        buttonPanel.add(btnRebuild);
         buttonPanel.add(btnExport);
         buttonPanel.add(btnPrint);
 
@@ -165,140 +178,150 @@ public class EnrollmentReportUI extends JFrame {
         return button;
     }
     
+    @Override
+    public void refresh() {
+        loadReport();
+    }
+    
     private void loadReport() {
-        try {
-
-            tableModel.setRowCount(0);
-
-            String query = "SELECT * FROM course_enrollment_summary ORDER BY course_code";
-            
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-            
-            int totalCourses = 0;
-            int fullCourses = 0;
-            int lowEnrollment = 0;
-            
-            while (rs.next()) {
-                String courseCode = rs.getString("course_code");
-                String courseName = rs.getString("course_name");
-                int credits = rs.getInt("credits");
-                String lecturerName = rs.getString("lecturer_name");
-                String department = rs.getString("department");
-                int totalStudents = rs.getInt("total_students");
-                int capacity = rs.getInt("capacity");
-                int availableSeats = rs.getInt("available_seats");
-
-                double enrollmentPercentage = capacity > 0 ? 
-                    (totalStudents * 100.0 / capacity) : 0;
-
-                String status;
-                if (availableSeats <= 0) {
-                    status = "FULL - Add Section";
-                    fullCourses++;
-                } else if (enrollmentPercentage >= 70) {
-                    status = "High Enrollment";
-                } else if (enrollmentPercentage >= 50) {
-                    status = "Medium Enrollment";
-                } else if (enrollmentPercentage >= 30) {
-                    status = "Low - Monitor";
-                    lowEnrollment++;
-                } else {
-                    status = "Critical - Review";
-                    lowEnrollment++;
-                }
-                
-                Object[] row = {
-                    courseCode,
-                    courseName,
-                    credits,
-                    lecturerName != null ? lecturerName : "Not Assigned",
-                    department != null ? department : "N/A",
-                    totalStudents,
-                    capacity,
-                    availableSeats,
-                    String.format("%.1f%%", enrollmentPercentage),
-                    status
-                };
-                
-                tableModel.addRow(row);
-                totalCourses++;
+        loadSlot.submit(this, progress -> fetchReportRows(), this::showReport,
+            e -> JOptionPane.showMessageDialog(this, 
+                "Error loading report: " + e.getMessage(), 
+                "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    /**
+     * Read the report from the cached summary, which fetches only the courses changed since the last read
+     */
+    private List<Object[]> fetchReportRows() throws DatabaseException {
+        List<Object[]> rows = new ArrayList<>();
+        for (CourseSummary summary : summaryDAO.getCourseSummaries()) {
+            rows.add(new Object[]{
+                summary.getCourseCode(),
+                summary.getCourseName(),
+                summary.getCredits(),
+                summary.getLecturerName() != null ? summary.getLecturerName() : "Not Assigned",
+                summary.getDepartment() != null ? summary.getDepartment() : "N/A",
+                summary.getTotalStudents(),
+                summary.getCapacity(),
+                summary.getAvailableSeats(),
+                String.format("%.1f%%", summary.getEnrollmentPercentage()),
+                summary.getStatus()
+            });
+        }
+        return rows;
+    }
+    
+    /**
+     * Recompute the summary from the database, e.g. after data was changed outside the application
+     */
+    private void rebuildReport() {
+        loadSlot.submit(this, progress -> {
+            summaryDAO.rebuild();
+            return fetchReportRows();
+        }, this::showReport,
+            e -> JOptionPane.showMessageDialog(this, 
+                "Error rebuilding report: " + e.getMessage(), 
+                "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+    
+    private void showReport(List<Object[]> rows) {
+        tableModel.setRowCount(0);
+        
+        int totalCourses = 0;
+        int fullCourses = 0;
+        int lowEnrollment = 0;
+        
+        for (Object[] row : rows) {
+            String status = (String) row[9];
+            if (status.equals(CourseSummary.STATUS_FULL)) {
+                fullCourses++;
+            } else if (status.equals(CourseSummary.STATUS_LOW) || status.equals(CourseSummary.STATUS_CRITICAL)) {
+                lowEnrollment++;
             }
+            tableModel.addRow(row);
+            totalCourses++;
+        }
 
-            lblTotalCourses.setText("Total Courses: " + totalCourses);
-            lblFullCourses.setText("Full Courses: " + fullCourses);
-            lblLowEnrollment.setText("Low Enrollment (<50%): " + lowEnrollment);
+        lblTotalCourses.setText("Total Courses: " + totalCourses);
+        lblFullCourses.setText("Full Courses: " + fullCourses);
+        lblLowEnrollment.setText("Low Enrollment (<50%): " + lowEnrollment);
 
-            reportTable.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
-                @Override
-                public Component getTableCellRendererComponent(JTable table, Object value,
-                        boolean isSelected, boolean hasFocus, int row, int column) {
-                    Component c = super.getTableCellRendererComponent(table, value, 
-                        isSelected, hasFocus, row, column);
-                    
-                    if (!isSelected) {
-                        String status = (String) table.getValueAt(row, 9);
-                        if (status.contains("FULL")) {
-                            c.setBackground(new Color(255, 200, 200));
-                        } else if (status.contains("High")) {
-                            c.setBackground(new Color(200, 255, 200));
-                        } else if (status.contains("Medium")) {
-                            c.setBackground(new Color(255, 255, 200));
-                        } else if (status.contains("Low") || status.contains("Critical")) {
-                            c.setBackground(new Color(255, 230, 200));
-                        } else {
-                            c.setBackground(Color.WHITE);
-                        }
+        reportTable.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                    boolean isSelected, boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(table, value, 
+                    isSelected, hasFocus, row, column);
+                
+                if (!isSelected) {
+                    String status = (String) table.getValueAt(row, 9);
+                    if (status.contains("FULL")) {
+                        c.setBackground(new Color(255, 200, 200));
+                    } else if (status.contains("High")) {
+                        c.setBackground(new Color(200, 255, 200));
+                    } else if (status.contains("Medium")) {
+                        c.setBackground(new Color(255, 255, 200));
+                    } else if (status.contains("Low") || status.contains("Critical")) {
+                        c.setBackground(new Color(255, 230, 200));
+                    } else {
+                        c.setBackground(Color.WHITE);
                     }
-                    return c;
                 }
-            });
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading report: " + e.getMessage(), 
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+                return c;
+            }
+        });
     }
     
+    /**
+     * Export a report straight from the database in the background. Large tables
+     * are streamed to disk, so the export covers every row, not just what is on screen.
+     */
     private void exportReport() {
+        ExportDAO.ExportType type = (ExportDAO.ExportType) JOptionPane.showInputDialog(this,
+            "Select the data to export:", "Export to CSV", JOptionPane.QUESTION_MESSAGE, null,
+            ExportDAO.ExportType.values(), ExportDAO.ExportType.COURSE_SUMMARY);
+        if (type == null) {
+            return;
+        }
+        
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setDialogTitle("Export Report as CSV");
-        fileChooser.setSelectedFile(new java.io.File("enrollment_report.csv"));
+        fileChooser.setDialogTitle("Export " + type + " as CSV");
+        fileChooser.setSelectedFile(new java.io.File(type == ExportDAO.ExportType.COURSE_SUMMARY
+            ? "enrollment_report.csv"
+            : type.name().toLowerCase(Locale.ROOT) + ".csv"));
         
-        int userSelection = fileChooser.showSaveDialog(this);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = fileChooser.getSelectedFile().toPath();
         
-        if (userSelection == JFileChooser.APPROVE_OPTION) {
-            try {
-                java.io.File fileToSave = fileChooser.getSelectedFile();
-                java.io.FileWriter fw = new java.io.FileWriter(fileToSave);
-
-                for (int i = 0; i < tableModel.getColumnCount(); i++) {
-                    fw.write(tableModel.getColumnName(i));
-                    if (i < tableModel.getColumnCount() - 1) fw.write(",");
-                }
-                fw.write("\n");
-                
-                // Write data
-                for (int i = 0; i < tableModel.getRowCount(); i++) {
-                    for (int j = 0; j < tableModel.getColumnCount(); j++) {
-                        fw.write(tableModel.getValueAt(i, j).toString());
-                        if (j < tableModel.getColumnCount() - 1) fw.write(",");
-                    }
-                    fw.write("\n");
-                }
-                
-                fw.close();
+        ExportDAO exportDAO;
+        try {
+            exportDAO = new ExportDAO();
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, 
+                "Error exporting report: " + e.getMessage(), 
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        ProgressDialog progressDialog = new ProgressDialog(this, "Exporting " + type, "Starting export...");
+        progressDialog.track(DataAccessExecutor.getInstance().submit(this,
+            progress -> exportDAO.exportCsv(type, target, progress),
+            rows -> {
+                progressDialog.dispose();
                 JOptionPane.showMessageDialog(this, 
-                    "Report exported successfully!", 
+                    String.format("Exported %,d rows to %s", rows, target.getFileName()), 
                     "Success", JOptionPane.INFORMATION_MESSAGE);
-                
-            } catch (Exception e) {
+            },
+            e -> {
+                progressDialog.dispose();
                 JOptionPane.showMessageDialog(this, 
                     "Error exporting report: " + e.getMessage(), 
                     "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
+            },
+            (done, total) -> progressDialog.setText(String.format("%,d rows written", done))));
     }
     
     private void printReport() {
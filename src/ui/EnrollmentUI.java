@@ -1,45 +1,40 @@
 package ui;
 
 import dao.EnrollmentDAO;
-import dao.StudentDAO;
+import dao.ReferenceData;
+import model.Course;
 import model.Enrollment;
 import model.Student;
 import exception.DatabaseException;
 import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
 
-public class EnrollmentUI extends JFrame {
+public class EnrollmentUI extends JFrame implements ReusableScreen {
     
     private JComboBox<Student> cmbStudent;
     private JComboBox<CourseItem> cmbCourse;
     private JFormattedTextField txtEnrollmentDate;
     private JTable enrollmentTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Enrollment> tableModel;
     private JButton btnEnroll, btnWithdraw, btnRefresh;
     
     private EnrollmentDAO enrollmentDAO;
-    private StudentDAO studentDAO;
-    private Connection connection;
+    // Change feed position of the rows on display; null until it is known
+    private Timestamp watermark;
     
-    public EnrollmentUI() {
-        try {
-            enrollmentDAO = new EnrollmentDAO();
-            studentDAO = new StudentDAO();
-            connection = util.DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot changeSlot = new DataAccessExecutor.TaskSlot();
+    
+    public EnrollmentUI() throws SQLException {
+        enrollmentDAO = new EnrollmentDAO();
         
         setTitle("Course Enrollment");
         setSize(900, 650);
@@ -99,7 +94,7 @@ public class EnrollmentUI extends JFrame {
         
         btnEnroll.addActionListener(e -> enrollStudent());
         btnWithdraw.addActionListener(e -> withdrawEnrollment());
-        btnRefresh.addActionListener(e -> loadEnrollments());
+        btnRefresh.addActionListener(e -> refreshEnrollments());
         
         buttonPanel.add(btnEnroll);
         buttonPanel.add(btnWithdraw);
@@ -110,12 +105,17 @@ public class EnrollmentUI extends JFrame {
         
         String[] columns = {"Enrollment ID", "Student Number", "Student Name", 
                            "Course Code", "Course Name", "Enrollment Date", "Status", "Grade"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columns, (enrollment, column) -> switch (column) {
+            case 0 -> enrollment.getEnrollmentId();
+            case 1 -> enrollment.getStudentNumber();
+            case 2 -> enrollment.getStudentName();
+            case 3 -> enrollment.getCourseCode();
+            case 4 -> enrollment.getCourseName();
+            case 5 -> enrollment.getEnrollmentDate();
+            case 6 -> enrollment.getStatus();
+            default -> enrollment.getGrade() != null ? enrollment.getGrade() : "N/A";
+        });
+        tableModel.setErrorHandler(this::showError);
         
         enrollmentTable = new JTable(tableModel);
         enrollmentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -169,127 +169,136 @@ public class EnrollmentUI extends JFrame {
         return button;
     }
     
+    /**
+     * Bring the pickers and the enrollment pages on display up to date
+     */
+    @Override
+    public void refresh() {
+        loadStudents();
+        loadCourses();
+        refreshEnrollments();
+    }
+    
     private void loadStudents() {
-        try {
-            List<Student> students = studentDAO.getAllStudents();
+        ReferenceLists.load(this, ReferenceData::getActiveStudents, students -> {
+            Student selected = (Student) cmbStudent.getSelectedItem();
             cmbStudent.removeAllItems();
             
             for (Student student : students) {
-                if ("Active".equals(student.getStatus())) {
-                    cmbStudent.addItem(student);
+                cmbStudent.addItem(student);
+                if (selected != null && student.getStudentId() == selected.getStudentId()) {
+                    cmbStudent.setSelectedItem(student);
                 }
             }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void loadCourses() {
-        try {
+        ReferenceLists.load(this, ReferenceData::getCourses, courses -> {
+            CourseItem selected = (CourseItem) cmbCourse.getSelectedItem();
             cmbCourse.removeAllItems();
-            String query = "SELECT c.course_id, c.course_code, c.course_name, c.credits, " +
-                          "CONCAT(l.first_name, ' ', l.last_name) as lecturer_name " +
-                          "FROM courses c LEFT JOIN lecturers l ON c.lecturer_id = l.lecturer_id " +
-                          "ORDER BY c.course_code";
             
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-            
-            while (rs.next()) {
-                CourseItem course = new CourseItem(
-                    rs.getInt("course_id"),
-                    rs.getString("course_code"),
-                    rs.getString("course_name"),
-                    rs.getInt("credits"),
-                    rs.getString("lecturer_name")
+            for (Course course : courses) {
+                CourseItem item = new CourseItem(
+                    course.getCourseId(),
+                    course.getCourseCode(),
+                    course.getCourseName(),
+                    course.getCredits(),
+                    course.getLecturerName()
                 );
-                cmbCourse.addItem(course);
+                cmbCourse.addItem(item);
+                if (selected != null && item.courseId == selected.courseId) {
+                    cmbCourse.setSelectedItem(item);
+                }
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading courses: " + e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> JOptionPane.showMessageDialog(this, 
+            "Error loading courses: " + e.getMessage(), 
+            "Error", JOptionPane.ERROR_MESSAGE));
     }
     
     private void loadEnrollments() {
-        try {
-            List<Enrollment> enrollments = enrollmentDAO.getAllEnrollments();
-            tableModel.setRowCount(0);
-            
-            for (Enrollment enrollment : enrollments) {
-                Object[] row = {
-                    enrollment.getEnrollmentId(),
-                    "", // Student number - would need to join
-                    enrollment.getStudentName(),
-                    enrollment.getCourseCode(),
-                    enrollment.getCourseName(),
-                    enrollment.getEnrollmentDate(),
-                    enrollment.getStatus(),
-                    enrollment.getGrade() != null ? enrollment.getGrade() : "N/A"
-                };
-                tableModel.addRow(row);
-            }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.setLoader(enrollmentDAO::getEnrollmentsPage, Comparator.comparing(Enrollment::getEnrollmentDate)
+            .thenComparingInt(Enrollment::getEnrollmentId).reversed());
+        watermark = null;
+        changeSlot.submit(this, progress -> enrollmentDAO.getEnrollmentChanges(null),
+            changes -> watermark = changes.getWatermark(), this::showError);
+    }
+    
+    /**
+     * Fetch only the enrollments written or deleted since the last load, or
+     * whose student or course changed, and patch them into the pages on display
+     */
+    private void refreshEnrollments() {
+        Timestamp since = watermark;
+        changeSlot.submit(this, progress -> enrollmentDAO.getEnrollmentChanges(since), changes -> {
+            watermark = changes.getWatermark();
+            tableModel.applyChanges(changes, Enrollment::getEnrollmentId);
+        }, this::showError);
     }
     
     private void enrollStudent() {
+        Student selectedStudent = (Student) cmbStudent.getSelectedItem();
+        CourseItem selectedCourse = (CourseItem) cmbCourse.getSelectedItem();
+        
+        if (selectedStudent == null || selectedCourse == null) {
+            JOptionPane.showMessageDialog(this, 
+                "Please select both student and course", 
+                "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudentId(selectedStudent.getStudentId());
+        enrollment.setCourseId(selectedCourse.courseId);
+        
         try {
-            Student selectedStudent = (Student) cmbStudent.getSelectedItem();
-            CourseItem selectedCourse = (CourseItem) cmbCourse.getSelectedItem();
-            
-            if (selectedStudent == null || selectedCourse == null) {
-                JOptionPane.showMessageDialog(this, 
-                    "Please select both student and course", 
-                    "Validation Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-            
-            Enrollment enrollment = new Enrollment();
-            enrollment.setStudentId(selectedStudent.getStudentId());
-            enrollment.setCourseId(selectedCourse.courseId);
-            
             SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
             enrollment.setEnrollmentDate(sdf.parse(txtEnrollmentDate.getText()));
-            enrollment.setStatus("Enrolled");
-            
-            if (enrollmentDAO.addEnrollment(enrollment)) {
+        } catch (ParseException e) {
+            JOptionPane.showMessageDialog(this, 
+                "Error: " + e.getMessage(), 
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        enrollment.setStatus("Enrolled");
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> enrollmentDAO.addEnrollment(enrollment), added -> {
+            if (added) {
                 JOptionPane.showMessageDialog(this, 
                     "Student enrolled successfully!\n\n" +
                     "Student: " + selectedStudent.getFullName() + "\n" +
                     "Course: " + selectedCourse.toString(), 
                     "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadEnrollments();
+                refreshEnrollments();
             }
-        } catch (ValidationException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Validation Error", JOptionPane.WARNING_MESSAGE);
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Database Error", JOptionPane.ERROR_MESSAGE);
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error: " + e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, e -> {
+            if (e instanceof ValidationException) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), 
+                    "Validation Error", JOptionPane.WARNING_MESSAGE);
+            } else if (e instanceof DatabaseException) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), 
+                    "Database Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, 
+                    "Error: " + e.getMessage(), 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void withdrawEnrollment() {
         int selectedRow = enrollmentTable.getSelectedRow();
-        if (selectedRow == -1) {
+        Enrollment selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+        if (selected == null) {
             JOptionPane.showMessageDialog(this, 
                 "Please select an enrollment to withdraw", 
                 "Warning", JOptionPane.WARNING_MESSAGE);
             return;
         }
         
-        int enrollmentId = (int) tableModel.getValueAt(selectedRow, 0);
-        String studentName = (String) tableModel.getValueAt(selectedRow, 2);
-        String courseName = (String) tableModel.getValueAt(selectedRow, 4);
+        int enrollmentId = selected.getEnrollmentId();
+        String studentName = selected.getStudentName();
+        String courseName = selected.getCourseName();
         
         int confirm = JOptionPane.showConfirmDialog(this,
             "Are you sure you want to withdraw this enrollment?\n\n" +
@@ -298,19 +307,21 @@ public class EnrollmentUI extends JFrame {
             "Confirm Withdrawal", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                if (enrollmentDAO.deleteEnrollment(enrollmentId)) {
+            DataAccessExecutor.getInstance().submit(this, progress -> enrollmentDAO.deleteEnrollment(enrollmentId), deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, 
                         "Enrollment withdrawn successfully!", 
                         "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadEnrollments();
+                    refreshEnrollments();
                 }
-            } catch (DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
+    
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this, e.getMessage(), 
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
 
     class CourseItem {
         int courseId;
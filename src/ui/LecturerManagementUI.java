@@ -1,33 +1,35 @@
 package ui;
 
-import util.DatabaseConnection;
+import dao.LecturerDAO;
+import model.Lecturer;
+import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 
-public class LecturerManagementUI extends JFrame {
+public class LecturerManagementUI extends JFrame implements ReusableScreen {
     
     private JTextField txtLecturerNumber, txtFirstName, txtLastName, txtEmail, 
                        txtPhone, txtDepartment, txtQualification, txtSearch;
     private JTable lecturerTable;
     private DefaultTableModel tableModel;
+    private TableFilter tableFilter;
     private JButton btnAdd, btnUpdate, btnDelete, btnClear, btnSearch, btnRefresh;
     
-    private Connection connection;
+    private LecturerDAO lecturerDAO;
     private int selectedLecturerId = -1;
+    // Change feed position of the rows on display; null until the first load
+    private Timestamp watermark;
     
-    public LecturerManagementUI() {
-        try {
-            connection = DatabaseConnection.getInstance().getConnection();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot loadSlot = new DataAccessExecutor.TaskSlot();
+    private final DataAccessExecutor.TaskSlot selectionSlot = new DataAccessExecutor.TaskSlot();
+    
+    public LecturerManagementUI() throws SQLException {
+        lecturerDAO = new LecturerDAO();
         
         setTitle("Lecturer Management");
         setSize(1100, 700);
@@ -127,7 +129,7 @@ public class LecturerManagementUI extends JFrame {
         searchPanel.add(txtSearch);
         
         btnSearch = createButton("🔍 Search", new Color(155, 89, 182));
-        btnSearch.addActionListener(e -> searchLecturers());
+        btnSearch.addActionListener(e -> tableFilter.apply());
         searchPanel.add(btnSearch);
         
         btnRefresh = createButton("🔄 Refresh", new Color(26, 188, 156));
@@ -153,6 +155,7 @@ public class LecturerManagementUI extends JFrame {
                 loadSelectedLecturer();
             }
         });
+        tableFilter = new TableFilter(lecturerTable, txtSearch);
         
         JScrollPane scrollPane = new JScrollPane(lecturerTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
@@ -207,87 +210,66 @@ public class LecturerManagementUI extends JFrame {
         return button;
     }
     
+    /**
+     * Load every lecturer the first time, then only those written or deleted since
+     */
+    @Override
+    public void refresh() {
+        loadLecturers();
+    }
+    
     private void loadLecturers() {
-        try {
-            tableModel.setRowCount(0);
-            String query = "SELECT * FROM lecturers ORDER BY lecturer_number";
-            
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("lecturer_id"),
-                    rs.getString("lecturer_number"),
-                    rs.getString("first_name") + " " + rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("department"),
-                    rs.getString("qualification")
-                };
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading lecturers: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        Timestamp since = watermark;
+        loadSlot.submit(this, progress -> lecturerDAO.getLecturerChanges(since), changes -> {
+            watermark = changes.getWatermark();
+            TableChanges.apply(tableModel, changes, this::lecturerRow, 1);
+        }, this::showError);
+    }
+    
+    private Object[] lecturerRow(Lecturer lecturer) {
+        return new Object[] {
+            lecturer.getLecturerId(),
+            lecturer.getLecturerNumber(),
+            lecturer.getFullName(),
+            lecturer.getEmail(),
+            lecturer.getPhone(),
+            lecturer.getDepartment(),
+            lecturer.getQualification()
+        };
     }
     
     private void loadSelectedLecturer() {
-        int selectedRow = lecturerTable.getSelectedRow();
+        int selectedRow = tableFilter.getSelectedModelRow();
         if (selectedRow >= 0) {
             selectedLecturerId = (int) tableModel.getValueAt(selectedRow, 0);
+            int lecturerId = selectedLecturerId;
             
-            try {
-                String query = "SELECT * FROM lecturers WHERE lecturer_id = ?";
-                PreparedStatement stmt = connection.prepareStatement(query);
-                stmt.setInt(1, selectedLecturerId);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    txtLecturerNumber.setText(rs.getString("lecturer_number"));
-                    txtFirstName.setText(rs.getString("first_name"));
-                    txtLastName.setText(rs.getString("last_name"));
-                    txtEmail.setText(rs.getString("email"));
-                    txtPhone.setText(rs.getString("phone"));
-                    txtDepartment.setText(rs.getString("department"));
-                    txtQualification.setText(rs.getString("qualification"));
+            selectionSlot.submit(this, progress -> lecturerDAO.getLecturerById(lecturerId), lecturer -> {
+                if (lecturer != null) {
+                    txtLecturerNumber.setText(lecturer.getLecturerNumber());
+                    txtFirstName.setText(lecturer.getFirstName());
+                    txtLastName.setText(lecturer.getLastName());
+                    txtEmail.setText(lecturer.getEmail());
+                    txtPhone.setText(lecturer.getPhone());
+                    txtDepartment.setText(lecturer.getDepartment());
+                    txtQualification.setText(lecturer.getQualification());
                 }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error loading lecturer: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
     private void addLecturer() {
-        try {
-            String query = "INSERT INTO lecturers (lecturer_number, first_name, last_name, " +
-                          "email, phone, department, qualification) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, txtLecturerNumber.getText().trim());
-            stmt.setString(2, txtFirstName.getText().trim());
-            stmt.setString(3, txtLastName.getText().trim());
-            stmt.setString(4, txtEmail.getText().trim());
-            stmt.setString(5, txtPhone.getText().trim());
-            stmt.setString(6, txtDepartment.getText().trim());
-            stmt.setString(7, txtQualification.getText().trim());
-            
-            if (stmt.executeUpdate() > 0) {
+        Lecturer lecturer = getLecturerFromForm();
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> lecturerDAO.addLecturer(lecturer), added -> {
+            if (added) {
                 JOptionPane.showMessageDialog(this, 
                     "Lecturer added successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadLecturers();
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error adding lecturer: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void updateLecturer() {
@@ -298,32 +280,18 @@ public class LecturerManagementUI extends JFrame {
             return;
         }
         
-        try {
-            String query = "UPDATE lecturers SET lecturer_number=?, first_name=?, last_name=?, " +
-                          "email=?, phone=?, department=?, qualification=? WHERE lecturer_id=?";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, txtLecturerNumber.getText().trim());
-            stmt.setString(2, txtFirstName.getText().trim());
-            stmt.setString(3, txtLastName.getText().trim());
-            stmt.setString(4, txtEmail.getText().trim());
-            stmt.setString(5, txtPhone.getText().trim());
-            stmt.setString(6, txtDepartment.getText().trim());
-            stmt.setString(7, txtQualification.getText().trim());
-            stmt.setInt(8, selectedLecturerId);
-            
-            if (stmt.executeUpdate() > 0) {
+        Lecturer lecturer = getLecturerFromForm();
+        lecturer.setLecturerId(selectedLecturerId);
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> lecturerDAO.updateLecturer(lecturer), updated -> {
+            if (updated) {
                 JOptionPane.showMessageDialog(this, 
                     "Lecturer updated successfully!",
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadLecturers();
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error updating lecturer: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void deleteLecturer() {
@@ -339,63 +307,35 @@ public class LecturerManagementUI extends JFrame {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                String query = "DELETE FROM lecturers WHERE lecturer_id=?";
-                PreparedStatement stmt = connection.prepareStatement(query);
-                stmt.setInt(1, selectedLecturerId);
-                
-                if (stmt.executeUpdate() > 0) {
+            int lecturerId = selectedLecturerId;
+            DataAccessExecutor.getInstance().submit(this, progress -> lecturerDAO.deleteLecturer(lecturerId), deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, 
                         "Lecturer deleted successfully!",
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                     clearForm();
                     loadLecturers();
                 }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, 
-                    "Error deleting lecturer: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
-    private void searchLecturers() {
-        String searchTerm = txtSearch.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadLecturers();
-            return;
-        }
-        
-        try {
-            tableModel.setRowCount(0);
-            String query = "SELECT * FROM lecturers WHERE lecturer_number LIKE ? OR " +
-                          "first_name LIKE ? OR last_name LIKE ? ORDER BY lecturer_number";
-            
-            PreparedStatement stmt = connection.prepareStatement(query);
-            String search = "%" + searchTerm + "%";
-            stmt.setString(1, search);
-            stmt.setString(2, search);
-            stmt.setString(3, search);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("lecturer_id"),
-                    rs.getString("lecturer_number"),
-                    rs.getString("first_name") + " " + rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("department"),
-                    rs.getString("qualification")
-                };
-                tableModel.addRow(row);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Error searching lecturers: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+    private Lecturer getLecturerFromForm() {
+        return new Lecturer(
+            txtLecturerNumber.getText().trim(),
+            txtFirstName.getText().trim(),
+            txtLastName.getText().trim(),
+            txtEmail.getText().trim(),
+            txtPhone.getText().trim(),
+            txtDepartment.getText().trim(),
+            txtQualification.getText().trim()
+        );
+    }
+    
+    private void showError(Exception e) {
+        String title = e instanceof ValidationException ? "Validation Error" : "Error";
+        JOptionPane.showMessageDialog(this, e.getMessage(), 
+            title, JOptionPane.ERROR_MESSAGE);
     }
     
     private void clearForm() {
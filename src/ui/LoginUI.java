@@ -1,8 +1,12 @@
 package ui;
 
+import dao.ReferenceData;
 import dao.UserDAO;
-import model.User;
+import dao.WriteBehind;
+import util.DataAccessExecutor;
+import util.EdtMonitor;
 import util.SessionManager;
+import util.Startup;
 import exception.DatabaseException;
 
 import javax.swing.*;
@@ -28,16 +32,11 @@ public class LoginUI extends JFrame {
     private final Color LIGHT_TEXT = new Color(149, 165, 166);
     private final Color BACKGROUND = new Color(236, 240, 241);
     
+    /**
+     * Shows without waiting for the database. The connection is opened, and the
+     * reference data the first screens need is loaded, while the user types.
+     */
     public LoginUI() {
-        try {
-            userDAO = new UserDAO();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(null, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
-        }
-        
         setTitle("SAMS - Login");
         setSize(1000, 650);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -45,6 +44,28 @@ public class LoginUI extends JFrame {
         setResizable(false);
         
         initComponents();
+        
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint, so this is when the user can start typing
+                SwingUtilities.invokeLater(() -> Startup.milestone("login interactive"));
+            }
+        });
+        Startup.warmUp(e -> showError("✗ Database connection error: " + e.getMessage()),
+            () -> ReferenceData.getInstance().refresh(),
+            () -> Class.forName("ui.Dashboard"),
+            WriteBehind::getInstance);
+    }
+    
+    /**
+     * Created on first use, off the EDT, as it may have to wait for the connection
+     */
+    private synchronized UserDAO getUserDAO() throws SQLException {
+        if (userDAO == null) {
+            userDAO = new UserDAO();
+        }
+        return userDAO;
     }
     
     private void initComponents() {
@@ -310,50 +331,39 @@ public class LoginUI extends JFrame {
         lblStatus.setText("Authenticating...");
         lblStatus.setForeground(PRIMARY_COLOR);
 
-        SwingWorker<User, Void> worker = new SwingWorker<User, Void>() {
-            @Override
-            protected User doInBackground() throws Exception {
-                return userDAO.authenticate(username, password);
-            }
-            
-            @Override
-            protected void done() {
-                try {
-                    User user = get();
+        DataAccessExecutor.getInstance().submit(this, progress -> getUserDAO().authenticate(username, password),
+            user -> {
+                if (user != null) {
+                    
+                    SessionManager.getInstance().login(user);
+                    
+                    lblStatus.setText("✓ Login successful!");
+                    lblStatus.setForeground(SUCCESS_COLOR);
+                   
+                    Timer timer = new Timer(800, e -> {
+                        dispose();
+                        new Dashboard().setVisible(true);
+                        SwingUtilities.invokeLater(() -> Startup.interactive("dashboard interactive"));
+                    });
+                    timer.setRepeats(false);
+                    timer.start();
                     
-                    if (user != null) {
-                        
-                        SessionManager.getInstance().login(user);
-                        
-                        lblStatus.setText("✓ Login successful!");
-                        lblStatus.setForeground(SUCCESS_COLOR);
-                       
-                        Timer timer = new Timer(800, e -> {
-                            dispose();
-                            new Dashboard().setVisible(true);
-                        });
-                        timer.setRepeats(false);
-                        timer.start();
-                        
-                    } else {
-                        
-                        showError("✗ Invalid username or password");
-                        btnLogin.setEnabled(true);
-                        btnLogin.setText("LOGIN");
-                        txtPassword.setText("");
-                        txtPassword.requestFocus();
-                        
-                        shakeFrame();
-                    }
-                } catch (Exception e) {
-                    showError("✗ Login error: " + e.getMessage());
+                } else {
+                    
+                    showError("✗ Invalid username or password");
                     btnLogin.setEnabled(true);
                     btnLogin.setText("LOGIN");
+                    txtPassword.setText("");
+                    txtPassword.requestFocus();
+                    
+                    shakeFrame();
                 }
-            }
-        };
-        
-        worker.execute();
+            },
+            e -> {
+                showError("✗ Login error: " + e.getMessage());
+                btnLogin.setEnabled(true);
+                btnLogin.setText("LOGIN");
+            });
     }
     
     private void showError(String message) {
@@ -383,12 +393,14 @@ public class LoginUI extends JFrame {
     }
     
     public static void main(String[] args) {
+        Startup.milestone("main");
         try {
             
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             e.printStackTrace();
         }
+        EdtMonitor.install();
         
         SwingUtilities.invokeLater(() -> {
             new LoginUI().setVisible(true);
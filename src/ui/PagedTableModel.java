@@ -0,0 +1,303 @@
+package ui;
+
+import dao.ChangeSet;
+import util.DataAccessExecutor;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Table model that loads its rows a page at a time as the table scrolls.
+ * Pages are fetched with keyset pagination, so only the last row of each page
+ * seen so far is remembered; page contents live in a bounded LRU cache and
+ * evicted pages are simply reloaded when they scroll back into view.
+ * All state is owned by the EDT; page loads run on the DataAccessExecutor.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_CACHED_PAGES = 10;
+
+    /**
+     * Loads up to pageSize rows sorting after the given row, or the first page when it is null
+     */
+    public interface PageLoader<T> {
+        List<T> loadPage(T after, int pageSize) throws Exception;
+    }
+
+    /**
+     * Maps a row object to the value shown in a column
+     */
+    public interface RowMapper<T> {
+        Object getValue(T row, int column);
+    }
+
+    private final String[] columns;
+    private final RowMapper<T> mapper;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+
+    // Last row of every page discovered so far; page n is loaded from lastRows[n - 1]
+    private final List<T> lastRows = new ArrayList<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+
+    private PageLoader<T> loader;
+    private Comparator<? super T> order;
+    private Consumer<? super Exception> errorHandler;
+    private int rowCount;
+    private boolean exhausted;
+    private int generation;
+
+    public PagedTableModel(String[] columns, RowMapper<T> mapper) {
+        this(columns, mapper, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+    }
+
+    public PagedTableModel(String[] columns, RowMapper<T> mapper, int pageSize, int maxCachedPages) {
+        this.columns = columns;
+        this.mapper = mapper;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Called on the EDT when a page fails to load
+     */
+    public void setErrorHandler(Consumer<? super Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Switch to a new row source (e.g. a search) and start again from the first page
+     */
+    public void setLoader(PageLoader<T> loader) {
+        setLoader(loader, null);
+    }
+
+    /**
+     * Switch to a new row source whose pages come in the given order, which
+     * lets applyChanges() leave rows beyond the loaded ones to paging
+     */
+    public void setLoader(PageLoader<T> loader, Comparator<? super T> order) {
+        this.loader = loader;
+        this.order = order;
+        refresh();
+    }
+
+    /**
+     * Apply rows written and deleted since the pages were loaded. Cached rows
+     * that changed are replaced in place, and new rows sorting after the last
+     * loaded row are left for paging to reach. Anything else moves the keyset
+     * page boundaries (an insert or delete among the loaded rows, a changed
+     * sort key, a full reload), so the model reloads from the first page.
+     */
+    public void applyChanges(ChangeSet<T> changes, ToIntFunction<? super T> idOf) {
+        applyChanges(changes, idOf, row -> true);
+    }
+
+    /**
+     * Apply changes to a model showing only the rows that pass belongs, such
+     * as the results of a search. A loaded row that no longer belongs leaves
+     * the table, and a changed row that never belonged is ignored.
+     */
+    public void applyChanges(ChangeSet<T> changes, ToIntFunction<? super T> idOf, Predicate<? super T> belongs) {
+        if (changes.isFullReload()) {
+            refresh();
+            return;
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> rowById = new HashMap<>();
+        for (Map.Entry<Integer, List<T>> page : pages.entrySet()) {
+            List<T> rows = page.getValue();
+            for (int offset = 0; offset < rows.size(); offset++) {
+                rowById.put(idOf.applyAsInt(rows.get(offset)), page.getKey() * pageSize + offset);
+            }
+        }
+
+        boolean resident = isFullyResident();
+        for (Integer id : changes.getDeletedIds()) {
+            // A deleted row outside the cached pages may still sit inside an evicted one
+            if (rowById.containsKey(id) || !resident) {
+                refresh();
+                return;
+            }
+        }
+
+        List<Integer> updated = new ArrayList<>();
+        T lastLoaded = lastRows.isEmpty() ? null : lastRows.get(lastRows.size() - 1);
+        for (T row : changes.getChanged()) {
+            Integer rowIndex = rowById.get(idOf.applyAsInt(row));
+            if (!belongs.test(row)) {
+                if (rowIndex != null) {
+                    refresh();
+                    return;
+                }
+                continue;
+            }
+            if (rowIndex == null) {
+                boolean pagedInLater = order != null && !exhausted && lastLoaded != null
+                                       && order.compare(row, lastLoaded) > 0;
+                if (!pagedInLater) {
+                    refresh();
+                    return;
+                }
+                continue;
+            }
+            List<T> page = pages.get(rowIndex / pageSize);
+            int offset = rowIndex % pageSize;
+            if (order != null && order.compare(page.get(offset), row) != 0) {
+                refresh();
+                return;
+            }
+            page.set(offset, row);
+            updated.add(rowIndex);
+        }
+        for (int rowIndex : updated) {
+            fireTableRowsUpdated(rowIndex, rowIndex);
+        }
+    }
+
+    /**
+     * Drop every cached page and reload from the first page
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        lastRows.clear();
+        pendingPages.clear();
+        rowCount = 0;
+        exhausted = false;
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    /**
+     * Get the row object at the index, or null if its page is not loaded yet
+     */
+    public T getRow(int rowIndex) {
+        List<T> page = pages.get(rowIndex / pageSize);
+        int offset = rowIndex % pageSize;
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    /**
+     * Whether every row has been loaded and is still cached, so the rows can
+     * be searched or sorted without going back to the database
+     */
+    public boolean isFullyResident() {
+        if (!exhausted) {
+            return false;
+        }
+        for (int pageIndex = 0; pageIndex < lastRows.size(); pageIndex++) {
+            if (!pages.containsKey(pageIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / pageSize;
+        List<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+
+        // Stay one page ahead of the viewport so scrolling to the end grows the table
+        if (!exhausted && pageIndex == lastRows.size() - 1) {
+            requestPage(lastRows.size());
+        }
+
+        int offset = rowIndex % pageSize;
+        return offset < page.size() ? mapper.getValue(page.get(offset), columnIndex) : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loader == null || pageIndex > lastRows.size() || !pendingPages.add(pageIndex)) {
+            return;
+        }
+
+        PageLoader<T> source = loader;
+        T after = pageIndex == 0 ? null : lastRows.get(pageIndex - 1);
+        int requestGeneration = generation;
+
+        DataAccessExecutor.getInstance().submit(null, progress -> source.loadPage(after, pageSize),
+            rows -> {
+                if (requestGeneration == generation) {
+                    pendingPages.remove(pageIndex);
+                    pageLoaded(pageIndex, rows);
+                }
+            },
+            e -> {
+                if (requestGeneration == generation) {
+                    pendingPages.remove(pageIndex);
+                    if (errorHandler != null) {
+                        errorHandler.accept(e);
+                    }
+                }
+            });
+    }
+
+    private void pageLoaded(int pageIndex, List<T> rows) {
+        // Copied so applyChanges() can replace rows in place
+        pages.put(pageIndex, new ArrayList<>(rows));
+
+        if (pageIndex < lastRows.size()) {
+            int first = pageIndex * pageSize;
+            int last = Math.min(first + pageSize, rowCount) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+            return;
+        }
+
+        if (rows.size() < pageSize) {
+            exhausted = true;
+        }
+        if (!rows.isEmpty()) {
+            lastRows.add(rows.get(rows.size() - 1));
+            int first = rowCount;
+            rowCount += rows.size();
+            fireTableRowsInserted(first, rowCount - 1);
+        }
+    }
+}
\ No newline at end of file
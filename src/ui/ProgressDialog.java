@@ -0,0 +1,62 @@
+package ui;
+
+import util.DataAccessExecutor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Non-modal dialog showing the progress of a long background task, with a
+ * Cancel button. The owner stays usable while the task runs. Cancelling,
+ * or closing the dialog, cancels the task and closes the dialog.
+ */
+public class ProgressDialog extends JDialog {
+
+    private final JProgressBar progressBar = new JProgressBar();
+    private DataAccessExecutor.TaskHandle handle;
+
+    public ProgressDialog(Frame owner, String title, String initialText) {
+        super(owner, title, false);
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString(initialText);
+        JButton btnCancel = new JButton("Cancel");
+        btnCancel.addActionListener(e -> cancel());
+
+        JPanel progressPanel = new JPanel(new BorderLayout(10, 10));
+        progressPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(btnCancel, BorderLayout.EAST);
+        add(progressPanel);
+        setSize(400, 100);
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancel();
+            }
+        });
+    }
+
+    /**
+     * Show the dialog for a submitted task; Cancel will cancel it
+     */
+    public void track(DataAccessExecutor.TaskHandle handle) {
+        this.handle = handle;
+        setVisible(true);
+    }
+
+    public void setText(String text) {
+        progressBar.setString(text);
+    }
+
+    private void cancel() {
+        if (handle != null) {
+            handle.cancel();
+        }
+        dispose();
+    }
+}
\ No newline at end of file
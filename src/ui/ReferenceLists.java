@@ -0,0 +1,38 @@
+package ui;
+
+import dao.ReferenceData;
+import util.DataAccessExecutor;
+
+import java.awt.Component;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills a combo box from ReferenceData: at once from the snapshot if there is
+ * one, and again once the background refresh finds it changed. A failed
+ * refresh is only reported when there was nothing to show.
+ */
+final class ReferenceLists {
+
+    private ReferenceLists() {
+    }
+
+    static <T> void load(Component owner, Function<ReferenceData, List<T>> list, Consumer<List<T>> show,
+                         Consumer<Exception> onError) {
+        ReferenceData referenceData = ReferenceData.getInstance();
+        boolean shown = referenceData.isLoaded();
+        if (shown) {
+            show.accept(list.apply(referenceData));
+        }
+        DataAccessExecutor.getInstance().submit(owner, progress -> referenceData.refresh(), changed -> {
+            if (changed || !shown) {
+                show.accept(list.apply(referenceData));
+            }
+        }, e -> {
+            if (!shown) {
+                onError.accept(e);
+            }
+        });
+    }
+}
\ No newline at end of file
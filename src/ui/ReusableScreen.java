@@ -0,0 +1,15 @@
+package ui;
+
+/**
+ * A screen that the WindowRegistry keeps between openings and brings up to
+ * date when it is reopened
+ */
+interface ReusableScreen {
+
+    /**
+     * Called on the EDT each time the screen is reopened. The screen fetches
+     * what changed in the database since it last loaded, whoever changed it,
+     * rather than reloading everything it shows.
+     */
+    void refresh();
+}
\ No newline at end of file
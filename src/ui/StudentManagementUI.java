@@ -2,39 +2,41 @@ package ui;
 
 import dao.StudentDAO;
 import model.Student;
-import exception.DatabaseException;
 import exception.ValidationException;
+import util.DataAccessExecutor;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
 
-public class StudentManagementUI extends JFrame {
+public class StudentManagementUI extends JFrame implements ReusableScreen {
     
     private JTextField txtStudentNumber, txtFirstName, txtLastName, txtEmail, txtPhone, txtSearch;
     private JComboBox<String> cmbStatus;
     private JFormattedTextField txtDOB, txtEnrollmentDate;
     private JTable studentTable;
-    private DefaultTableModel tableModel;
-    private JButton btnAdd, btnUpdate, btnDelete, btnClear, btnSearch;
+    private PagedTableModel<Student> tableModel;
+    private TableFilter tableFilter;
+    private JButton btnAdd, btnUpdate, btnDelete, btnClear, btnImport, btnSearch;
     
     private StudentDAO studentDAO;
     private int selectedStudentId = -1;
+    // Change feed position of the rows on display; null until it is known
+    private Timestamp watermark;
+    // Term of the database search on display; null while every student is listed
+    private String searchTerm;
     
-    public StudentManagementUI() {
-        try {
-            studentDAO = new StudentDAO();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
+    private final DataAccessExecutor.TaskSlot selectionSlot = new DataAccessExecutor.TaskSlot();
+    private final DataAccessExecutor.TaskSlot changeSlot = new DataAccessExecutor.TaskSlot();
+    
+    public StudentManagementUI() throws SQLException {
+        studentDAO = new StudentDAO();
         
         setTitle("Student Management");
         setSize(1000, 700);
@@ -119,16 +121,19 @@ public class StudentManagementUI extends JFrame {
         btnUpdate = createButton("✏ Update Student", new Color(52, 152, 219));
         btnDelete = createButton("🗑 Delete Student", new Color(231, 76, 60));
         btnClear = createButton("🔄 Clear Form", new Color(149, 165, 166));
+        btnImport = createButton("📥 Import CSV", new Color(230, 126, 34));
         
         btnAdd.addActionListener(e -> addStudent());
         btnUpdate.addActionListener(e -> updateStudent());
         btnDelete.addActionListener(e -> deleteStudent());
         btnClear.addActionListener(e -> clearForm());
+        btnImport.addActionListener(e -> importStudents());
         
         buttonPanel.add(btnAdd);
         buttonPanel.add(btnUpdate);
         buttonPanel.add(btnDelete);
         buttonPanel.add(btnClear);
+        buttonPanel.add(btnImport);
 
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
         searchPanel.setBorder(BorderFactory.createEmptyBorder(5, 0, 5, 0));
@@ -142,23 +147,28 @@ public class StudentManagementUI extends JFrame {
         searchPanel.add(txtSearch);
         
         btnSearch = createButton("🔍 Search", new Color(155, 89, 182));
-        btnSearch.addActionListener(e -> searchStudents());
+        btnSearch.addActionListener(e -> tableFilter.apply());
         searchPanel.add(btnSearch);
         
         JButton btnRefresh = createButton("🔄 Refresh", new Color(26, 188, 156));
-        btnRefresh.addActionListener(e -> loadStudents());
+        btnRefresh.addActionListener(e -> refreshStudents());
         searchPanel.add(btnRefresh);
 
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setBorder(BorderFactory.createTitledBorder("Student List"));
         
         String[] columns = {"ID", "Student Number", "Name", "Email", "Phone", "DOB", "Enrollment Date", "Status"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columns, (student, column) -> switch (column) {
+            case 0 -> student.getStudentId();
+            case 1 -> student.getStudentNumber();
+            case 2 -> student.getFullName();
+            case 3 -> student.getEmail();
+            case 4 -> student.getPhone();
+            case 5 -> student.getDateOfBirth();
+            case 6 -> student.getEnrollmentDate();
+            default -> student.getStatus();
+        });
+        tableModel.setErrorHandler(this::showError);
         
         studentTable = new JTable(tableModel);
         studentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -167,6 +177,12 @@ public class StudentManagementUI extends JFrame {
                 loadSelectedStudent();
             }
         });
+        tableFilter = new TableFilter(studentTable, txtSearch, tableModel::isFullyResident,
+            term -> {
+                searchTerm = term;
+                tableModel.setLoader((after, pageSize) -> studentDAO.searchStudentsPage(term, after, pageSize));
+            },
+            this::loadStudents);
         
         JScrollPane scrollPane = new JScrollPane(studentTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
@@ -221,37 +237,60 @@ public class StudentManagementUI extends JFrame {
         return button;
     }
     
+    /**
+     * Apply what changed since the pages were loaded, keeping the current search
+     */
+    @Override
+    public void refresh() {
+        refreshStudents();
+    }
+    
+    /**
+     * List every student. The watermark is taken before the first page is
+     * read, so a student written in between is picked up by the next refresh.
+     */
     private void loadStudents() {
-        try {
-            List<Student> students = studentDAO.getAllStudents();
-            tableModel.setRowCount(0);
-            
-            for (Student student : students) {
-                Object[] row = {
-                    student.getStudentId(),
-                    student.getStudentNumber(),
-                    student.getFullName(),
-                    student.getEmail(),
-                    student.getPhone(),
-                    student.getDateOfBirth(),
-                    student.getEnrollmentDate(),
-                    student.getStatus()
-                };
-                tableModel.addRow(row);
+        searchTerm = null;
+        watermark = null;
+        changeSlot.submit(this, progress -> studentDAO.getStudentChanges(null), changes -> {
+            watermark = changes.getWatermark();
+            // A search started meanwhile keeps its own rows
+            if (searchTerm == null) {
+                tableModel.setLoader((after, pageSize) -> studentDAO.getStudentsPage(
+                    after != null ? after.getStudentNumber() : null, pageSize),
+                    Comparator.comparing(Student::getStudentNumber, String.CASE_INSENSITIVE_ORDER));
             }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
+        }, this::showError);
+    }
+    
+    /**
+     * Fetch only the students written or deleted since the last load and patch
+     * them into the pages on display. During a search, edited students that no
+     * longer match the term leave the table.
+     */
+    private void refreshStudents() {
+        if (watermark == null && searchTerm == null) {
+            // The first load has not finished; this would cancel it
+            loadStudents();
+            return;
         }
+        Timestamp since = watermark;
+        String term = searchTerm;
+        changeSlot.submit(this, progress -> studentDAO.getStudentChanges(since), changes -> {
+            watermark = changes.getWatermark();
+            tableModel.applyChanges(changes, Student::getStudentId,
+                student -> term == null || studentDAO.matchesSearch(term, student));
+        }, this::showError);
     }
     
     private void loadSelectedStudent() {
-        int selectedRow = studentTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            selectedStudentId = (int) tableModel.getValueAt(selectedRow, 0);
+        int selectedRow = tableFilter.getSelectedModelRow();
+        Student selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+        if (selected != null) {
+            selectedStudentId = selected.getStudentId();
+            int studentId = selectedStudentId;
             
-            try {
-                Student student = studentDAO.getStudentById(selectedStudentId);
+            selectionSlot.submit(this, progress -> studentDAO.getStudentById(studentId), student -> {
                 if (student != null) {
                     txtStudentNumber.setText(student.getStudentNumber());
                     txtFirstName.setText(student.getFirstName());
@@ -268,32 +307,30 @@ public class StudentManagementUI extends JFrame {
                         .format(student.getEnrollmentDate()));
                     cmbStatus.setSelectedItem(student.getStatus());
                 }
-            } catch (DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
     private void addStudent() {
+        Student student;
         try {
-            Student student = getStudentFromForm();
-            
-            if (studentDAO.addStudent(student)) {
-                JOptionPane.showMessageDialog(this, 
-                    "Student added successfully!", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                clearForm();
-                loadStudents();
-            }
-        } catch (ValidationException | DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Validation Error", JOptionPane.ERROR_MESSAGE);
+            student = getStudentFromForm();
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, 
                 "Error: " + e.getMessage(), 
                 "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> studentDAO.addStudent(student), added -> {
+            if (added) {
+                JOptionPane.showMessageDialog(this, 
+                    "Student added successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearForm();
+                refreshStudents();
+            }
+        }, this::showError);
     }
     
     private void updateStudent() {
@@ -304,25 +341,26 @@ public class StudentManagementUI extends JFrame {
             return;
         }
         
+        Student student;
         try {
-            Student student = getStudentFromForm();
+            student = getStudentFromForm();
             student.setStudentId(selectedStudentId);
-            
-            if (studentDAO.updateStudent(student)) {
-                JOptionPane.showMessageDialog(this, 
-                    "Student updated successfully!", 
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-                clearForm();
-                loadStudents();
-            }
-        } catch (ValidationException | DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, 
                 "Error: " + e.getMessage(), 
                 "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> studentDAO.updateStudent(student), updated -> {
+            if (updated) {
+                JOptionPane.showMessageDialog(this, 
+                    "Student updated successfully!", 
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearForm();
+                refreshStudents();
+            }
+        }, this::showError);
     }
     
     private void deleteStudent() {
@@ -338,49 +376,61 @@ public class StudentManagementUI extends JFrame {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                if (studentDAO.deleteStudent(selectedStudentId)) {
+            int studentId = selectedStudentId;
+            DataAccessExecutor.getInstance().submit(this, progress -> studentDAO.deleteStudent(studentId), deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, 
                         "Student deleted successfully!", 
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                     clearForm();
-                    loadStudents();
+                    refreshStudents();
                 }
-            } catch (DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
-    private void searchStudents() {
-        String searchTerm = txtSearch.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadStudents();
+    /**
+     * Bulk load students from a CSV file in the background, then show how many
+     * were imported and why any rows were rejected
+     */
+    private void importStudents() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Students from CSV");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
             return;
         }
+        Path source = fileChooser.getSelectedFile().toPath();
         
-        try {
-            List<Student> students = studentDAO.searchStudents(searchTerm);
-            tableModel.setRowCount(0);
-            
-            for (Student student : students) {
-                Object[] row = {
-                    student.getStudentId(),
-                    student.getStudentNumber(),
-                    student.getFullName(),
-                    student.getEmail(),
-                    student.getPhone(),
-                    student.getDateOfBirth(),
-                    student.getEnrollmentDate(),
-                    student.getStatus()
-                };
-                tableModel.addRow(row);
-            }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        ProgressDialog progressDialog = new ProgressDialog(this, "Importing Students", "Starting import...");
+        progressDialog.track(DataAccessExecutor.getInstance().submit(this,
+            progress -> studentDAO.importStudents(source, progress),
+            result -> {
+                progressDialog.dispose();
+                String message = String.format("Imported %,d students in %.1f s (%,.0f rows/s)",
+                    result.getSavedCount(), result.getElapsedMillis() / 1000.0, result.getRowsPerSecond());
+                if (result.hasFailures()) {
+                    JOptionPane.showMessageDialog(this, 
+                        message + "\n\n" + result.getFailures().size() + " rows were rejected:\n" +
+                        result.getFailureSummary(10), 
+                        "Import Finished with Errors", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, message, 
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                }
+                loadStudents();
+            },
+            e -> {
+                progressDialog.dispose();
+                showError(e);
+            },
+            (done, total) -> progressDialog.setText(String.format("%,d rows processed", done))));
+    }
+    
+    private void showError(Exception e) {
+        String title = e instanceof ValidationException ? "Validation Error" : "Error";
+        JOptionPane.showMessageDialog(this, e.getMessage(), 
+            title, JOptionPane.ERROR_MESSAGE);
     }
     
     private Student getStudentFromForm() throws Exception {
@@ -0,0 +1,91 @@
+package ui;
+
+import dao.ChangeSet;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Applies a change feed ChangeSet to a DefaultTableModel whose first column
+ * holds the row ID. Updated rows are rewritten cell by cell, so selection and
+ * sorting survive; new rows are inserted where the order column puts them,
+ * and deleted rows are removed.
+ */
+final class TableChanges {
+
+    private TableChanges() {
+    }
+
+    static <T> void apply(DefaultTableModel model, ChangeSet<T> changes, Function<T, Object[]> toRow,
+                          int orderColumn) {
+        if (changes.isFullReload()) {
+            model.setRowCount(0);
+            for (T value : changes.getChanged()) {
+                model.addRow(toRow.apply(value));
+            }
+            return;
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Integer> rowById = indexRows(model);
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : changes.getDeletedIds()) {
+            Integer row = rowById.get(id);
+            if (row != null) {
+                removed.add(row);
+            }
+        }
+        if (!removed.isEmpty()) {
+            // Bottom up, so the rows still to be removed keep their index
+            removed.sort(Collections.reverseOrder());
+            for (int row : removed) {
+                model.removeRow(row);
+            }
+            rowById = indexRows(model);
+        }
+
+        for (T value : changes.getChanged()) {
+            Object[] row = toRow.apply(value);
+            if (changes.getDeletedIds().contains(row[0])) {
+                continue;
+            }
+            Integer existing = rowById.get(row[0]);
+            if (existing != null) {
+                for (int column = 0; column < row.length; column++) {
+                    if (!Objects.equals(model.getValueAt(existing, column), row[column])) {
+                        model.setValueAt(row[column], existing, column);
+                    }
+                }
+            } else {
+                model.insertRow(insertionPoint(model, row[orderColumn], orderColumn), row);
+                rowById = indexRows(model);
+            }
+        }
+    }
+
+    private static Map<Object, Integer> indexRows(DefaultTableModel model) {
+        Map<Object, Integer> rowById = new HashMap<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            rowById.put(model.getValueAt(row, 0), row);
+        }
+        return rowById;
+    }
+
+    private static int insertionPoint(DefaultTableModel model, Object key, int orderColumn) {
+        String value = String.valueOf(key);
+        for (int row = 0; row < model.getRowCount(); row++) {
+            if (String.CASE_INSENSITIVE_ORDER.compare(String.valueOf(model.getValueAt(row, orderColumn)), value) > 0) {
+                return row;
+            }
+        }
+        return model.getRowCount();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package ui;
+
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.RowFilter;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Filters and sorts a table's rows as the user types in its search field.
+ *
+ * While every row of the model is loaded, filtering happens in memory: each
+ * row's cells are joined into one lowercase key, kept current as the model
+ * changes, and a row matches when its key contains every search word, so a
+ * keystroke costs a substring scan per row rather than a query. Typing is
+ * debounced, so a burst of keystrokes filters once.
+ *
+ * A model that only holds some of its rows (a PagedTableModel over a large
+ * table) cannot be filtered or sorted locally; searches then go to the
+ * database through the remote search, and clicking a header does nothing.
+ * When a model that was resident stops being so (a refresh back to its
+ * first page), the local sort and filter are dropped before the sorter sees
+ * the change, since re-sorting would page every row in; the search text is
+ * then handed to the remote search.
+ */
+class TableFilter {
+
+    private static final int DEBOUNCE_MILLIS = 150;
+
+    private final JTable table;
+    private final JTextField searchField;
+    private final BooleanSupplier resident;
+    private final Consumer<String> remoteSearch;
+    private final Runnable showAll;
+    private final TableRowSorter<TableModel> sorter;
+    private final Timer debounce;
+
+    // Lowercase search key per model row; null when the model changed too much to patch
+    private String[] keys;
+    private String[] terms = new String[0];
+    private boolean remoteActive;
+
+    /**
+     * Filter a model that always holds every row
+     */
+    TableFilter(JTable table, JTextField searchField) {
+        this(table, searchField, () -> true, null, null);
+    }
+
+    /**
+     * Filter locally while resident says all rows are loaded, otherwise hand
+     * the search text to remoteSearch; showAll restores the unfiltered rows
+     * after a remote search is cleared
+     */
+    TableFilter(JTable table, JTextField searchField, BooleanSupplier resident,
+                Consumer<String> remoteSearch, Runnable showAll) {
+        this.table = table;
+        this.searchField = searchField;
+        this.resident = resident;
+        this.remoteSearch = remoteSearch;
+        this.showAll = showAll;
+
+        sorter = new TableRowSorter<>(table.getModel()) {
+            @Override
+            public void toggleSortOrder(int column) {
+                // Sorting reads every row, which would page the whole table in
+                if (TableFilter.this.resident.getAsBoolean()) {
+                    super.toggleSortOrder(column);
+                }
+            }
+        };
+        sorter.setSortsOnUpdates(true);
+        table.setRowSorter(sorter);
+        table.getModel().addTableModelListener(this::modelChanged);
+
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> apply());
+        debounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+    }
+
+    /**
+     * Apply the search text now, e.g. when the search button is pressed
+     */
+    void apply() {
+        debounce.stop();
+        String query = searchField.getText().trim();
+        String text = query.toLowerCase(Locale.ROOT);
+
+        if (text.isEmpty()) {
+            terms = new String[0];
+            sorter.setRowFilter(null);
+            if (remoteActive) {
+                remoteActive = false;
+                showAll.run();
+            }
+            return;
+        }
+
+        if (!remoteActive && resident.getAsBoolean()) {
+            terms = text.split("\\s+");
+            sorter.setRowFilter(new RowFilter<TableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                    return matches(entry.getIdentifier());
+                }
+            });
+            return;
+        }
+
+        // Sort keys first: clearing the filter while they are set would re-sort every row
+        sorter.setSortKeys(null);
+        sorter.setRowFilter(null);
+        remoteActive = true;
+        remoteSearch.accept(query);
+    }
+
+    /**
+     * Index of the selected row in the model, or -1 when nothing is selected
+     */
+    int getSelectedModelRow() {
+        int viewRow = table.getSelectedRow();
+        return viewRow >= 0 ? table.convertRowIndexToModel(viewRow) : -1;
+    }
+
+    /**
+     * Clear the local sort and filter of a model that no longer holds every
+     * row, so the sorter does not read them all back in
+     */
+    private void dropLocalOrder() {
+        if (!sorter.getSortKeys().isEmpty()) {
+            sorter.setSortKeys(null);
+        }
+        if (!remoteActive && sorter.getRowFilter() != null) {
+            sorter.setRowFilter(null);
+            terms = new String[0];
+            keys = null;
+            // Let the database search take over once this event is done
+            debounce.restart();
+        }
+    }
+
+    private boolean matches(int modelRow) {
+        String key = keyOf(modelRow);
+        for (String term : terms) {
+            if (!key.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String keyOf(int modelRow) {
+        TableModel model = table.getModel();
+        if (keys == null || keys.length != model.getRowCount()) {
+            keys = new String[model.getRowCount()];
+        }
+        String key = keys[modelRow];
+        if (key == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int column = 0; column < model.getColumnCount(); column++) {
+                Object value = model.getValueAt(modelRow, column);
+                if (value != null) {
+                    builder.append(value.toString().toLowerCase(Locale.ROOT)).append('\u0001');
+                }
+            }
+            key = builder.toString();
+            keys[modelRow] = key;
+        }
+        return key;
+    }
+
+    /**
+     * Drop the keys of changed rows; they are rebuilt when next matched. Model
+     * listeners are notified newest first, so this runs before the table hands
+     * the change to the sorter.
+     */
+    private void modelChanged(TableModelEvent e) {
+        if (!resident.getAsBoolean()) {
+            dropLocalOrder();
+        }
+        if (keys == null) {
+            return;
+        }
+        if (e.getType() == TableModelEvent.UPDATE && e.getFirstRow() >= 0
+                && e.getLastRow() != Integer.MAX_VALUE && e.getLastRow() < keys.length) {
+            for (int row = e.getFirstRow(); row <= e.getLastRow(); row++) {
+                keys[row] = null;
+            }
+        } else {
+            // Inserts, deletes and full reloads shift rows, so rebuild lazily
+            keys = null;
+        }
+    }
+}
\ No newline at end of file
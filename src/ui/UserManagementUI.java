@@ -2,46 +2,42 @@ package ui;
 
 import dao.UserDAO;
 import model.User;
+import util.DataAccessExecutor;
 import util.SessionManager;
-import exception.DatabaseException;
-import exception.ValidationException;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
-import java.util.List;
 
-public class UserManagementUI extends JFrame {
+public class UserManagementUI extends JFrame implements ReusableScreen {
     
     private JTextField txtUsername, txtFullName, txtEmail, txtPassword, txtSearch;
     private JComboBox<String> cmbRole, cmbStatus;
     private JTable userTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<User> tableModel;
+    private TableFilter tableFilter;
     private JButton btnAdd, btnUpdate, btnDelete, btnReset, btnClear, btnSearch;
     
     private UserDAO userDAO;
     private int selectedUserId = -1;
     
-    public UserManagementUI() {
-        
+    private final DataAccessExecutor.TaskSlot selectionSlot = new DataAccessExecutor.TaskSlot();
+    
+    /**
+     * Build the screen for an admin; anyone else is told they may not and gets null
+     */
+    static UserManagementUI create() throws SQLException {
         if (!SessionManager.getInstance().isAdmin()) {
             JOptionPane.showMessageDialog(null, 
                 "Access Denied! Admin privileges required.",
                 "Access Denied", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
-        }
-        
-        try {
-            userDAO = new UserDAO();
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, 
-                "Database connection error: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-            dispose();
-            return;
+            return null;
         }
+        return new UserManagementUI();
+    }
+    
+    private UserManagementUI() throws SQLException {
+        userDAO = new UserDAO();
         
         setTitle("User Management (Admin)");
         setSize(1000, 700);
@@ -138,7 +134,7 @@ public class UserManagementUI extends JFrame {
         searchPanel.add(txtSearch);
         
         btnSearch = createButton("🔍 Search", new Color(155, 89, 182));
-        btnSearch.addActionListener(e -> searchUsers());
+        btnSearch.addActionListener(e -> tableFilter.apply());
         searchPanel.add(btnSearch);
         
         JButton btnRefresh = createButton("🔄 Refresh", new Color(26, 188, 156));
@@ -149,12 +145,16 @@ public class UserManagementUI extends JFrame {
         tablePanel.setBorder(BorderFactory.createTitledBorder("User List"));
         
         String[] columns = {"ID", "Username", "Full Name", "Email", "Role", "Status", "Last Login"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new PagedTableModel<>(columns, (user, column) -> switch (column) {
+            case 0 -> user.getUserId();
+            case 1 -> user.getUsername();
+            case 2 -> user.getFullName();
+            case 3 -> user.getEmail();
+            case 4 -> user.getRole();
+            case 5 -> user.getStatus();
+            default -> user.getLastLogin() != null ? user.getLastLogin().toString() : "Never";
+        });
+        tableModel.setErrorHandler(this::showError);
         
         userTable = new JTable(tableModel);
         userTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -163,6 +163,9 @@ public class UserManagementUI extends JFrame {
                 loadSelectedUser();
             }
         });
+        tableFilter = new TableFilter(userTable, txtSearch, tableModel::isFullyResident,
+            term -> tableModel.setLoader((after, pageSize) -> userDAO.searchUsersPage(term, after, pageSize)),
+            this::loadUsers);
         
         JScrollPane scrollPane = new JScrollPane(userTable);
         tablePanel.add(scrollPane, BorderLayout.CENTER);
@@ -217,36 +220,28 @@ public class UserManagementUI extends JFrame {
         return button;
     }
     
+    /**
+     * Reload the first page, cheap for a table of users, and search it again
+     */
+    @Override
+    public void refresh() {
+        loadUsers();
+        tableFilter.apply();
+    }
+    
     private void loadUsers() {
-        try {
-            List<User> users = userDAO.getAllUsers();
-            tableModel.setRowCount(0);
-            
-            for (User user : users) {
-                Object[] row = {
-                    user.getUserId(),
-                    user.getUsername(),
-                    user.getFullName(),
-                    user.getEmail(),
-                    user.getRole(),
-                    user.getStatus(),
-                    user.getLastLogin() != null ? user.getLastLogin().toString() : "Never"
-                };
-                tableModel.addRow(row);
-            }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.setLoader((after, pageSize) -> userDAO.getUsersPage(
+            after != null ? after.getUsername() : null, pageSize));
     }
     
     private void loadSelectedUser() {
-        int selectedRow = userTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            selectedUserId = (int) tableModel.getValueAt(selectedRow, 0);
+        int selectedRow = tableFilter.getSelectedModelRow();
+        User selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null;
+        if (selected != null) {
+            selectedUserId = selected.getUserId();
+            int userId = selectedUserId;
             
-            try {
-                User user = userDAO.getUserById(selectedUserId);
+            selectionSlot.submit(this, progress -> userDAO.getUserById(userId), user -> {
                 if (user != null) {
                     txtUsername.setText(user.getUsername());
                     txtFullName.setText(user.getFullName());
@@ -255,34 +250,28 @@ public class UserManagementUI extends JFrame {
                     cmbRole.setSelectedItem(user.getRole());
                     cmbStatus.setSelectedItem(user.getStatus());
                 }
-            } catch (DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
     private void addUser() {
-        try {
-            User user = new User();
-            user.setUsername(txtUsername.getText().trim());
-            user.setPassword(txtPassword.getText().trim());
-            user.setFullName(txtFullName.getText().trim());
-            user.setEmail(txtEmail.getText().trim());
-            user.setRole((String) cmbRole.getSelectedItem());
-            user.setStatus((String) cmbStatus.getSelectedItem());
-            
-            if (userDAO.addUser(user)) {
+        User user = new User();
+        user.setUsername(txtUsername.getText().trim());
+        user.setPassword(txtPassword.getText().trim());
+        user.setFullName(txtFullName.getText().trim());
+        user.setEmail(txtEmail.getText().trim());
+        user.setRole((String) cmbRole.getSelectedItem());
+        user.setStatus((String) cmbStatus.getSelectedItem());
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> userDAO.addUser(user), added -> {
+            if (added) {
                 JOptionPane.showMessageDialog(this, 
                     "User added successfully!", 
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadUsers();
             }
-        } catch (ValidationException | DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void updateUser() {
@@ -293,26 +282,23 @@ public class UserManagementUI extends JFrame {
             return;
         }
         
-        try {
-            User user = new User();
-            user.setUserId(selectedUserId);
-            user.setUsername(txtUsername.getText().trim());
-            user.setFullName(txtFullName.getText().trim());
-            user.setEmail(txtEmail.getText().trim());
-            user.setRole((String) cmbRole.getSelectedItem());
-            user.setStatus((String) cmbStatus.getSelectedItem());
-            
-            if (userDAO.updateUser(user)) {
+        User user = new User();
+        user.setUserId(selectedUserId);
+        user.setUsername(txtUsername.getText().trim());
+        user.setFullName(txtFullName.getText().trim());
+        user.setEmail(txtEmail.getText().trim());
+        user.setRole((String) cmbRole.getSelectedItem());
+        user.setStatus((String) cmbStatus.getSelectedItem());
+        
+        DataAccessExecutor.getInstance().submit(this, progress -> userDAO.updateUser(user), updated -> {
+            if (updated) {
                 JOptionPane.showMessageDialog(this, 
                     "User updated successfully!", 
                     "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
                 loadUsers();
             }
-        } catch (ValidationException | DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, this::showError);
     }
     
     private void deleteUser() {
@@ -328,18 +314,16 @@ public class UserManagementUI extends JFrame {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                if (userDAO.deleteUser(selectedUserId)) {
+            int userId = selectedUserId;
+            DataAccessExecutor.getInstance().submit(this, progress -> userDAO.deleteUser(userId), deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, 
                         "User deleted successfully!", 
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                     clearForm();
                     loadUsers();
                 }
-            } catch (DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
@@ -356,46 +340,20 @@ public class UserManagementUI extends JFrame {
             "Reset Password", JOptionPane.QUESTION_MESSAGE);
         
         if (newPassword != null && !newPassword.trim().isEmpty()) {
-            try {
-                if (userDAO.resetPassword(selectedUserId, newPassword)) {
+            int userId = selectedUserId;
+            DataAccessExecutor.getInstance().submit(this, progress -> userDAO.resetPassword(userId, newPassword), reset -> {
+                if (reset) {
                     JOptionPane.showMessageDialog(this, 
                         "Password reset successfully!", 
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                 }
-            } catch (ValidationException | DatabaseException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, this::showError);
         }
     }
     
-    private void searchUsers() {
-        String searchTerm = txtSearch.getText().trim();
-        if (searchTerm.isEmpty()) {
-            loadUsers();
-            return;
-        }
-        
-        try {
-            List<User> users = userDAO.searchUsers(searchTerm);
-            tableModel.setRowCount(0);
-            
-            for (User user : users) {
-                Object[] row = {
-                    user.getUserId(),
-                    user.getUsername(),
-                    user.getFullName(),
-                    user.getEmail(),
-                    user.getRole(),
-                    user.getStatus(),
-                    user.getLastLogin() != null ? user.getLastLogin().toString() : "Never"
-                };
-                tableModel.addRow(row);
-            }
-        } catch (DatabaseException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+    private void showError(Exception e) {
+        JOptionPane.showMessageDialog(this, e.getMessage(), 
+            "Error", JOptionPane.ERROR_MESSAGE);
     }
     
     private void clearForm() {
@@ -0,0 +1,96 @@
+package ui;
+
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import java.awt.Frame;
+import java.lang.ref.SoftReference;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Window Registry - Singleton Pattern
+ * Keeps one instance of each screen opened from the Dashboard. Closing a
+ * screen disposes it, which releases its native resources but keeps its
+ * components and loaded data, so opening it again only has to show it.
+ * Screens are held through soft references: under memory pressure the JVM may
+ * reclaim closed ones, and they are then built from scratch on the next open.
+ *
+ * A reopened ReusableScreen is asked to bring itself up to date. It pulls only
+ * what changed in the database since its last load, from the change feed or
+ * ReferenceData, so changes made on other workstations are picked up as well
+ * and a screen nothing happened to costs a query or two, not a reload.
+ */
+class WindowRegistry {
+
+    private static WindowRegistry instance;
+
+    private final Map<Class<? extends JFrame>, SoftReference<JFrame>> screens = new ConcurrentHashMap<>();
+
+    private WindowRegistry() {
+    }
+
+    /**
+     * Get singleton instance; only used on the EDT
+     */
+    static WindowRegistry getInstance() {
+        if (instance == null) {
+            instance = new WindowRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Builds a screen. Returns null when the screen is not to be shown and the
+     * user has already been told why, e.g. for lack of privileges.
+     */
+    interface ScreenFactory<T> {
+        T create() throws SQLException;
+    }
+
+    /**
+     * Bring the screen to the front, reusing the open or closed instance if
+     * there is one and building it with the factory otherwise
+     */
+    <T extends JFrame> void open(Class<T> type, ScreenFactory<T> factory) {
+        SoftReference<JFrame> reference = screens.get(type);
+        JFrame frame = reference != null ? reference.get() : null;
+
+        if (frame == null) {
+            try {
+                frame = factory.create();
+            } catch (SQLException e) {
+                JOptionPane.showMessageDialog(null,
+                    "Database connection error: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (frame == null) {
+                return;
+            }
+            screens.put(type, new SoftReference<>(frame));
+        } else if (!frame.isShowing() && frame instanceof ReusableScreen) {
+            ((ReusableScreen) frame).refresh();
+        }
+
+        frame.setVisible(true);
+        if ((frame.getExtendedState() & Frame.ICONIFIED) != 0) {
+            frame.setExtendedState(frame.getExtendedState() & ~Frame.ICONIFIED);
+        }
+        frame.toFront();
+    }
+
+    /**
+     * Dispose and forget every screen, e.g. on logout so the next user starts fresh
+     */
+    void closeAll() {
+        for (SoftReference<JFrame> reference : new ArrayList<>(screens.values())) {
+            JFrame frame = reference.get();
+            if (frame != null) {
+                frame.dispose();
+            }
+        }
+        screens.clear();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,696 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections are borrowed per operation and handed back by calling close()
+ * on the returned connection, so callers should always use try-with-resources.
+ *
+ * Each physical connection keeps an LRU cache of prepared statements keyed by
+ * SQL text. Closing a cached statement only resets it, so the next
+ * prepareStatement() call for the same SQL on that connection skips parsing
+ * and planning. This is transparent to callers. Queries with IN lists round
+ * their placeholder count up to a few fixed sizes, so they reuse cache entries
+ * rather than filling the cache with one statement per list length.
+ *
+ * An optional decorator wraps each physical connection once, when it is
+ * opened, so that a wrapper such as QueryMetrics costs nothing per borrow and
+ * its statements are cached along with the connection's own.
+ *
+ * Connections held longer than the leak threshold are reported. Recording
+ * where each one was borrowed costs a stack trace per borrow, so it is only
+ * done when leak tracing is switched on; work that legitimately holds a
+ * connection for minutes borrows it with its own, longer threshold.
+ */
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakTrace;
+    private final int statementCacheSize;
+    private final UnaryOperator<Connection> decorator;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> activeConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) throws SQLException {
+        this(url, username, password, minSize, maxSize, borrowTimeoutMillis, idleTimeoutMillis,
+             leakThresholdMillis, false, statementCacheSize, UnaryOperator.identity());
+    }
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, boolean leakTrace,
+                          int statementCacheSize, UnaryOperator<Connection> decorator) throws SQLException {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakTrace = leakTrace;
+        this.statementCacheSize = statementCacheSize;
+        this.decorator = decorator;
+        this.permits = new Semaphore(maxSize, true);
+
+        openInParallel(minSize);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sams-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout for one to free up
+     */
+    public Connection getConnection() throws SQLException {
+        return getConnection(leakThresholdMillis);
+    }
+
+    /**
+     * Borrow a connection that is only reported as a leak once held longer than
+     * the given time, or never if it is 0. Meant for streaming and bulk work
+     * that holds its connection for as long as the job runs.
+     */
+    public Connection getConnection(long leakThresholdMillis) throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timeoutCount.incrementAndGet();
+            throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis +
+                                                      " ms waiting for a database connection");
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+            borrowCount.incrementAndGet();
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.leakThresholdMillis = leakThresholdMillis;
+            pooled.borrowSite = leakTrace && leakThresholdMillis > 0 ? new Exception("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            activeConnections.add(pooled);
+            return pooled.newLease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MILLIS) {
+                return pooled;
+            }
+            if (isUsable(pooled.physical)) {
+                return pooled;
+            }
+            closeQuietly(pooled.physical);
+        }
+        return openPhysicalConnection();
+    }
+
+    private boolean isUsable(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open the initial connections concurrently, so a cold start waits for one
+     * handshake rather than one per connection
+     */
+    private void openInParallel(int count) throws SQLException {
+        List<Future<PooledConnection>> opening = new ArrayList<>();
+        try (ExecutorService opener = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                opening.add(opener.submit(this::openPhysicalConnection));
+            }
+        }
+
+        SQLException failure = null;
+        for (Future<PooledConnection> connection : opening) {
+            try {
+                idleConnections.offerLast(connection.get());
+            } catch (ExecutionException | InterruptedException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (failure == null) {
+                    failure = cause instanceof SQLException ? (SQLException) cause
+                        : new SQLTransientConnectionException("Could not open a database connection", cause);
+                }
+            }
+        }
+        if (failure != null) {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                closeQuietly(pooled.physical);
+            }
+            throw failure;
+        }
+    }
+
+    private PooledConnection openPhysicalConnection() throws SQLException {
+        return new PooledConnection(decorator.apply(DriverManager.getConnection(url, username, password)));
+    }
+
+    private void release(PooledConnection pooled) {
+        activeConnections.remove(pooled);
+        try {
+            pooled.closeStatements();
+            pooled.returnCachedStatements();
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            pooled.borrowSite = null;
+
+            if (shutdown || pooled.physical.isClosed()) {
+                closeQuietly(pooled.physical);
+            } else {
+                // LIFO so the most recently used (warmest) connection is handed out next
+                idleConnections.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            closeQuietly(pooled.physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Evict idle connections above the minimum size, top the pool back up to
+     * the minimum and report connections held longer than the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && idleConnections.size() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsedAt > idleTimeoutMillis && idleConnections.remove(pooled)) {
+                closeQuietly(pooled.physical);
+            }
+        }
+
+        while (!shutdown && idleConnections.size() + activeConnections.size() < minSize) {
+            try {
+                idleConnections.offerLast(openPhysicalConnection());
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not refill: " + e.getMessage());
+                break;
+            }
+        }
+
+        for (PooledConnection pooled : activeConnections) {
+            long threshold = pooled.leakThresholdMillis;
+            if (threshold > 0 && !pooled.leakReported && now - pooled.borrowedAt > threshold) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for " +
+                                   (now - pooled.borrowedAt) + " ms");
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool statistics
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.get();
+        double averageWaitMillis = borrows > 0 ? totalWaitNanos.get() / 1_000_000.0 / borrows : 0;
+        return new PoolStats(activeConnections.size(), idleConnections.size(), waiters.get(),
+                             maxSize, borrows, averageWaitMillis, timeoutCount.get(), leakCount.get(),
+                             statementHits.get(), statementMisses.get(), statementEvictions.get());
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Close every idle connection; borrowed connections are closed when returned
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            // the connection or statement is being discarded anyway
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool
+     */
+    private class PooledConnection {
+        final Connection physical;
+        final List<Statement> openStatements = new ArrayList<>();
+        final Map<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true);
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile long leakThresholdMillis;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        synchronized void track(Statement statement) {
+            openStatements.add(statement);
+        }
+
+        synchronized void closeStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // ignore, the statement is already unusable
+                }
+            }
+            openStatements.clear();
+        }
+
+        /**
+         * Hand out the cached statement for the key, preparing and caching it on a
+         * miss. If it is already in use (the same SQL prepared twice within one
+         * borrow), an uncached statement is returned instead.
+         */
+        synchronized PreparedStatement prepareCached(String key, Connection lease, Method method, Object[] args)
+                throws Throwable {
+            CachedStatement cached = statementCache.get(key);
+            if (cached != null && !cached.inUse) {
+                statementHits.incrementAndGet();
+                return cached.checkOut(lease);
+            }
+
+            statementMisses.incrementAndGet();
+            PreparedStatement statement = (PreparedStatement) invokePhysical(method, args);
+            if (cached != null) {
+                track(statement);
+                return statement;
+            }
+
+            cached = new CachedStatement(this, key, statement);
+            statementCache.put(key, cached);
+            PreparedStatement checkedOut = cached.checkOut(lease);
+            evictStatements();
+            return checkedOut;
+        }
+
+        private void evictStatements() {
+            Iterator<CachedStatement> it = statementCache.values().iterator();
+            while (statementCache.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                if (!eldest.inUse) {
+                    it.remove();
+                    statementEvictions.incrementAndGet();
+                    closeQuietly(eldest.physical);
+                }
+            }
+        }
+
+        /**
+         * Called when the caller closes a cached statement. It is reset and kept,
+         * unless the caller changed its settings or it can no longer be reset.
+         */
+        synchronized void checkIn(CachedStatement cached) {
+            if (!cached.inUse) {
+                return;
+            }
+            cached.inUse = false;
+            if (cached.discard || !reset(cached.physical)) {
+                statementCache.remove(cached.key, cached);
+                closeQuietly(cached.physical);
+            }
+        }
+
+        /**
+         * Take back cached statements the caller left open
+         */
+        synchronized void returnCachedStatements() {
+            for (CachedStatement cached : new ArrayList<>(statementCache.values())) {
+                checkIn(cached);
+            }
+            evictStatements();
+        }
+
+        private boolean reset(PreparedStatement statement) {
+            try {
+                ResultSet rs = statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Cache key for a prepareStatement() call: the SQL plus any int options
+     * (generated keys, result set type and concurrency). Calls passing column
+     * indexes or names, or no SQL at all, are not cached.
+     */
+    private static String statementKey(Object[] args) {
+        if (!(args[0] instanceof String)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder((String) args[0]);
+        for (int i = 1; i < args.length; i++) {
+            if (!(args[i] instanceof Integer)) {
+                return null;
+            }
+            key.append('\u0000').append(args[i]);
+        }
+        return key.toString();
+    }
+
+    /**
+     * A prepared statement kept open by its connection. Callers get a proxy whose
+     * close() returns it to the cache instead of closing it.
+     */
+    private class CachedStatement implements InvocationHandler {
+        // Changing any of these makes the statement unsuitable for the next caller
+        private static final Set<String> DISCARD_ON = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "cancel");
+
+        final PooledConnection owner;
+        final String key;
+        final PreparedStatement physical;
+        final PreparedStatement proxy;
+        volatile boolean inUse;
+        volatile boolean discard;
+        volatile Connection lease;
+
+        CachedStatement(PooledConnection owner, String key, PreparedStatement physical) {
+            this.owner = owner;
+            this.key = key;
+            this.physical = physical;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        PreparedStatement checkOut(Connection lease) {
+            this.lease = lease;
+            inUse = true;
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    owner.checkIn(this);
+                    return null;
+                case "isClosed":
+                    return !inUse || physical.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + physical + "]";
+                default:
+                    break;
+            }
+
+            if (!inUse) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if (DISCARD_ON.contains(method.getName())) {
+                discard = true;
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * The handle given to callers. Closing it returns the physical connection
+     * to the pool; any statements left open by the caller are closed with it.
+     */
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Set by the borrowing thread, but the leak detector and others may ask isClosed()
+        private volatile boolean closed;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement")) {
+                String key = statementKey(args);
+                if (key != null) {
+                    return pooled.prepareCached(key, (Connection) proxy, method, args);
+                }
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    pooled.track((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool usage
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int waiters;
+        private final int maxSize;
+        private final long borrowCount;
+        private final double averageWaitMillis;
+        private final long timeoutCount;
+        private final long leakCount;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        PoolStats(int active, int idle, int waiters, int maxSize, long borrowCount,
+                  double averageWaitMillis, long timeoutCount, long leakCount,
+                  long statementHits, long statementMisses, long statementEvictions) {
+            this.active = active;
+            this.idle = idle;
+            this.waiters = waiters;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.timeoutCount = timeoutCount;
+            this.leakCount = leakCount;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getWaiters() {
+            return waiters;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public double getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getLeakCount() {
+            return leakCount;
+        }
+
+        public long getStatementHits() {
+            return statementHits;
+        }
+
+        public long getStatementMisses() {
+            return statementMisses;
+        }
+
+        public long getStatementEvictions() {
+            return statementEvictions;
+        }
+
+        public double getStatementHitRate() {
+            long lookups = statementHits + statementMisses;
+            return lookups > 0 ? (double) statementHits / lookups : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, waiters=%d, max=%d, borrows=%d, " +
+                                 "avgWait=%.2f ms, timeouts=%d, leaks=%d, " +
+                                 "statementHits=%d, statementMisses=%d, statementEvictions=%d, " +
+                                 "statementHitRate=%.1f%%",
+                                 active, idle, waiters, maxSize, borrowCount,
+                                 averageWaitMillis, timeoutCount, leakCount,
+                                 statementHits, statementMisses, statementEvictions,
+                                 getStatementHitRate() * 100);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one row at a time, the counterpart of CsvWriter. Quoted
+ * fields may contain commas, doubled quotes and line breaks; rows may end in
+ * CRLF or LF. Only the current row is held in memory, so files of any size
+ * can be read. A leading UTF-8 byte order mark is skipped.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;
+    private long line = 1;
+    private long rowLine;
+
+    public CsvReader(InputStream in) throws IOException {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        int first = this.in.read();
+        if (first != '\uFEFF') {
+            pushedBack = first;
+        }
+    }
+
+    /**
+     * Read the next row, or return null at the end of the input. Blank lines are skipped.
+     */
+    public String[] readRow() throws IOException {
+        List<String> values = new ArrayList<>();
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            skipLineEnd(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        rowLine = line;
+
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            values.add(field.toString());
+
+            if (c == ',') {
+                c = read();
+            } else {
+                if (c != -1) {
+                    skipLineEnd(c);
+                }
+                return values.toArray(new String[0]);
+            }
+        }
+    }
+
+    /**
+     * Line number on which the row last returned by readRow() starts
+     */
+    public long getRowLine() {
+        return rowLine;
+    }
+
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated quoted field starting on line " + rowLine);
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    // Closing quote; anything up to the next separator is kept as-is
+                    while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                        field.append((char) c);
+                        c = read();
+                    }
+                    return c;
+                }
+            } else if (c == '\n') {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    /**
+     * Finish a line that ended in c, consuming the LF of a CRLF
+     */
+    private void skipLineEnd(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pushedBack = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package util;
+
+import javax.swing.JComponent;
+import javax.swing.RootPaneContainer;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Data Access Executor - Singleton Pattern
+ * Runs DAO and JDBC work on virtual threads so the Event Dispatch Thread never
+ * blocks on the database. Results, errors and progress are delivered back on the EDT.
+ */
+public class DataAccessExecutor {
+
+    private static volatile DataAccessExecutor instance;
+    private final ExecutorService executor;
+
+    private static final String BUSY_COUNT_KEY = "sams.busyCount";
+
+    private DataAccessExecutor() {
+        executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sams-data-", 0).factory());
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static DataAccessExecutor getInstance() {
+        if (instance == null) {
+            synchronized (DataAccessExecutor.class) {
+                if (instance == null) {
+                    instance = new DataAccessExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Work to run off the EDT. Long running tasks should report through
+     * the progress handle and stop early once it is cancelled.
+     */
+    public interface Task<T> {
+        T call(Progress progress) throws Exception;
+    }
+
+    /**
+     * Handed to a running task so it can report progress and observe cancellation
+     */
+    public interface Progress {
+        void update(long done, long total);
+        boolean isCancelled();
+    }
+
+    /**
+     * Receives progress updates on the EDT
+     */
+    public interface ProgressListener {
+        void onProgress(long done, long total);
+    }
+
+    /**
+     * Run a task in the background. While it runs the owner shows a wait cursor.
+     */
+    public <T> TaskHandle submit(Component owner, Task<T> task,
+                                 Consumer<? super T> onSuccess, Consumer<? super Exception> onError) {
+        return submit(owner, task, onSuccess, onError, null);
+    }
+
+    /**
+     * Run a task in the background, forwarding its progress to the listener
+     */
+    public <T> TaskHandle submit(Component owner, Task<T> task, Consumer<? super T> onSuccess,
+                                 Consumer<? super Exception> onError, ProgressListener listener) {
+        TaskHandle handle = new TaskHandle(listener);
+        setBusy(owner, true);
+
+        executor.execute(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                if (!handle.cancelled) {
+                    result = task.call(handle);
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            T finalResult = result;
+            Exception finalFailure = failure;
+            SwingUtilities.invokeLater(() -> {
+                setBusy(owner, false);
+                handle.done = true;
+                if (handle.cancelled) {
+                    return;
+                }
+                if (finalFailure != null) {
+                    if (onError != null) {
+                        onError.accept(finalFailure);
+                    }
+                } else if (onSuccess != null) {
+                    onSuccess.accept(finalResult);
+                }
+            });
+        });
+        return handle;
+    }
+
+    private void setBusy(Component owner, boolean busy) {
+        if (owner == null) {
+            return;
+        }
+        Runnable update = () -> {
+            JComponent root = owner instanceof RootPaneContainer
+                ? ((RootPaneContainer) owner).getRootPane()
+                : null;
+            if (root == null) {
+                owner.setCursor(Cursor.getPredefinedCursor(busy ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+                return;
+            }
+            Integer count = (Integer) root.getClientProperty(BUSY_COUNT_KEY);
+            int pending = (count != null ? count : 0) + (busy ? 1 : -1);
+            root.putClientProperty(BUSY_COUNT_KEY, Math.max(pending, 0));
+            owner.setCursor(Cursor.getPredefinedCursor(pending > 0 ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            update.run();
+        } else {
+            SwingUtilities.invokeLater(update);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle to a submitted task
+     */
+    public static class TaskHandle implements Progress {
+        private final ProgressListener listener;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        TaskHandle(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Cancel the task; its callbacks will not run. The thread is not
+         * interrupted because that would tear down the pooled connection's
+         * socket, so long tasks should poll isCancelled() instead.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void update(long doneCount, long total) {
+            if (listener != null && !cancelled) {
+                SwingUtilities.invokeLater(() -> {
+                    if (!cancelled) {
+                        listener.onProgress(doneCount, total);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Holds the latest task for one screen operation. Submitting through the
+     * slot cancels the previous task, so a stale result never overwrites a newer one.
+     */
+    public static class TaskSlot {
+        private TaskHandle current;
+
+        public synchronized <T> TaskHandle submit(Component owner, Task<T> task,
+                                                  Consumer<? super T> onSuccess,
+                                                  Consumer<? super Exception> onError) {
+            return submit(owner, task, onSuccess, onError, null);
+        }
+
+        public synchronized <T> TaskHandle submit(Component owner, Task<T> task,
+                                                  Consumer<? super T> onSuccess,
+                                                  Consumer<? super Exception> onError,
+                                                  ProgressListener listener) {
+            cancel();
+            current = getInstance().submit(owner, task, onSuccess, onError, listener);
+            return current;
+        }
+
+        public synchronized void cancel() {
+            if (current != null && !current.isDone()) {
+                current.cancel();
+            }
+            current = null;
+        }
+    }
+}
\ No newline at end of file
@@ -1,32 +1,50 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.function.UnaryOperator;
 
 public class DatabaseConnection {
-    
-    private static DatabaseConnection instance;
-    private Connection connection;
 
-    private static final String URL = "jdbc:mysql://localhost:3306/sams_db";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = ""; 
+    private static volatile DatabaseConnection instance;
+    private final ConnectionPool pool;
+
+    // Overridable so the benchmarks can point the DAOs at an embedded database
+    private static final String DRIVER = System.getProperty("sams.db.driver", "com.mysql.cj.jdbc.Driver");
+    private static final String URL = System.getProperty("sams.db.url",
+        "jdbc:mysql://localhost:3306/sams_db?rewriteBatchedStatements=true&useServerPrepStmts=true");
+    private static final String USERNAME = System.getProperty("sams.db.user", "root");
+    private static final String PASSWORD = System.getProperty("sams.db.password", "");
+
+    private static final int MIN_POOL_SIZE = Integer.getInteger("sams.pool.minSize", 2);
+    private static final int MAX_POOL_SIZE = Integer.getInteger("sams.pool.maxSize", 10);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("sams.pool.borrowTimeoutMs", 10_000);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("sams.pool.idleTimeoutMs", 300_000);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("sams.pool.leakThresholdMs", 60_000);
+    private static final long LONG_LEAK_THRESHOLD_MS = Long.getLong("sams.pool.longLeakThresholdMs", 1_800_000);
+    private static final boolean LEAK_TRACE = Boolean.getBoolean("sams.pool.leakTrace");
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("sams.pool.statementCacheSize", 50);
+    private static final boolean QUERY_METRICS = Boolean.parseBoolean(System.getProperty("sams.metrics.enabled", "true"));
+    private static final int QUERY_REPORT_SIZE = 10;
 
     private DatabaseConnection() throws SQLException {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+            Class.forName(DRIVER);
+            this.pool = new ConnectionPool(URL, USERNAME, PASSWORD, MIN_POOL_SIZE, MAX_POOL_SIZE,
+                                           BORROW_TIMEOUT_MS, IDLE_TIMEOUT_MS, LEAK_THRESHOLD_MS, LEAK_TRACE,
+                                           STATEMENT_CACHE_SIZE,
+                                           QUERY_METRICS ? QueryMetrics.getInstance()::instrument
+                                                         : UnaryOperator.identity());
             System.out.println("Database connected successfully!");
         } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL Driver not found", e);
+            throw new SQLException("JDBC driver not found: " + DRIVER, e);
         }
     }
 
     public static DatabaseConnection getInstance() throws SQLException {
-        if (instance == null || instance.getConnection().isClosed()) {
+        if (instance == null || instance.pool.isShutdown()) {
             synchronized (DatabaseConnection.class) {
-                if (instance == null || instance.getConnection().isClosed()) {
+                if (instance == null || instance.pool.isShutdown()) {
                     instance = new DatabaseConnection();
                 }
             }
@@ -34,18 +52,38 @@ public class DatabaseConnection {
         return instance;
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Borrow a pooled connection. Closing it returns it to the pool,
+     * so always use it in a try-with-resources block. Unless sams.metrics.enabled
+     * is false, its statements are recorded in QueryMetrics; the pool wraps each
+     * physical connection for that once, when it opens it.
+     */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    /**
+     * Borrow a pooled connection for an export, import or recompute that holds it
+     * for as long as the job runs. It is only reported as a leak after
+     * sams.pool.longLeakThresholdMs rather than the usual threshold.
+     */
+    public Connection getLongRunningConnection() throws SQLException {
+        return pool.getConnection(LONG_LEAK_THRESHOLD_MS);
+    }
+
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
     }
 
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        System.out.println("Connection pool: " + pool.getStats());
+        if (QUERY_METRICS) {
+            System.out.println("Queries by total time:");
+            QueryMetrics.getInstance().getStats().stream()
+                .limit(QUERY_REPORT_SIZE)
+                .forEach(stats -> System.out.println("  " + stats));
         }
+        pool.shutdown();
+        System.out.println("Database connection closed.");
     }
 }
\ No newline at end of file
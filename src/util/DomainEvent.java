@@ -0,0 +1,75 @@
+package util;
+
+/**
+ * A committed change to a student, course or enrollment, published by the DAOs
+ * after the write succeeds. Entities with a status carry it from before and after
+ * the change, so listeners can keep derived counts current without re-querying.
+ */
+public class DomainEvent {
+
+    public enum Entity {
+        STUDENT, COURSE, ENROLLMENT
+    }
+
+    public enum Change {
+        ADDED, UPDATED, DELETED
+    }
+
+    private final Entity entity;
+    private final Change change;
+    private final int id;
+    private final String oldStatus;
+    private final String newStatus;
+
+    private DomainEvent(Entity entity, Change change, int id, String oldStatus, String newStatus) {
+        this.entity = entity;
+        this.change = change;
+        this.id = id;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public static DomainEvent added(Entity entity, int id, String status) {
+        return new DomainEvent(entity, Change.ADDED, id, null, status);
+    }
+
+    public static DomainEvent updated(Entity entity, int id, String oldStatus, String newStatus) {
+        return new DomainEvent(entity, Change.UPDATED, id, oldStatus, newStatus);
+    }
+
+    public static DomainEvent deleted(Entity entity, int id, String oldStatus) {
+        return new DomainEvent(entity, Change.DELETED, id, oldStatus, null);
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Status before the change, or null for an added entity
+     */
+    public String getOldStatus() {
+        return oldStatus;
+    }
+
+    /**
+     * Status after the change, or null for a deleted entity
+     */
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    @Override
+    public String toString() {
+        return entity + " " + id + " " + change +
+               (oldStatus != null || newStatus != null ? " (" + oldStatus + " -> " + newStatus + ")" : "");
+    }
+}
\ No newline at end of file
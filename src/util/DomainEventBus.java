@@ -0,0 +1,58 @@
+package util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Domain Event Bus - Singleton Pattern
+ * Delivers DomainEvents from the DAOs to in-process listeners. Events are
+ * delivered synchronously on the publishing thread, so listeners must be
+ * quick and hand anything slow or UI related off to another thread.
+ */
+public class DomainEventBus {
+
+    private static volatile DomainEventBus instance;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private DomainEventBus() {
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static DomainEventBus getInstance() {
+        if (instance == null) {
+            synchronized (DomainEventBus.class) {
+                if (instance == null) {
+                    instance = new DomainEventBus();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public interface Listener {
+        void onEvent(DomainEvent event);
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Deliver an event to every listener. A failing listener never fails the write that published it.
+     */
+    public void publish(DomainEvent event) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                System.err.println("Domain event listener failed for " + event + ": " + e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+package util;
+
+import javax.swing.SwingUtilities;
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.KeyboardFocusManager;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.event.InvocationEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event dispatch thread watchdog. Installed as the system event queue, it
+ * times every event dispatch and records the durations per window class, so
+ * slow screens show up in their p99. A background thread samples the EDT and,
+ * when one dispatch has been running longer than sams.edt.stallMs (200), logs
+ * the stack the EDT is stuck in while it is still stuck there.
+ *
+ * Events not raised by a component, such as invokeLater() callbacks from
+ * background loads, are counted against the active window.
+ */
+public class EdtMonitor extends EventQueue {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sams.edt.monitor", "true"));
+    private static final long STALL_MILLIS = Long.getLong("sams.edt.stallMs", 200);
+    private static final int MAX_STALLS = 50;
+    private static final int LOGGED_FRAMES = 20;
+
+    private static EdtMonitor instance;
+
+    private final long stallNanos = STALL_MILLIS * 1_000_000;
+    private final ConcurrentHashMap<String, LatencyHistogram> dispatchByWindow = new ConcurrentHashMap<>();
+    private final Deque<Stall> stalls = new ArrayDeque<>();
+    private final ScheduledExecutorService watchdog;
+
+    // The dispatch in progress, written by the EDT and sampled by the watchdog
+    private volatile Thread dispatchThread;
+    private volatile long dispatchStart;
+    private volatile long dispatchSequence;
+    private volatile AWTEvent dispatchEvent;
+    private volatile Stall currentStall;
+
+    // EDT only: modal dialogs run a nested dispatch loop inside an outer dispatch
+    private final Deque<AWTEvent> dispatching = new ArrayDeque<>();
+    private boolean nested;
+
+    private EdtMonitor() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sams-edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, STALL_MILLIS / 4);
+        watchdog.scheduleAtFixedRate(this::checkForStall, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Install the monitor on the system event queue unless sams.edt.monitor is
+     * false. Call once at startup; the report is printed when the JVM exits.
+     */
+    public static synchronized void install() {
+        if (!ENABLED || instance != null) {
+            return;
+        }
+        instance = new EdtMonitor();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(instance);
+        Runtime.getRuntime().addShutdownHook(new Thread(instance::printReport, "sams-edt-report"));
+    }
+
+    /**
+     * The installed monitor, or null if it is disabled or not installed
+     */
+    public static synchronized EdtMonitor getInstance() {
+        return instance;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        if (!dispatching.isEmpty()) {
+            nested = true;
+        }
+        dispatching.push(event);
+        dispatchThread = Thread.currentThread();
+        dispatchEvent = event;
+        dispatchSequence++;
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long finished = System.nanoTime();
+            long nanos = finished - start;
+            Stall stall = currentStall;
+            if (stall != null && stall.sequence == dispatchSequence) {
+                stall.durationMillis = nanos / 1_000_000;
+                System.err.println("EDT stall ended after " + stall.durationMillis + " ms in " + stall.window);
+                currentStall = null;
+            }
+
+            dispatching.pop();
+            if (dispatching.isEmpty()) {
+                // A dispatch that hosted a modal dialog spent most of its time in other dispatches
+                if (!nested) {
+                    histogramFor(event).record(nanos);
+                }
+                nested = false;
+                dispatchStart = 0;
+            } else {
+                histogramFor(event).record(nanos);
+                // The outer dispatch resumes now; only its remaining time can stall
+                dispatchEvent = dispatching.peek();
+                dispatchSequence++;
+                dispatchStart = finished;
+            }
+        }
+    }
+
+    private LatencyHistogram histogramFor(AWTEvent event) {
+        return dispatchByWindow.computeIfAbsent(windowName(event), window -> new LatencyHistogram());
+    }
+
+    private static String windowName(AWTEvent event) {
+        Window window = null;
+        if (event.getSource() instanceof Component) {
+            Component source = (Component) event.getSource();
+            window = source instanceof Window ? (Window) source : SwingUtilities.getWindowAncestor(source);
+        }
+        if (window == null) {
+            window = KeyboardFocusManager.getCurrentKeyboardFocusManager().getActiveWindow();
+        }
+        return window != null ? window.getClass().getSimpleName() : "(no window)";
+    }
+
+    /**
+     * Runs on the watchdog thread: capture the EDT's stack once per stalled dispatch
+     */
+    private void checkForStall() {
+        long start = dispatchStart;
+        long sequence = dispatchSequence;
+        Thread thread = dispatchThread;
+        AWTEvent event = dispatchEvent;
+        if (start == 0 || thread == null || event == null || System.nanoTime() - start < stallNanos) {
+            return;
+        }
+        Stall previous = currentStall;
+        if (previous != null && previous.sequence == sequence) {
+            return;
+        }
+
+        StackTraceElement[] stack = thread.getStackTrace();
+        // The EDT may have moved on while the stack was taken
+        if (dispatchSequence != sequence) {
+            return;
+        }
+        Stall stall = new Stall(sequence, windowName(event), describe(event), stack, System.currentTimeMillis());
+        currentStall = stall;
+        synchronized (stalls) {
+            if (stalls.size() == MAX_STALLS) {
+                stalls.pollFirst();
+            }
+            stalls.addLast(stall);
+        }
+
+        StringBuilder message = new StringBuilder("EDT blocked for over " + STALL_MILLIS + " ms in " +
+                                                  stall.window + " handling " + stall.event + ":");
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, stack.length); i++) {
+            message.append("\n\tat ").append(stack[i]);
+        }
+        System.err.println(message);
+    }
+
+    private static String describe(AWTEvent event) {
+        if (event instanceof InvocationEvent) {
+            return "invokeLater";
+        }
+        String name = event.paramString();
+        int comma = name.indexOf(',');
+        return event.getClass().getSimpleName() + " " + (comma >= 0 ? name.substring(0, comma) : name);
+    }
+
+    /**
+     * Dispatch latency per window class, highest p99 first
+     */
+    public List<WindowStats> getStats() {
+        List<WindowStats> stats = new ArrayList<>();
+        dispatchByWindow.forEach((window, histogram) -> stats.add(new WindowStats(window, histogram.getCount(),
+            histogram.getPercentileMillis(0.50), histogram.getPercentileMillis(0.99), histogram.getMaxMillis())));
+        stats.sort(Comparator.comparingDouble(WindowStats::getP99Millis).reversed());
+        return stats;
+    }
+
+    /**
+     * The most recent stalls, oldest first
+     */
+    public List<Stall> getStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    private void printReport() {
+        List<WindowStats> stats = getStats();
+        if (stats.isEmpty()) {
+            return;
+        }
+        System.out.println("EDT dispatch latency by window:");
+        for (WindowStats window : stats) {
+            System.out.println("  " + window);
+        }
+        System.out.println("EDT stalls over " + STALL_MILLIS + " ms: " + getStalls().size());
+    }
+
+    /**
+     * One dispatch that blocked the EDT past the threshold
+     */
+    public static class Stall {
+        private final long sequence;
+        private final String window;
+        private final String event;
+        private final StackTraceElement[] stack;
+        private final long detectedAt;
+        // Set by the EDT when the dispatch finishes; -1 while it is still running
+        private volatile long durationMillis = -1;
+
+        Stall(long sequence, String window, String event, StackTraceElement[] stack, long detectedAt) {
+            this.sequence = sequence;
+            this.window = window;
+            this.event = event;
+            this.stack = stack;
+            this.detectedAt = detectedAt;
+        }
+
+        public String getWindow() {
+            return window;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        /**
+         * Where the EDT was when the stall was detected
+         */
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+
+        public long getDetectedAt() {
+            return detectedAt;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the dispatch latency of one window class
+     */
+    public static class WindowStats {
+        private final String window;
+        private final long dispatches;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        WindowStats(String window, long dispatches, double p50Millis, double p99Millis, double maxMillis) {
+            this.window = window;
+            this.dispatches = dispatches;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getWindow() {
+            return window;
+        }
+
+        public long getDispatches() {
+            return dispatches;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: dispatches=%d, p50=%.2f ms, p99=%.2f ms, max=%.2f ms",
+                                 window, dispatches, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
\ No newline at end of file
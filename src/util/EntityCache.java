@@ -0,0 +1,301 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded, time-limited read-through cache for entities that are read far
+ * more often than they change. Entries are indexed by primary key and by a
+ * natural key (student number, username, course code), and a single snapshot
+ * of the full list can be held for combo boxes.
+ *
+ * Loads run outside the lock. Every invalidation bumps a version, and a load
+ * that started before an invalidation is not stored, so a write can never be
+ * hidden by a slow concurrent read. Given a copy function, the cache hands
+ * every caller its own copy, so editing a returned object (say, setting a new
+ * password on a User) cannot leak into other callers or the cache. Without
+ * one, cached objects are shared and must be treated as read-only.
+ */
+public class EntityCache<V> {
+
+    private static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("sams.cache.maxEntries", 1000);
+    private static final long DEFAULT_TTL_MS = Long.getLong("sams.cache.ttlMs", 300_000);
+
+    private static final Map<String, EntityCache<?>> REGISTRY = new ConcurrentHashMap<>();
+
+    /**
+     * Fetches a value from the database on a cache miss
+     */
+    public interface Loader<T, X extends Exception> {
+        T load() throws X;
+    }
+
+    private final String name;
+    private final Function<V, Integer> idOf;
+    private final Function<V, String> naturalKeyOf;
+    // Null when cached objects are handed out as they are
+    private final UnaryOperator<V> copyOf;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Integer, Entry<V>> byId;
+    private final Map<String, Integer> idByNaturalKey = new HashMap<>();
+    private Entry<List<V>> all;
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EntityCache(String name, Function<V, Integer> idOf, Function<V, String> naturalKeyOf) {
+        this(name, idOf, naturalKeyOf, null);
+    }
+
+    public EntityCache(String name, Function<V, Integer> idOf, Function<V, String> naturalKeyOf,
+                       UnaryOperator<V> copyOf) {
+        this(name, idOf, naturalKeyOf, copyOf, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS);
+    }
+
+    public EntityCache(String name, Function<V, Integer> idOf, Function<V, String> naturalKeyOf,
+                       UnaryOperator<V> copyOf, int maxEntries, long ttlMillis) {
+        this.name = name;
+        this.idOf = idOf;
+        this.naturalKeyOf = naturalKeyOf;
+        this.copyOf = copyOf;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true);
+        REGISTRY.put(name, this);
+    }
+
+    /**
+     * Look up by primary key, loading and caching the entity on a miss
+     */
+    public <X extends Exception> V getById(int id, Loader<V, X> loader) throws X {
+        long startVersion;
+        synchronized (this) {
+            Entry<V> entry = byId.get(id);
+            if (entry != null && !entry.isExpired()) {
+                hits++;
+                return copy(entry.value);
+            }
+            if (entry != null) {
+                remove(id);
+                evictions++;
+            }
+            misses++;
+            startVersion = version;
+        }
+        V value = loader.load();
+        store(value, startVersion);
+        return copy(value);
+    }
+
+    /**
+     * Look up by natural key, loading and caching the entity on a miss
+     */
+    public <X extends Exception> V getByNaturalKey(String key, Loader<V, X> loader) throws X {
+        long startVersion;
+        synchronized (this) {
+            Integer id = idByNaturalKey.get(key);
+            Entry<V> entry = id != null ? byId.get(id) : null;
+            if (entry != null && !entry.isExpired()) {
+                hits++;
+                return copy(entry.value);
+            }
+            if (entry != null) {
+                remove(id);
+                evictions++;
+            }
+            misses++;
+            startVersion = version;
+        }
+        V value = loader.load();
+        store(value, startVersion);
+        return copy(value);
+    }
+
+    /**
+     * Get the full list snapshot, loading it on a miss. Callers receive an unmodifiable list.
+     */
+    public <X extends Exception> List<V> getAll(Loader<List<V>, X> loader) throws X {
+        long startVersion;
+        synchronized (this) {
+            if (all != null && !all.isExpired()) {
+                hits++;
+                return copy(all.value);
+            }
+            if (all != null) {
+                all = null;
+                evictions++;
+            }
+            misses++;
+            startVersion = version;
+        }
+        List<V> values = Collections.unmodifiableList(new ArrayList<>(loader.load()));
+        synchronized (this) {
+            if (version == startVersion) {
+                all = new Entry<>(values, ttlMillis);
+            }
+        }
+        return copy(values);
+    }
+
+    private V copy(V value) {
+        return copyOf != null && value != null ? copyOf.apply(value) : value;
+    }
+
+    private List<V> copy(List<V> values) {
+        if (copyOf == null) {
+            return values;
+        }
+        List<V> copies = new ArrayList<>(values.size());
+        for (V value : values) {
+            copies.add(copy(value));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    private synchronized void store(V value, long startVersion) {
+        if (value == null || version != startVersion) {
+            return;
+        }
+        int id = idOf.apply(value);
+        remove(id);
+        byId.put(id, new Entry<>(value, ttlMillis));
+        String key = naturalKeyOf.apply(value);
+        if (key != null) {
+            idByNaturalKey.put(key, id);
+        }
+
+        while (byId.size() > maxEntries) {
+            int eldest = byId.keySet().iterator().next();
+            remove(eldest);
+            evictions++;
+        }
+    }
+
+    private void remove(int id) {
+        Entry<V> entry = byId.remove(id);
+        if (entry != null) {
+            String key = naturalKeyOf.apply(entry.value);
+            if (key != null) {
+                idByNaturalKey.remove(key, id);
+            }
+        }
+    }
+
+    /**
+     * Drop one entity and the list snapshot after it was written
+     */
+    public synchronized void invalidate(int id) {
+        version++;
+        remove(id);
+        all = null;
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk write or a change that touches joined columns
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        byId.clear();
+        idByNaturalKey.clear();
+        all = null;
+    }
+
+    /**
+     * Get a snapshot of the hit, miss and eviction counters
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, byId.size(), maxEntries, hits, misses, evictions);
+    }
+
+    /**
+     * Get statistics for every cache created in this JVM, keyed by cache name
+     */
+    public static Map<String, CacheStats> getAllStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        for (EntityCache<?> cache : REGISTRY.values()) {
+            stats.put(cache.name, cache.getStats());
+        }
+        return stats;
+    }
+
+    private static class Entry<T> {
+        final T value;
+        final long expiresAt;
+
+        Entry(T value, long ttlMillis) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + ttlMillis;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache usage
+     */
+    public static class CacheStats {
+        private final String name;
+        private final int size;
+        private final int maxEntries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        CacheStats(String name, int size, int maxEntries, long hits, long misses, long evictions) {
+            this.name = name;
+            this.size = size;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                                 name, size, maxEntries, hits, misses, evictions, getHitRate() * 100);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement JDBC metrics. The pool behind DatabaseConnection wraps each
+ * physical connection once, so that every statement execution is timed and
+ * counted against its SQL, normalized so that literals and IN lists of any
+ * length share one entry. Result sets count rows through CountingResultSet.
+ *
+ * Each entry keeps error and row counts and a LatencyHistogram from which
+ * execution count, p50, p99 and max are read. The hot path is two nanoTime()
+ * calls and a few lock-free counter updates; the SQL is looked up once when a
+ * statement is prepared, not on every execution.
+ * Executions slower than sams.metrics.slowQueryMs (500) are logged.
+ */
+public class QueryMetrics {
+
+    private static final QueryMetrics INSTANCE = new QueryMetrics(Long.getLong("sams.metrics.slowQueryMs", 500));
+
+    // Raw SQL strings remembered so the same text is only normalized once
+    private static final int MAX_CACHED_SQL = 2048;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\?(?: ?, ?\\?)*\\)");
+
+    private final long slowQueryNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Entry> entriesByRawSql = new ConcurrentHashMap<>();
+
+    QueryMetrics(long slowQueryMillis) {
+        this.slowQueryNanos = slowQueryMillis * 1_000_000;
+    }
+
+    public static QueryMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Wrap a connection so its statements report to these metrics. Meant to be
+     * applied once per physical connection, not on every borrow.
+     */
+    public Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Statistics of every statement seen so far, by total time spent, highest first
+     */
+    public List<QueryStats> getStats() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            stats.add(entry.snapshot());
+        }
+        stats.sort(Comparator.comparingDouble(QueryStats::getTotalMillis).reversed());
+        return stats;
+    }
+
+    public void reset() {
+        entries.clear();
+        entriesByRawSql.clear();
+    }
+
+    /**
+     * Collapse whitespace and replace literals with ?, so that statements
+     * differing only in their values are counted together
+     */
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+    }
+
+    private Entry entryFor(String sql) {
+        Entry entry = entriesByRawSql.get(sql);
+        if (entry != null) {
+            return entry;
+        }
+        entry = entries.computeIfAbsent(normalize(sql), Entry::new);
+        if (entriesByRawSql.size() < MAX_CACHED_SQL) {
+            entriesByRawSql.put(sql, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Running totals for one normalized statement
+     */
+    private class Entry {
+        final String sql;
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos, boolean failed) {
+            latency.record(nanos);
+            if (failed) {
+                errors.increment();
+            }
+            if (nanos >= slowQueryNanos) {
+                System.err.println(String.format("Slow query (%.1f ms)%s: %s",
+                    nanos / 1_000_000.0, failed ? " failed" : "", sql));
+            }
+        }
+
+        QueryStats snapshot() {
+            return new QueryStats(sql, latency.getCount(), errors.sum(), rows.sum(), latency.getTotalMillis(),
+                                  latency.getPercentileMillis(0.50), latency.getPercentileMillis(0.99),
+                                  latency.getMaxMillis());
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps the statements created on a connection
+     */
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object result = QueryMetrics.invoke(connection, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            Class<?> type = result instanceof CallableStatement ? CallableStatement.class :
+                            result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            Entry prepared = type != Statement.class ? entryFor((String) args[0]) : null;
+            return Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Statement) result, (Connection) proxy, prepared));
+        }
+    }
+
+    /**
+     * Times executions and counts affected rows. Prepared statements report to
+     * the entry of their SQL; plain statements to the SQL passed to execute().
+     */
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        private final Entry prepared;
+        private Entry batch;
+        private Entry last;
+
+        StatementHandler(Statement statement, Connection connection, Entry prepared) {
+            this.statement = statement;
+            this.connection = connection;
+            this.prepared = prepared;
+            this.last = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "getConnection":
+                    return connection;
+                case "getResultSet":
+                    return countRows((ResultSet) QueryMetrics.invoke(statement, method, args), proxy);
+                case "addBatch":
+                    if (prepared == null && batch == null) {
+                        batch = entryFor((String) args[0]);
+                    }
+                    return QueryMetrics.invoke(statement, method, args);
+                case "clearBatch":
+                    batch = null;
+                    return QueryMetrics.invoke(statement, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!name.startsWith("execute")) {
+                return QueryMetrics.invoke(statement, method, args);
+            }
+
+            Entry entry = prepared;
+            if (entry == null) {
+                entry = name.endsWith("Batch") ? batch : entryFor((String) args[0]);
+                batch = null;
+            }
+            if (entry == null) {
+                return QueryMetrics.invoke(statement, method, args);
+            }
+            last = entry;
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = QueryMetrics.invoke(statement, method, args);
+                failed = false;
+                if (result instanceof ResultSet) {
+                    return countRows((ResultSet) result, proxy);
+                }
+                entry.rows.add(affectedRows(result));
+                return result;
+            } finally {
+                entry.record(System.nanoTime() - start, failed);
+            }
+        }
+
+        private ResultSet countRows(ResultSet rs, Object statementProxy) {
+            if (rs == null || last == null) {
+                return rs;
+            }
+            return new CountingResultSet(rs, (Statement) statementProxy, last.rows);
+        }
+
+        private long affectedRows(Object result) {
+            long rows = 0;
+            if (result instanceof Integer || result instanceof Long) {
+                rows = Math.max(0, ((Number) result).longValue());
+            } else if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Immutable snapshot of one normalized statement's metrics
+     */
+    public static class QueryStats {
+        private final String sql;
+        private final long executions;
+        private final long errors;
+        private final long rows;
+        private final double totalMillis;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        QueryStats(String sql, long executions, long errors, long rows, double totalMillis,
+                   double p50Millis, double p99Millis, double maxMillis) {
+            this.sql = sql;
+            this.executions = executions;
+            this.errors = errors;
+            this.rows = rows;
+            this.totalMillis = totalMillis;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Rows read from result sets plus rows reported by updates
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+
+        public double getMeanMillis() {
+            return executions > 0 ? totalMillis / executions : 0;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, errors=%d, rows=%d, total=%.1f ms, p50=%.2f ms, " +
+                                 "p99=%.2f ms, max=%.2f ms: %s",
+                                 executions, errors, rows, totalMillis, p50Millis,
+                                 p99Millis, maxMillis, sql);
+        }
+    }
+}
\ No newline at end of file
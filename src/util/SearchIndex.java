@@ -0,0 +1,310 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over a few short text fields per entity (numbers,
+ * codes and names). Every word is indexed by its trigrams and by its one and
+ * two letter prefixes, so a query narrows to candidates by intersecting
+ * posting bitsets instead of scanning the table with LIKE '%term%'.
+ *
+ * Terms of three or more letters match anywhere in a field, shorter terms
+ * match the start of a word, and every term of a multi-word query must match.
+ * Results are ranked: exact field match, then field prefix, then word prefix,
+ * then substring, with earlier fields breaking ties.
+ */
+public class SearchIndex {
+
+    private static final int EXACT = 100;
+    private static final int FIELD_PREFIX = 60;
+    private static final int WORD_PREFIX = 40;
+    private static final int SUBSTRING = 20;
+
+    /**
+     * Receives the documents while the index is being built
+     */
+    public interface DocumentSink {
+        void add(int id, String... fields);
+    }
+
+    /**
+     * Streams every document into the sink, usually from a single query
+     */
+    public interface DocumentSource<X extends Exception> {
+        void load(DocumentSink sink) throws X;
+    }
+
+    private final String name;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private volatile boolean built;
+
+    public SearchIndex(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Build the index from the source unless it is already built. The write lock
+     * is held while loading, so a DAO write racing the build is applied after it.
+     */
+    public <X extends Exception> void buildIfNeeded(DocumentSource<X> source) throws X {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            postings.clear();
+            documents.clear();
+            source.load(this::addDocument);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a document. Ignored until the index is built, since the build will read it anyway.
+     */
+    public void put(int id, String... fields) {
+        if (!built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            addDocument(id, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        if (!built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Force a full rebuild on the next search, e.g. after a bulk import
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of matching documents, best match first
+     */
+    public List<Integer> search(String query, int limit) {
+        String[] terms = normalize(query).split("\\s+");
+        List<Integer> ids = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = null;
+            for (String term : terms) {
+                if (term.isEmpty()) {
+                    continue;
+                }
+                BitSet matches = candidatesFor(term);
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.and(matches);
+                }
+                if (candidates.isEmpty()) {
+                    return ids;
+                }
+            }
+            if (candidates == null) {
+                return ids;
+            }
+
+            List<long[]> scored = new ArrayList<>();
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                long score = score(documents.get(id), terms);
+                if (score > 0) {
+                    scored.add(new long[]{score, id});
+                }
+            }
+            scored.sort((a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                ids.add((int) scored.get(i)[1]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a document with these fields would be found by the query, e.g.
+     * to check an edited row against search results already on screen
+     */
+    public boolean matches(String query, String... fields) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        return score(normalized, normalize(query).split("\\s+")) > 0;
+    }
+
+    private BitSet candidatesFor(String term) {
+        List<String> grams = new ArrayList<>();
+        if (term.length() < 3) {
+            grams.add("^" + term);
+        } else {
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                grams.add(term.substring(i, i + 3));
+            }
+        }
+
+        BitSet result = null;
+        for (String gram : grams) {
+            BitSet posting = postings.get(gram);
+            if (posting == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sum the best per-field score of each term; zero if any term does not really match
+     */
+    private long score(String[] fields, String[] terms) {
+        long total = 0;
+        for (String term : terms) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            long best = 0;
+            for (int f = 0; f < fields.length; f++) {
+                int match = matchScore(fields[f], term);
+                if (match > 0) {
+                    // Earlier fields (numbers, codes) win ties against later ones (names)
+                    best = Math.max(best, match * 10L - f);
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private int matchScore(String field, String term) {
+        if (field.equals(term)) {
+            return EXACT;
+        }
+        if (field.startsWith(term)) {
+            return FIELD_PREFIX;
+        }
+        int at = field.indexOf(term);
+        while (at > 0) {
+            if (field.charAt(at - 1) == ' ') {
+                return WORD_PREFIX;
+            }
+            at = field.indexOf(term, at + 1);
+        }
+        // Short terms only match word starts, matching how they are indexed
+        return term.length() >= 3 && field.contains(term) ? SUBSTRING : 0;
+    }
+
+    private void addDocument(int id, String... fields) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        documents.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, k -> new BitSet()).set(id);
+        }
+    }
+
+    private void removeDocument(int id) {
+        String[] fields = documents.remove(id);
+        if (fields == null) {
+            return;
+        }
+        for (String gram : grams(fields)) {
+            BitSet posting = postings.get(gram);
+            if (posting != null) {
+                posting.clear(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static List<String> grams(String[] fields) {
+        List<String> grams = new ArrayList<>();
+        for (String field : fields) {
+            for (String word : field.split(" ")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                grams.add("^" + word.substring(0, 1));
+                if (word.length() >= 2) {
+                    grams.add("^" + word.substring(0, 2));
+                }
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    grams.add(word.substring(i, i + 3));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+package util;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Cold start. The login window is shown before anything touches the database;
+ * meanwhile the pool is opened and reference data is preloaded in the
+ * background, so by the time the user has typed their credentials the first
+ * screens have what they need.
+ *
+ * Milestones are timed from JVM start and printed together once the
+ * dashboard is interactive.
+ *
+ * main() is the training run for the class data sharing archive built with
+ * the jar: it loads every application class and the Swing classes the
+ * screens use, headless, then exits so the JVM can dump them.
+ */
+public final class Startup {
+
+    private static final long JVM_START = ProcessHandle.current().info().startInstant()
+        .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+
+    private static final Map<String, Long> MILESTONES = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static boolean warmingUp;
+    private static volatile boolean reported;
+
+    private Startup() {
+    }
+
+    /**
+     * Record that a startup phase has finished, in milliseconds since JVM start
+     */
+    public static void milestone(String name) {
+        MILESTONES.putIfAbsent(name, System.currentTimeMillis() - JVM_START);
+    }
+
+    /**
+     * Work that gives a screen a head start, such as filling a cache
+     */
+    public interface Preload {
+        void run() throws Exception;
+    }
+
+    /**
+     * Connect in the background, then run the preloads in parallel. Only the
+     * first call starts anything. A connection failure is reported to onFailure
+     * on the EDT and leaves the next database access to retry; a failed preload
+     * is only logged, as the screen that needs the data loads it itself.
+     */
+    public static synchronized void warmUp(Consumer<Exception> onFailure, Preload... preloads) {
+        if (warmingUp) {
+            return;
+        }
+        warmingUp = true;
+
+        DataAccessExecutor executor = DataAccessExecutor.getInstance();
+        executor.submit(null, progress -> {
+            DatabaseConnection.getInstance();
+            milestone("database connected");
+            return null;
+        }, connected -> {
+            StatisticsService.getInstance();
+            AtomicInteger remaining = new AtomicInteger(preloads.length);
+            for (Preload preload : preloads) {
+                executor.submit(null, progress -> {
+                    try {
+                        preload.run();
+                    } finally {
+                        if (remaining.decrementAndGet() == 0) {
+                            milestone("reference data loaded");
+                        }
+                    }
+                    return null;
+                }, null, e -> System.err.println("Startup preload failed: " + e.getMessage()));
+            }
+        }, onFailure);
+    }
+
+    /**
+     * Record the final milestone and print the startup timeline, once per run
+     */
+    public static void interactive(String name) {
+        milestone(name);
+        if (reported) {
+            return;
+        }
+        reported = true;
+        StringBuilder report = new StringBuilder("Startup (ms since JVM start):");
+        synchronized (MILESTONES) {
+            MILESTONES.forEach((milestone, millis) ->
+                report.append(String.format("%n  %-24s %,6d", milestone, millis)));
+        }
+        System.out.println(report);
+    }
+
+    /**
+     * Class data sharing training run: load what a normal start loads, then exit
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+
+        // Building the component types the screens use pulls in their UI delegates
+        JPanel panel = new JPanel();
+        panel.add(new JTable(new DefaultTableModel(new Object[]{"Column"}, 1)));
+        panel.add(new JScrollPane(new JList<>(new String[]{"Item"})));
+        panel.add(new JComboBox<>(new String[]{"Item"}));
+        panel.add(new JTextField());
+        panel.add(new JPasswordField());
+        panel.add(new JCheckBox());
+        panel.add(new JButton());
+        panel.add(new JLabel());
+        panel.add(new JProgressBar());
+        panel.add(new JMenuBar());
+        panel.doLayout();
+
+        int loaded = 0;
+        for (String className : applicationClasses()) {
+            try {
+                Class.forName(className, false, Startup.class.getClassLoader());
+                loaded++;
+            } catch (ClassNotFoundException | LinkageError e) {
+                // e.g. optional classes whose dependencies are not on the classpath
+            }
+        }
+        try {
+            Class.forName(System.getProperty("sams.db.driver", "com.mysql.cj.jdbc.Driver"));
+        } catch (ClassNotFoundException e) {
+            // the archive just won't include the driver
+        }
+        System.out.println("Class data sharing training run loaded " + loaded + " application classes");
+        System.exit(0);
+    }
+
+    private static List<String> applicationClasses() throws IOException, URISyntaxException {
+        List<String> classNames = new ArrayList<>();
+        Path location = Path.of(Startup.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (Files.isDirectory(location)) {
+            try (var files = Files.walk(location)) {
+                files.filter(file -> file.toString().endsWith(".class"))
+                     .forEach(file -> classNames.add(className(location.relativize(file).toString())));
+            }
+            return classNames;
+        }
+
+        try (JarFile jar = new JarFile(location.toFile())) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+                    classNames.add(className(name));
+                }
+            }
+        }
+        return classNames;
+    }
+
+    private static String className(String path) {
+        return path.substring(0, path.length() - ".class".length()).replace('/', '.').replace('\\', '.');
+    }
+}
\ No newline at end of file
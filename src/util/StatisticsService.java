@@ -0,0 +1,264 @@
+package util;
+
+import javax.swing.SwingUtilities;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Statistics Service - Singleton Pattern
+ * Keeps the dashboard counts (active students, courses, active enrollments)
+ * in memory. They are computed once, then kept current from the DomainEvents
+ * published by the DAOs, so reading them costs no queries.
+ *
+ * A background reconciliation recounts everything on a schedule to repair any
+ * drift, e.g. from rows changed outside the application. An event that arrives
+ * while the count runs may or may not be in it, so a counter that saw one keeps
+ * its event-maintained value and the count is retried; a quiet counter takes
+ * the count as is. A change committed before the count but published after it
+ * can still be counted twice, until the next reconciliation replaces it.
+ */
+public class StatisticsService implements DomainEventBus.Listener {
+
+    private static final long RECONCILE_INTERVAL_MS = Long.getLong("sams.stats.reconcileMs", 300_000);
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private static final String COUNT_QUERY =
+        "SELECT (SELECT COUNT(*) FROM students WHERE status='Active'), " +
+        "(SELECT COUNT(*) FROM courses), " +
+        "(SELECT COUNT(*) FROM enrollments WHERE status='Enrolled')";
+
+    private static volatile StatisticsService instance;
+
+    private final Counter activeStudents = new Counter();
+    private final Counter courses = new Counter();
+    private final Counter activeEnrollments = new Counter();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean notifyPending = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean loaded;
+
+    private StatisticsService() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sams-statistics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        DomainEventBus.getInstance().subscribe(this);
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, RECONCILE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get singleton instance. The first call starts the initial count in the background.
+     */
+    public static StatisticsService getInstance() {
+        if (instance == null) {
+            synchronized (StatisticsService.class) {
+                if (instance == null) {
+                    instance = new StatisticsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Notified on the EDT whenever the counts change
+     */
+    public interface Listener {
+        void statisticsChanged(Statistics statistics);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * True once the initial count has completed
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(activeStudents.get(), courses.get(), activeEnrollments.get());
+    }
+
+    /**
+     * Recount in the background now, e.g. after a bulk change that published no events
+     */
+    public void requestReconcile() {
+        scheduler.execute(this::reconcileQuietly);
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        switch (event.getEntity()) {
+            case STUDENT -> activeStudents.add(delta(event, "Active"));
+            case COURSE -> courses.add(delta(event, null));
+            case ENROLLMENT -> activeEnrollments.add(delta(event, "Enrolled"));
+        }
+        if (loaded) {
+            fireChanged();
+        }
+    }
+
+    /**
+     * +1 if the entity starts being counted, -1 if it stops; a null status counts every row
+     */
+    private static int delta(DomainEvent event, String countedStatus) {
+        boolean before = event.getChange() != DomainEvent.Change.ADDED &&
+                         (countedStatus == null || countedStatus.equals(event.getOldStatus()));
+        boolean after = event.getChange() != DomainEvent.Change.DELETED &&
+                        (countedStatus == null || countedStatus.equals(event.getNewStatus()));
+        return (after ? 1 : 0) - (before ? 1 : 0);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (SQLException e) {
+            System.err.println("Statistics reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    private void reconcile() throws SQLException {
+        boolean changed = false;
+        boolean settled = false;
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS && !settled; attempt++) {
+            activeStudents.markReconcile();
+            courses.markReconcile();
+            activeEnrollments.markReconcile();
+
+            try (Connection connection = DatabaseConnection.getInstance().getConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(COUNT_QUERY)) {
+                if (!rs.next()) {
+                    return;
+                }
+                // Offer every counter its count, so the quiet ones settle even if another did not
+                changed |= activeStudents.reconcile(rs.getInt(1)) |
+                           courses.reconcile(rs.getInt(2)) |
+                           activeEnrollments.reconcile(rs.getInt(3));
+                settled = activeStudents.isReconciled() &
+                          courses.isReconciled() &
+                          activeEnrollments.isReconciled();
+            }
+        }
+
+        if (!settled && !loaded) {
+            // The first count has to land before the counts mean anything, so keep trying
+            requestReconcile();
+            return;
+        }
+        if (changed || !loaded) {
+            loaded = true;
+            fireChanged();
+        }
+    }
+
+    /**
+     * Notify listeners on the EDT, coalescing bursts of events into one update
+     */
+    private void fireChanged() {
+        if (!notifyPending.compareAndSet(false, true)) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            notifyPending.set(false);
+            Statistics statistics = getStatistics();
+            for (Listener listener : listeners) {
+                listener.statisticsChanged(statistics);
+            }
+        });
+    }
+
+    public void shutdown() {
+        DomainEventBus.getInstance().unsubscribe(this);
+        scheduler.shutdownNow();
+    }
+
+    private static class Counter {
+        private int value;
+        // Events applied since the running reconciliation started counting
+        private int eventsSinceMark;
+        // Whether the last count offered was taken
+        private boolean reconciled;
+
+        synchronized int get() {
+            return value;
+        }
+
+        synchronized void add(int delta) {
+            eventsSinceMark++;
+            value += delta;
+        }
+
+        synchronized void markReconcile() {
+            eventsSinceMark = 0;
+            reconciled = false;
+        }
+
+        /**
+         * Take the count unless an event arrived since markReconcile(); returns whether the value changed
+         */
+        synchronized boolean reconcile(int counted) {
+            if (eventsSinceMark > 0) {
+                return false;
+            }
+            reconciled = true;
+            boolean changed = value != counted;
+            value = counted;
+            return changed;
+        }
+
+        synchronized boolean isReconciled() {
+            return reconciled;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the counts
+     */
+    public static class Statistics {
+        private final int activeStudents;
+        private final int courses;
+        private final int activeEnrollments;
+
+        Statistics(int activeStudents, int courses, int activeEnrollments) {
+            this.activeStudents = activeStudents;
+            this.courses = courses;
+            this.activeEnrollments = activeEnrollments;
+        }
+
+        public int getActiveStudents() {
+            return activeStudents;
+        }
+
+        public int getCourses() {
+            return courses;
+        }
+
+        public int getActiveEnrollments() {
+            return activeEnrollments;
+        }
+
+        @Override
+        public String toString() {
+            return "activeStudents=" + activeStudents + ", courses=" + courses +
+                   ", activeEnrollments=" + activeEnrollments;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,451 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Local append-only write-ahead journal. Records go into a memory-mapped
+ * segment file and append() returns once they are forced to disk; appends
+ * that arrive while a force is running share the next one, so under load
+ * many records cost one fsync. Each record carries a sequence number and a
+ * CRC32C of its contents.
+ *
+ * Records stay pending until the consumer releases them. On open, every
+ * segment is scanned and the records past the local checkpoint become
+ * pending again. A record that is torn or fails its checksum ends the scan
+ * of its own segment only: recovery always starts a new segment, so a crash
+ * leaves at most one torn record per segment, and acknowledged records
+ * written after the restart are in the segments that follow. A gap in the
+ * sequence numbers between segments means acknowledged records were lost,
+ * and is reported by getRecoveryProblems(). Segments whose records have all
+ * been released are deleted.
+ *
+ * The directory is locked while open, so one process owns a journal.
+ */
+public class WriteJournal implements Closeable {
+
+    // length, checksum, sequence, type
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 1;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final String id;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, Record> pending = new ConcurrentSkipListMap<>();
+
+    // Guarded by appendLock
+    private final List<Segment> segments = new ArrayList<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long lastSequence;
+    private final List<String> recoveryProblems = new ArrayList<>();
+
+    private volatile long syncedSequence;
+
+    private WriteJournal(Path directory, int segmentBytes, FileChannel lockChannel, FileLock lock, String id) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        this.id = id;
+    }
+
+    /**
+     * Open the journal in the directory, creating it if needed, and recover
+     * the records that were not released before the last shutdown or crash
+     */
+    public static WriteJournal open(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Journal " + directory + " is in use by another process");
+        }
+
+        try {
+            Path idFile = directory.resolve("journal.id");
+            if (!Files.exists(idFile)) {
+                write(directory, idFile, UUID.randomUUID().toString());
+            }
+            String id = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+
+            WriteJournal journal = new WriteJournal(directory, segmentBytes, lockChannel, lock, id);
+            journal.appendLock.lock();
+            try {
+                journal.recover();
+                journal.roll();
+            } finally {
+                journal.appendLock.unlock();
+            }
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            lock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies this journal, so whoever applies it can remember how far it got
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Append a record and wait until it is on disk
+     *
+     * @return the record's sequence number
+     */
+    public long append(byte type, byte[] payload) throws IOException {
+        int size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes - 4) {
+            throw new IOException("Journal record of " + payload.length + " bytes does not fit in a segment");
+        }
+
+        long sequence;
+        appendLock.lock();
+        try {
+            if (active == null) {
+                throw new IOException("Journal has been closed");
+            }
+            if (active.remaining() < size + 4) {
+                roll();
+            }
+            sequence = lastSequence + 1;
+            active.putInt(payload.length)
+                  .putInt(checksum(payload.length, sequence, type, payload))
+                  .putLong(sequence)
+                  .put(type)
+                  .put(payload);
+            lastSequence = sequence;
+            segments.get(segments.size() - 1).lastSequence = sequence;
+            pending.put(sequence, new Record(sequence, type, payload));
+        } finally {
+            appendLock.unlock();
+        }
+
+        sync(sequence);
+        return sequence;
+    }
+
+    /**
+     * Force everything up to the sequence to disk. One thread forces at a
+     * time, covering every record appended before it started, so the threads
+     * queued behind it usually find their record already synced.
+     */
+    private void sync(long sequence) throws IOException {
+        if (syncedSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            MappedByteBuffer buffer;
+            long target;
+            appendLock.lock();
+            try {
+                buffer = active;
+                target = lastSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            // Segments before the active one were forced when it replaced them
+            buffer.force();
+            syncedSequence = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Pending records after the sequence, oldest first. Records are only
+     * handed out once they are on disk, so nothing is applied that a crash
+     * could take back.
+     */
+    public List<Record> pendingAfter(long sequence, int max) {
+        List<Record> records = new ArrayList<>();
+        long synced = syncedSequence;
+        for (Record record : pending.tailMap(sequence, false).values()) {
+            if (record.sequence > synced || records.size() == max) {
+                break;
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * What the last open found lost or damaged, for the owner to report
+     */
+    public List<String> getRecoveryProblems() {
+        return Collections.unmodifiableList(recoveryProblems);
+    }
+
+    /**
+     * Sequence of the last record appended
+     */
+    public long getLastSequence() {
+        appendLock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Mark every record up to the sequence as applied: it is dropped from the
+     * pending records, not recovered again, and its segment is deleted once
+     * nothing in it is pending
+     */
+    public void release(long sequence) throws IOException {
+        pending.headMap(sequence, true).clear();
+        write(directory, directory.resolve("checkpoint"), Long.toString(sequence));
+
+        appendLock.lock();
+        try {
+            Iterator<Segment> iterator = segments.iterator();
+            while (iterator.hasNext()) {
+                Segment segment = iterator.next();
+                if (segment == segments.get(segments.size() - 1) || segment.lastSequence > sequence) {
+                    break;
+                }
+                try {
+                    Files.deleteIfExists(segment.path);
+                    iterator.remove();
+                } catch (IOException e) {
+                    // Windows keeps a file open while a mapping is reachable; retried on the next release
+                    break;
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.force();
+                activeChannel.close();
+                active = null;
+            }
+            lock.release();
+            lockChannel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Scan the segments in order, making every intact record past the local
+     * checkpoint pending. A damaged segment keeps the records before the
+     * damage and the scan carries on with the next one.
+     */
+    private void recover() throws IOException {
+        long checkpoint = 0;
+        Path checkpointFile = directory.resolve("checkpoint");
+        if (Files.exists(checkpointFile)) {
+            checkpoint = Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim());
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+
+        for (Path file : files) {
+            Segment segment = new Segment(file);
+            // A torn record was never acknowledged; the next segment carries on after the last good one
+            scan(segment, checkpoint);
+            if (segment.lastSequence == 0 || segment.lastSequence <= checkpoint) {
+                Files.deleteIfExists(file);
+            } else {
+                segments.add(segment);
+            }
+        }
+        lastSequence = Math.max(lastSequence, checkpoint);
+        syncedSequence = lastSequence;
+    }
+
+    /**
+     * Read one segment's records up to its end or its first damaged record.
+     * Within a segment the sequence must run on without a break; between
+     * segments it may skip ahead, which is reported as lost records.
+     */
+    private void scan(Segment segment, long checkpoint) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+        }
+
+        while (buffer.remaining() >= 4) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining() - (HEADER_BYTES - 4)) {
+                // End of segment, unused space or a torn record
+                return;
+            }
+            int checksum = buffer.getInt();
+            long sequence = buffer.getLong();
+            byte type = buffer.get();
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+
+            if (checksum != checksum(length, sequence, type, payload)) {
+                return;
+            }
+            if (segment.lastSequence == 0) {
+                if (lastSequence != 0 && sequence <= lastSequence) {
+                    return;
+                }
+                long expected = Math.max(lastSequence, checkpoint) + 1;
+                if (sequence > expected) {
+                    recoveryProblems.add("Journal records " + expected + " to " + (sequence - 1)
+                                         + " are missing before " + segment.path.getFileName());
+                }
+            } else if (sequence != lastSequence + 1) {
+                return;
+            }
+            lastSequence = sequence;
+            segment.lastSequence = sequence;
+            if (sequence > checkpoint) {
+                pending.put(sequence, new Record(sequence, type, payload));
+            }
+        }
+    }
+
+    /**
+     * Start a new segment. Recovery always starts one, so a torn tail is never appended after.
+     */
+    private void roll() throws IOException {
+        if (active != null) {
+            if (active.remaining() >= 4) {
+                active.putInt(END_OF_SEGMENT);
+            }
+            active.force();
+            activeChannel.close();
+        }
+
+        long first = lastSequence + 1;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, first, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                         StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        activeChannel.force(true);
+        syncDirectory(directory);
+        segments.add(new Segment(path));
+    }
+
+    private static int checksum(int length, long sequence, byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer header = ByteBuffer.allocate(4 + 8 + 1);
+        header.putInt(length).putLong(sequence).put(type).flip();
+        crc.update(header);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Replace a small file atomically, so a crash leaves the old or the new contents
+     */
+    private static void write(Path directory, Path file, String contents) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(directory);
+    }
+
+    /**
+     * Make a created or renamed file's directory entry durable, where the platform allows it
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on Windows, where the rename itself is durable
+        }
+    }
+
+    private static class Segment {
+        final Path path;
+        long lastSequence;
+
+        Segment(Path path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * One journaled record
+     */
+    public static class Record {
+        private final long sequence;
+        private final byte type;
+        private final byte[] payload;
+
+        Record(long sequence, byte type, byte[] payload) {
+            this.sequence = sequence;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public byte getType() {
+            return type;
+        }
+
+        public byte[] getPayload() {
+            return payload.clone();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package dao;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class InListTest {
+
+    @Test
+    public void sizesRoundUpToFixedSteps() {
+        assertEquals(0, InList.size(0));
+        assertEquals(1, InList.size(1));
+        assertEquals(4, InList.size(2));
+        assertEquals(1024, InList.size(1000));
+        assertEquals(2048, InList.size(1025));
+        assertEquals("?,?,?,?", InList.placeholders(3));
+    }
+
+    @Test
+    public void emptyListBindsNothing() throws Exception {
+        // The unfiltered GradeDAO.loadMarks query has no placeholders at all
+        List<Object> bound = new ArrayList<>();
+        assertEquals(1, InList.bindInts(recording(bound), 1, Collections.emptyList()));
+        assertEquals(1, InList.bindStrings(recording(bound), 1, Collections.emptyList()));
+        assertEquals(0, InList.placeholders(0).length());
+        assertEquals(List.of(), bound);
+    }
+
+    @Test
+    public void paddingRepeatsTheLastValue() throws Exception {
+        List<Object> bound = new ArrayList<>();
+        assertEquals(7, InList.bindInts(recording(bound), 3, List.of(5, 6)));
+        assertEquals(List.of(3, 5, 4, 6, 5, 6, 6, 6), bound);
+    }
+
+    /**
+     * A statement that records the index and value of every bind
+     */
+    private static PreparedStatement recording(List<Object> bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(InListTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (!method.getName().startsWith("set")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    bound.add(args[0]);
+                    bound.add(args[1]);
+                    return null;
+                });
+    }
+}
\ No newline at end of file
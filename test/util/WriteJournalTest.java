@@ -0,0 +1,155 @@
+package util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WriteJournalTest {
+
+    // Header of 17 bytes plus a 3 byte payload such as "r01"
+    private static final int RECORD_BYTES = 20;
+    private static final int SEGMENT_BYTES = 4096;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void recoversUnreleasedRecords() throws IOException {
+        WriteJournal journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 1, 5);
+        journal.release(2);
+        journal.close();
+
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        assertEquals(List.of("r03", "r04", "r05"), payloads(journal));
+        assertEquals(5, journal.getLastSequence());
+        assertTrue(journal.getRecoveryProblems().isEmpty());
+        journal.close();
+    }
+
+    @Test
+    public void tornRecordDoesNotHideLaterSegmentsAcrossTwoRestarts() throws IOException {
+        WriteJournal journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 1, 5);
+        journal.close();
+        Path first = segments().get(0);
+        tear(first, 5 * RECORD_BYTES);
+
+        // First restart: the torn record is dropped and new saves go to a new segment
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        assertEquals(5, journal.getLastSequence());
+        append(journal, 6, 7);
+        journal.close();
+
+        // Second restart before anything was released: the first segment is still torn
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        assertEquals(List.of("r01", "r02", "r03", "r04", "r05", "r06", "r07"), payloads(journal));
+        assertEquals(7, journal.getLastSequence());
+        assertTrue(journal.getRecoveryProblems().isEmpty());
+        append(journal, 8, 8);
+        assertEquals(8, journal.getLastSequence());
+        journal.close();
+    }
+
+    @Test
+    public void missingSegmentIsReportedAndLaterRecordsKept() throws IOException {
+        WriteJournal journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 1, 2);
+        journal.close();
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 3, 4);
+        journal.close();
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 5, 6);
+        journal.close();
+
+        List<Path> segments = segments();
+        assertEquals(3, segments.size());
+        Files.delete(segments.get(1));
+
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        assertEquals(List.of("r01", "r02", "r05", "r06"), payloads(journal));
+        assertEquals(1, journal.getRecoveryProblems().size());
+        assertTrue(journal.getRecoveryProblems().get(0).contains("3 to 4"));
+        journal.close();
+    }
+
+    @Test
+    public void releasedSegmentsAreDeleted() throws IOException {
+        WriteJournal journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 1, 3);
+        journal.close();
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        append(journal, 4, 4);
+        journal.release(journal.getLastSequence());
+
+        assertEquals(0, journal.getPendingCount());
+        assertEquals(1, segments().size());
+        journal.close();
+
+        journal = WriteJournal.open(directory, SEGMENT_BYTES);
+        assertFalse(journal.pendingAfter(0, 10).iterator().hasNext());
+        assertEquals(4, journal.getLastSequence());
+        journal.close();
+    }
+
+    private static void append(WriteJournal journal, int from, int to) throws IOException {
+        for (int i = from; i <= to; i++) {
+            journal.append((byte) 1, String.format("r%02d", i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static List<String> payloads(WriteJournal journal) {
+        List<String> payloads = new ArrayList<>();
+        for (WriteJournal.Record record : journal.pendingAfter(0, Integer.MAX_VALUE)) {
+            payloads.add(new String(record.getPayload(), StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    /**
+     * Leave a record header with a bad checksum, as a crash in the middle of an append would
+     */
+    private static void tear(Path segment, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12);
+            torn.putInt(3).putInt(0x12345678).putInt(6).flip();
+            channel.write(torn, position);
+        }
+    }
+}
\ No newline at end of file